@@ -0,0 +1,104 @@
+package com.techstore.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techstore.dto.product.ProductResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The gzip cost of product listing pages shaped like the seeded catalog, per
+ * page size. The setup prints the plain and compressed sizes and the transfer
+ * time they imply on a 10 Mbit/s link. Run with
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.benchmarks=CatalogCompressionBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class CatalogCompressionBenchmark {
+    
+    private static final double LINK_BYTES_PER_MS = 10_000_000 / 8 / 1000.0; // 10 Mbit/s
+    
+    @Param({"12", "48", "100"})
+    public int pageSize;
+    
+    private byte[] json;
+    
+    @Setup(Level.Trial)
+    public void render() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        json = objectMapper.writeValueAsBytes(
+                new PageImpl<>(products(pageSize), PageRequest.of(0, pageSize), 500));
+        byte[] gzipped = gzip(json);
+        if (gzipped.length >= json.length / 3) {
+            throw new IllegalStateException("Page of " + pageSize + " only compresses to "
+                    + gzipped.length + " of " + json.length + " bytes");
+        }
+        System.out.printf("page=%3d json=%7d B gzip=%6d B (%4.1f%%) transfer@10Mbit: %.2f ms -> %.2f ms + gzip%n",
+                pageSize, json.length, gzipped.length, 100.0 * gzipped.length / json.length,
+                json.length / LINK_BYTES_PER_MS, gzipped.length / LINK_BYTES_PER_MS);
+    }
+    
+    @Benchmark
+    public byte[] gzip() throws IOException {
+        return gzip(json);
+    }
+    
+    private static List<ProductResponse> products(int count) {
+        String[] brands = {"Apple", "Dell", "HP", "Samsung", "Google", "Sony", "Bose"};
+        List<ProductResponse> products = new ArrayList<>(count);
+        
+        for (int i = 0; i < count; i++) {
+            String brand = brands[i % brands.length];
+            products.add(new ProductResponse(
+                    (long) i + 1,
+                    brand + " Model " + (1000 + i * 37),
+                    "Intel Core i7, 16GB RAM, 512GB SSD, " + (13 + i % 4) + "\" display, "
+                            + "backlit keyboard, Wi-Fi 6E and two Thunderbolt ports",
+                    new BigDecimal(499 + i * 13 + ".99"),
+                    i % 3 == 0 ? new BigDecimal(449 + i * 13 + ".99") : null,
+                    10 + i % 40,
+                    brand.toUpperCase() + "-" + (5000 + i),
+                    brand,
+                    new ProductResponse.CategoryRef((long) (2 + i % 6), "Laptops"),
+                    List.of("https://via.placeholder.com/400x300?text=" + brand + "+" + i),
+                    4.0 + (i % 10) / 10.0,
+                    i % 57,
+                    LocalDateTime.now().minusDays(i),
+                    LocalDateTime.now()
+            ));
+        }
+        return products;
+    }
+    
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+}
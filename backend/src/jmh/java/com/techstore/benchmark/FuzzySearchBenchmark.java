@@ -0,0 +1,143 @@
+package com.techstore.benchmark;
+
+import com.techstore.search.FuzzyProductIndex;
+import com.techstore.search.SearchText;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the fuzzy index over the checked-in catalog corpus
+ * ({@code search/products.tsv}), expanded with colour, storage and
+ * generation variants and model numbers to 500k products, and times the
+ * misspelled queries of {@code search/queries.tsv} in turn. The setup checks
+ * that every top result contains the intended words. Run with
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.benchmarks=FuzzySearchBenchmark}.
+ */
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class FuzzySearchBenchmark {
+    
+    private static final int PRODUCTS = 500_000;
+    private static final int PAGE = 20;
+    private static final String[] COLOURS = {
+            "", "Black", "White", "Silver", "Graphite", "Blue", "Green", "Red", "Midnight", "Rose Gold"};
+    private static final String[] STORAGE = {"", "64GB", "128GB", "256GB", "512GB", "1TB"};
+    private static final String[] GENERATIONS = {"", "2023", "2024", "Gen 2", "Gen 3"};
+    
+    @State(Scope.Benchmark)
+    public static class Catalog {
+        
+        FuzzyProductIndex.Builder builder;
+        FuzzyProductIndex index;
+        String[] queries;
+        
+        @Setup(Level.Trial)
+        public void build() throws IOException {
+            List<String[]> base = read("/search/products.tsv");
+            List<String[]> queryRows = read("/search/queries.tsv");
+            
+            Random random = new Random(46);
+            builder = FuzzyProductIndex.builder();
+            long id = 1;
+            outer:
+            for (int variant = 0; ; variant++) {
+                String suffix = " " + COLOURS[variant % COLOURS.length]
+                        + " " + STORAGE[variant / COLOURS.length % STORAGE.length]
+                        + " " + GENERATIONS[variant / (COLOURS.length * STORAGE.length) % GENERATIONS.length];
+                for (String[] product : base) {
+                    // Cubing skews sales towards a few bestsellers
+                    double u = random.nextDouble();
+                    // A model number per listing grows the vocabulary the way a real catalog's does
+                    String model = " " + product[0].substring(0, 2) + (10_000 + id % 90_000);
+                    builder.add(id, product[1] + suffix + model, product[0], 1 + (long) (u * u * u * 10_000));
+                    if (id++ == PRODUCTS) {
+                        break outer;
+                    }
+                }
+            }
+            index = builder.build();
+            queries = queryRows.stream().map(row -> row[0]).toArray(String[]::new);
+            checkRelevance(base, queryRows);
+        }
+        
+        private void checkRelevance(List<String[]> base, List<String[]> queryRows) {
+            List<String> misses = new ArrayList<>();
+            for (String[] query : queryRows) {
+                if (query.length < 2 || query[1].isBlank()) {
+                    continue;
+                }
+                FuzzyProductIndex.Result result = index.search(query[0], 1);
+                if (result.productIds().length == 0) {
+                    misses.add(query[0] + " -> nothing");
+                    continue;
+                }
+                String[] top = base.get((int) ((result.productIds()[0] - 1) % base.size()));
+                String name = " " + SearchText.normalize(top[1] + " " + top[0]) + " ";
+                for (String word : SearchText.normalize(query[1]).split(" ")) {
+                    if (!name.contains(" " + word + " ")) {
+                        misses.add(query[0] + " -> " + top[1]);
+                        break;
+                    }
+                }
+            }
+            if (!misses.isEmpty()) {
+                throw new IllegalStateException("Irrelevant top results: " + misses);
+            }
+        }
+    }
+    
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+    
+    @Benchmark
+    @BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+    public FuzzyProductIndex.Result search(Catalog catalog, Cursor cursor) {
+        String query = catalog.queries[cursor.next];
+        cursor.next = (cursor.next + 1) % catalog.queries.length;
+        return catalog.index.search(query, PAGE);
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public FuzzyProductIndex build(Catalog catalog) {
+        return catalog.builder.build();
+    }
+    
+    private static List<String[]> read(String resource) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                FuzzySearchBenchmark.class.getResourceAsStream(resource), StandardCharsets.UTF_8))) {
+            for (String line; (line = reader.readLine()) != null; ) {
+                if (!line.isBlank() && !line.startsWith("#")) {
+                    rows.add(line.split("\t", -1));
+                }
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,95 @@
+package com.techstore.benchmark;
+
+import com.techstore.model.CartItem;
+import com.techstore.pricing.FlatRateShipping;
+import com.techstore.pricing.Money;
+import com.techstore.pricing.PercentageTax;
+import com.techstore.pricing.PricingEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The total of one cart computed the old way, as a chain of {@code BigDecimal}
+ * operations with a binary-double tax rate, and by the pricing engine in
+ * cents, in ns/op. Run with
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.benchmarks=MoneyArithmeticBenchmark};
+ * add {@code -Djmh.args="-prof gc"} for the bytes allocated per cart.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class MoneyArithmeticBenchmark {
+    
+    private static final int CARTS = 1024; // a power of two, so the next cart is a mask away
+    private static final int MAX_LINES = 8;
+    
+    private final PricingEngine engine = new PricingEngine(
+            new PercentageTax(new BigDecimal("0.10"), RoundingMode.HALF_UP),
+            new FlatRateShipping(1000, 0));
+    
+    private final List<List<CartItem>> carts = new ArrayList<>(CARTS);
+    private int next;
+    
+    @Setup
+    public void createCarts() {
+        Random random = new Random(3);
+        for (int i = 0; i < CARTS; i++) {
+            List<CartItem> items = new ArrayList<>();
+            for (int line = 1 + random.nextInt(MAX_LINES); line > 0; line--) {
+                CartItem item = new CartItem();
+                item.setPrice(BigDecimal.valueOf(99 + random.nextInt(250_000), 2));
+                item.setQuantity(1 + random.nextInt(3));
+                items.add(item);
+            }
+            carts.add(items);
+        }
+        
+        for (List<CartItem> items : carts) {
+            if (Money.toMinor(bigDecimalTotal(items)) != engine.totals(items).total()) {
+                throw new IllegalStateException("BigDecimal and cents totals differ for " + items);
+            }
+        }
+    }
+    
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        return bigDecimalTotal(nextCart());
+    }
+    
+    @Benchmark
+    public long cents() {
+        return engine.totals(nextCart()).total();
+    }
+    
+    private List<CartItem> nextCart() {
+        return carts.get(next++ & (CARTS - 1));
+    }
+    
+    // The calculation OrderService made before the pricing engine
+    private static BigDecimal bigDecimalTotal(List<CartItem> items) {
+        BigDecimal subtotal = BigDecimal.ZERO;
+        for (CartItem item : items) {
+            subtotal = subtotal.add(item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())));
+        }
+        BigDecimal tax = subtotal.multiply(BigDecimal.valueOf(0.1));
+        return subtotal.add(tax).add(BigDecimal.valueOf(10));
+    }
+}
@@ -0,0 +1,137 @@
+package com.techstore.benchmark;
+
+import com.techstore.recommendation.CoOccurrenceBuilder;
+import com.techstore.recommendation.CoOccurrenceMatrix;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bootstraps the co-occurrence matrix from a synthetic order history with a
+ * skewed product popularity, on a single worker and on the common fork-join
+ * pool, computes the top-K list of every product, and serves precomputed
+ * lists. Run with
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.benchmarks=RecommendationBenchmark}.
+ */
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class RecommendationBenchmark {
+    
+    private static final int ORDERS = 500_000;
+    private static final int PRODUCTS = 20_000;
+    private static final int MAX_LINES = 6;
+    private static final int K = 10;
+    private static final int LOOKUPS = 1 << 16; // a power of two, so the next lookup is a mask away
+    
+    @State(Scope.Benchmark)
+    public static class History {
+        
+        long[] orderIds = new long[ORDERS * MAX_LINES];
+        long[] productIds = new long[ORDERS * MAX_LINES];
+        int size;
+        CoOccurrenceMatrix matrix;
+        long[][] topK = new long[PRODUCTS + 1][];
+        long[] lookups = new long[LOOKUPS];
+        
+        @Setup(Level.Trial)
+        public void generate() {
+            Random random = new Random(7);
+            for (long orderId = 1; orderId <= ORDERS; orderId++) {
+                int lines = 1 + random.nextInt(MAX_LINES);
+                for (int i = 0; i < lines; i++) {
+                    // Squaring skews demand towards low ids, like a real catalog's bestsellers
+                    double u = random.nextDouble();
+                    orderIds[size] = orderId;
+                    productIds[size++] = 1 + (long) (u * u * PRODUCTS);
+                }
+            }
+            
+            ForkJoinPool single = new ForkJoinPool(1);
+            CoOccurrenceMatrix sequential = CoOccurrenceBuilder.build(orderIds, productIds, size, single);
+            single.shutdown();
+            matrix = CoOccurrenceBuilder.build(orderIds, productIds, size, ForkJoinPool.commonPool());
+            
+            long[] products = matrix.products();
+            for (long productId : products) {
+                topK[(int) productId] = matrix.topK(productId, K, 1);
+                if (!Arrays.equals(topK[(int) productId], sequential.topK(productId, K, 1))) {
+                    throw new IllegalStateException("Parallel and single-worker top-K differ for " + productId);
+                }
+            }
+            for (int i = 0; i < LOOKUPS; i++) {
+                lookups[i] = products[random.nextInt(products.length)];
+            }
+        }
+    }
+    
+    @State(Scope.Benchmark)
+    public static class Workers {
+        
+        @Param({"single", "common"})
+        public String pool;
+        
+        ForkJoinPool forkJoinPool;
+        
+        @Setup(Level.Trial)
+        public void start() {
+            forkJoinPool = pool.equals("single") ? new ForkJoinPool(1) : ForkJoinPool.commonPool();
+        }
+        
+        @TearDown(Level.Trial)
+        public void stop() {
+            if (forkJoinPool != ForkJoinPool.commonPool()) {
+                forkJoinPool.shutdown();
+            }
+        }
+    }
+    
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public CoOccurrenceMatrix bootstrap(History history, Workers workers) {
+        return CoOccurrenceBuilder.build(history.orderIds, history.productIds, history.size, workers.forkJoinPool);
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public long[][] topKForEveryProduct(History history) {
+        long[][] index = new long[PRODUCTS + 1][];
+        for (long productId : history.matrix.products()) {
+            index[(int) productId] = history.matrix.topK(productId, K, 1);
+        }
+        return index;
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public long[] serve(History history, Cursor cursor) {
+        return history.topK[(int) history.lookups[cursor.next++ & (LOOKUPS - 1)]];
+    }
+}
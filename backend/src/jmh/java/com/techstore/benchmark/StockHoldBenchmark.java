@@ -0,0 +1,134 @@
+package com.techstore.benchmark;
+
+import com.techstore.stock.StockHolds;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hold churn against the in-memory stock hold table: add, change and release
+ * from four threads while the timing wheel expires holds underneath, reported
+ * as throughput and as sampled latency percentiles; then the cost of
+ * expiring a large backlog, per hold. Run with
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.benchmarks=StockHoldBenchmark}.
+ */
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class StockHoldBenchmark {
+    
+    private static final int USERS = 100_000;
+    private static final int PRODUCTS = 1_000;
+    private static final int STOCK = 1_000;
+    private static final int BACKLOG = 2_000_000;
+    private static final long TICK_MILLIS = 100;
+    
+    @State(Scope.Benchmark)
+    public static class Churn {
+        
+        StockHolds stockHolds;
+        private Thread ticker;
+        
+        @Setup(Level.Trial)
+        public void start() {
+            stockHolds = stockHolds(Duration.ofSeconds(2));
+            ticker = new Thread(() -> {
+                while (!Thread.currentThread().isInterrupted()) {
+                    stockHolds.expireHolds();
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(TICK_MILLIS));
+                }
+            }, "stock-hold-ticker");
+            ticker.setDaemon(true);
+            ticker.start();
+        }
+        
+        // Every hold expires once traffic stops; no held quantity may leak
+        @TearDown(Level.Trial)
+        public void checkNothingLeaks() throws InterruptedException {
+            Thread.sleep(2_000 + 3 * TICK_MILLIS);
+            ticker.interrupt();
+            int leaked = 0;
+            for (long product = 0; product < PRODUCTS; product++) {
+                leaked += stockHolds.heldQuantity(product);
+            }
+            if (stockHolds.size() != 0 || leaked != 0) {
+                throw new IllegalStateException(stockHolds.size() + " holds and " + leaked
+                        + " held units left after expiry");
+            }
+        }
+    }
+    
+    @State(Scope.Benchmark)
+    public static class Backlog {
+        
+        StockHolds stockHolds;
+        
+        @Setup(Level.Iteration)
+        public void fill() throws InterruptedException {
+            stockHolds = stockHolds(Duration.ofSeconds(1));
+            for (int i = 0; i < BACKLOG; i++) {
+                stockHolds.hold((long) i, (long) (i % PRODUCTS), 1, Integer.MAX_VALUE);
+            }
+            Thread.sleep(1_000 + 2 * TICK_MILLIS);
+        }
+        
+        @TearDown(Level.Iteration)
+        public void checkAllExpired() {
+            if (stockHolds.size() != 0) {
+                throw new IllegalStateException(stockHolds.size() + " holds left after expiry");
+            }
+        }
+    }
+    
+    // Eight in ten operations add or change a hold, the rest release one
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+    @Threads(4)
+    public boolean churn(Churn state) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long user = random.nextInt(USERS);
+        long product = random.nextInt(PRODUCTS);
+        if (random.nextInt(10) < 8) {
+            return state.stockHolds.hold(user, product, 1 + random.nextInt(3), STOCK);
+        }
+        state.stockHolds.release(user, List.of(product));
+        return true;
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    @OperationsPerInvocation(BACKLOG)
+    public int expireBacklog(Backlog state) {
+        state.stockHolds.expireHolds();
+        return state.stockHolds.size();
+    }
+    
+    private static StockHolds stockHolds(Duration ttl) {
+        StockHolds stockHolds = new StockHolds(ttl, TICK_MILLIS, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(stockHolds, "enabled", true);
+        return stockHolds;
+    }
+}
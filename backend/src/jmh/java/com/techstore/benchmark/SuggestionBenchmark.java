@@ -0,0 +1,104 @@
+package com.techstore.benchmark;
+
+import com.techstore.dto.search.Suggestion;
+import com.techstore.search.SuggestionIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the autocomplete index over a synthetic catalog of brand, series
+ * and model names with skewed sales, and times top-8 lookups for prefixes
+ * of one to eight characters taken from real names, on average and as
+ * sampled percentiles. Run with
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.benchmarks=SuggestionBenchmark}.
+ */
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SuggestionBenchmark {
+    
+    private static final int PRODUCTS = 500_000;
+    private static final int MAX_ENTRIES = 200_000;
+    private static final int PREFIXES = 1 << 16; // a power of two, so the next prefix is a mask away
+    private static final String[] BRANDS = {
+            "Samsung", "Apple", "Sony", "Lenovo", "Logitech", "Asus", "Acer", "Dell", "HP", "Razer",
+            "Corsair", "Xiaomi", "Huawei", "Bose", "JBL", "Sennheiser", "Anker", "Belkin", "Garmin", "Canon"};
+    private static final String[] SERIES = {
+            "Galaxy", "Pro", "Ultra", "Max", "Air", "Vivo", "Zen", "Legion", "Predator", "Pavilion",
+            "Blade", "Vengeance", "Redmi", "Mate", "QuietComfort", "Flip", "Momentum", "PowerCore", "Forerunner", "EOS"};
+    private static final String[] KINDS = {
+            "Phone", "Laptop", "Tablet", "Headphones", "Keyboard", "Mouse", "Monitor", "Speaker", "Charger", "Watch",
+            "Camera", "Router", "Earbuds", "Webcam", "SSD", "Dock"};
+    private static final String[] VARIANTS = {"", " Black", " White", " 128GB", " 256GB", " 1TB", " Wireless", " Gen 2"};
+    
+    @State(Scope.Benchmark)
+    public static class Catalog {
+        
+        SuggestionIndex.Builder builder;
+        SuggestionIndex index;
+        String[] prefixes;
+        
+        @Setup(Level.Trial)
+        public void build() {
+            Random random = new Random(11);
+            String[] names = new String[PRODUCTS];
+            builder = SuggestionIndex.builder(4, 24);
+            for (int i = 0; i < PRODUCTS; i++) {
+                names[i] = BRANDS[random.nextInt(BRANDS.length)] + " " + SERIES[random.nextInt(SERIES.length)] + " "
+                        + KINDS[random.nextInt(KINDS.length)] + " " + (char) ('A' + random.nextInt(26))
+                        + (1 + random.nextInt(999)) + VARIANTS[random.nextInt(VARIANTS.length)];
+                // Cubing skews sales towards a few bestsellers
+                double u = random.nextDouble();
+                builder.add(new Suggestion(names[i], "product", (long) i), 1 + (long) (u * u * u * 10_000));
+            }
+            for (String brand : BRANDS) {
+                builder.add(new Suggestion(brand, "brand", null), 1_000_000);
+            }
+            index = builder.build(MAX_ENTRIES);
+            if (index.size() != MAX_ENTRIES) {
+                throw new IllegalStateException("Index kept " + index.size() + " entries, not " + MAX_ENTRIES);
+            }
+            
+            prefixes = new String[PREFIXES];
+            for (int i = 0; i < PREFIXES; i++) {
+                String[] words = names[random.nextInt(PRODUCTS)].split(" ");
+                String word = words[random.nextInt(words.length)];
+                prefixes[i] = word.substring(0, 1 + random.nextInt(Math.min(8, word.length())));
+            }
+        }
+    }
+    
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+    
+    @Benchmark
+    @BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+    public List<Suggestion> suggest(Catalog catalog, Cursor cursor) {
+        return catalog.index.suggest(catalog.prefixes[cursor.next++ & (PREFIXES - 1)], 8);
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public SuggestionIndex build(Catalog catalog) {
+        return catalog.builder.build(MAX_ENTRIES);
+    }
+}
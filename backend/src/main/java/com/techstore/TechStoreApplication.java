@@ -2,8 +2,10 @@ package com.techstore;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 
-@SpringBootApplication
+// The reactive catalog configures its own R2DBC pool; Boot's would replace the JDBC datasource
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 public class TechStoreApplication {
     public static void main(String[] args) {
         SpringApplication.run(TechStoreApplication.class, args);
@@ -0,0 +1,266 @@
+package com.techstore.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.CorsConfigurationSource;
+import org.springframework.web.cors.CorsUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sheds load per endpoint class before Spring Security runs, so a refused
+ * request never reaches a JWT lookup, a BCrypt hash or the connection pool.
+ * A request must get a token from its client's bucket and from the class
+ * bucket, then a permit from the class bulkhead; otherwise it is answered
+ * with 429 and a Retry-After. The bulkheads keep a search crawler or a login
+ * storm from occupying every Tomcat thread and pooled connection that
+ * checkout needs.
+ * <p>
+ * Shed responses carry the CORS headers the security chain would have added,
+ * with Retry-After exposed, so a browser client sees the 429 and can back off
+ * instead of failing on an opaque cross-origin error.
+ * <p>
+ * Nothing is shed before the instance reports ready, so the warmup replay
+ * is never throttled. Limits are per instance; a rate of 0 disables a bucket
+ * and a concurrency of 0 disables the bulkhead.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+    
+    private static final String OVERFLOW_CLIENT = "overflow";
+    
+    private final ApplicationAvailability availability;
+    private final CorsConfigurationSource corsConfigurationSource;
+    private final Map<EndpointClass, Lane> lanes = new EnumMap<>(EndpointClass.class);
+    private final Map<ClientKey, TokenBucket> clientBuckets = new ConcurrentHashMap<>();
+    
+    @Value("${admission.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${admission.max-tracked-clients:100000}")
+    private int maxTrackedClients;
+    
+    public AdmissionControlFilter(ApplicationAvailability availability,
+                                  // Spring MVC's handler mapping introspector is a CorsConfigurationSource too
+                                  @Qualifier("corsConfigurationSource") CorsConfigurationSource corsConfigurationSource,
+                                  Environment environment,
+                                  MeterRegistry meterRegistry) {
+        this.availability = availability;
+        this.corsConfigurationSource = corsConfigurationSource;
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            lanes.put(endpointClass, new Lane(endpointClass, environment, meterRegistry));
+        }
+        Gauge.builder("techstore.admission.tracked.clients", clientBuckets, Map::size)
+                .description("Clients with a rate limit bucket that has not refilled yet")
+                .register(meterRegistry);
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest req,
+                                    HttpServletResponse res,
+                                    FilterChain chain)
+            throws ServletException, IOException {
+        EndpointClass endpointClass = enabled ? EndpointClass.of(req) : null;
+        if (endpointClass == null || availability.getReadinessState() != ReadinessState.ACCEPTING_TRAFFIC) {
+            chain.doFilter(req, res);
+            return;
+        }
+        
+        Lane lane = lanes.get(endpointClass);
+        long now = System.nanoTime();
+        
+        long wait = lane.clientRate > 0 ? clientBucket(lane, req.getRemoteAddr(), now).tryAcquire(now) : 0;
+        if (wait > 0) {
+            shed(req, res, lane.shedClientRate, wait);
+            return;
+        }
+        wait = lane.bucket != null ? lane.bucket.tryAcquire(now) : 0;
+        if (wait > 0) {
+            shed(req, res, lane.shedClassRate, wait);
+            return;
+        }
+        if (lane.bulkhead != null && !lane.bulkhead.tryAcquire()) {
+            // Permits free up as fast as requests finish; a second is a conservative hint
+            shed(req, res, lane.shedBulkhead, TimeUnit.SECONDS.toNanos(1));
+            return;
+        }
+        
+        lane.admitted.increment();
+        boolean releaseLater = false;
+        try {
+            chain.doFilter(req, res);
+            // Reactive endpoints return before their response is written; the permit is held until it is
+            if (lane.bulkhead != null && req.isAsyncStarted()) {
+                req.getAsyncContext().addListener(new ReleaseOnComplete(lane.bulkhead));
+                releaseLater = true;
+            }
+        } finally {
+            if (lane.bulkhead != null && !releaseLater) {
+                lane.bulkhead.release();
+            }
+        }
+    }
+    
+    // A full bucket behaves exactly like a new one, so dropping it loses nothing
+    @Scheduled(fixedDelayString = "${admission.sweep-interval:60000}")
+    public void sweepIdleClients() {
+        long now = System.nanoTime();
+        clientBuckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+    
+    private TokenBucket clientBucket(Lane lane, String address, long now) {
+        ClientKey key = new ClientKey(lane.endpointClass, address);
+        TokenBucket bucket = clientBuckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        // Past the cap, unseen clients share one bucket instead of growing the map
+        if (clientBuckets.size() >= maxTrackedClients) {
+            key = new ClientKey(lane.endpointClass, OVERFLOW_CLIENT);
+        }
+        return clientBuckets.computeIfAbsent(key, k -> new TokenBucket(lane.clientRate, lane.clientBurst, now));
+    }
+    
+    private void shed(HttpServletRequest req, HttpServletResponse res, Counter counter, long waitNanos)
+            throws IOException {
+        counter.increment();
+        allowCrossOrigin(req, res);
+        res.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        res.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos - 1) + 1)));
+        res.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        res.getWriter().write("{\"message\":\"Too many requests, please retry later\"}");
+    }
+    
+    // What the CORS filter adds to an actual request, which it never sees once the request is shed
+    private void allowCrossOrigin(HttpServletRequest req, HttpServletResponse res) {
+        if (!CorsUtils.isCorsRequest(req)) {
+            return;
+        }
+        CorsConfiguration config = corsConfigurationSource.getCorsConfiguration(req);
+        String allowedOrigin = config != null ? config.checkOrigin(req.getHeader(HttpHeaders.ORIGIN)) : null;
+        res.addHeader(HttpHeaders.VARY, HttpHeaders.ORIGIN);
+        if (allowedOrigin == null) {
+            return;
+        }
+        res.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, allowedOrigin);
+        if (Boolean.TRUE.equals(config.getAllowCredentials())) {
+            res.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_CREDENTIALS, "true");
+        }
+        res.setHeader(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, HttpHeaders.RETRY_AFTER);
+    }
+    
+    private record ClientKey(EndpointClass endpointClass, String address) {
+    }
+    
+    // The container reports completion exactly once, after a timeout or error as well
+    private record ReleaseOnComplete(Semaphore bulkhead) implements AsyncListener {
+        
+        @Override
+        public void onComplete(AsyncEvent event) {
+            bulkhead.release();
+        }
+        
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+        
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+        
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+    }
+    
+    private static final class Lane {
+        
+        private final EndpointClass endpointClass;
+        private final double clientRate;
+        private final int clientBurst;
+        private final TokenBucket bucket;
+        private final Semaphore bulkhead;
+        private final Counter admitted;
+        private final Counter shedClientRate;
+        private final Counter shedClassRate;
+        private final Counter shedBulkhead;
+        
+        private Lane(EndpointClass endpointClass, Environment environment, MeterRegistry meterRegistry) {
+            String prefix = "admission." + endpointClass.key() + ".";
+            double rate = environment.getProperty(prefix + "rate", Double.class, 0.0);
+            int burst = environment.getProperty(prefix + "burst", Integer.class, 1);
+            int concurrency = environment.getProperty(prefix + "concurrency", Integer.class, 0);
+            
+            this.endpointClass = endpointClass;
+            this.clientRate = environment.getProperty(prefix + "client-rate", Double.class, 0.0);
+            this.clientBurst = environment.getProperty(prefix + "client-burst", Integer.class, 1);
+            this.bucket = rate > 0 ? new TokenBucket(rate, burst, System.nanoTime()) : null;
+            this.bulkhead = concurrency > 0 ? new Semaphore(concurrency) : null;
+            
+            String tag = endpointClass.key();
+            this.admitted = requests(meterRegistry, tag, "admitted", "none");
+            this.shedClientRate = requests(meterRegistry, tag, "shed", "client-rate");
+            this.shedClassRate = requests(meterRegistry, tag, "shed", "class-rate");
+            this.shedBulkhead = requests(meterRegistry, tag, "shed", "bulkhead");
+            
+            limit(meterRegistry, tag, "rate", rate);
+            limit(meterRegistry, tag, "burst", burst);
+            limit(meterRegistry, tag, "client-rate", clientRate);
+            limit(meterRegistry, tag, "client-burst", clientBurst);
+            limit(meterRegistry, tag, "concurrency", concurrency);
+            if (bulkhead != null) {
+                Gauge.builder("techstore.admission.in.flight", bulkhead,
+                                semaphore -> concurrency - semaphore.availablePermits())
+                        .description("Requests holding a bulkhead permit")
+                        .tag("class", tag)
+                        .register(meterRegistry);
+            }
+        }
+        
+        private static Counter requests(MeterRegistry meterRegistry, String endpointClass,
+                                        String outcome, String reason) {
+            return Counter.builder("techstore.admission.requests")
+                    .description("Requests admitted or shed by admission control")
+                    .tag("class", endpointClass)
+                    .tag("outcome", outcome)
+                    .tag("reason", reason)
+                    .register(meterRegistry);
+        }
+        
+        private static void limit(MeterRegistry meterRegistry, String endpointClass, String limit, double value) {
+            Gauge.builder("techstore.admission.limit", () -> value)
+                    .description("Configured admission limit; 0 means unlimited")
+                    .tag("class", endpointClass)
+                    .tag("limit", limit)
+                    .register(meterRegistry);
+        }
+    }
+}
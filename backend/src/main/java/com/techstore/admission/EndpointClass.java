@@ -0,0 +1,46 @@
+package com.techstore.admission;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Groups endpoints by the resource they exhaust, so each group can get its
+ * own rate limits and concurrency bulkhead.
+ */
+public enum EndpointClass {
+    
+    // LIKE scans over the catalog
+    SEARCH,
+    // BCrypt on every login and registration
+    AUTH,
+    CATALOG,
+    // Cart, order and payment writes
+    CHECKOUT;
+    
+    public String key() {
+        return name().toLowerCase();
+    }
+    
+    /**
+     * Returns null for requests that are not admission controlled: preflights,
+     * the payment provider's webhook, admin and unknown paths.
+     */
+    public static EndpointClass of(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if ("OPTIONS".equals(request.getMethod()) || path.equals("/api/payments/webhook")) {
+            return null;
+        }
+        if (path.equals("/api/products/search") || path.equals("/api/reactive/products/search")) {
+            return SEARCH;
+        }
+        if (path.startsWith("/api/auth/")) {
+            return AUTH;
+        }
+        if (path.startsWith("/api/cart") || path.startsWith("/api/orders") || path.startsWith("/api/payments/")) {
+            return CHECKOUT;
+        }
+        if (path.startsWith("/api/products") || path.startsWith("/api/reactive/products")) {
+            return CATALOG;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,45 @@
+package com.techstore.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in its GCRA form: instead of a token count and a
+ * refill timestamp it keeps a single "theoretical arrival time", the instant
+ * at which the bucket would be full again. Taking a token pushes that instant
+ * one emission interval forward; a request is refused when that would put it
+ * more than {@code burst} intervals ahead of now.
+ */
+public class TokenBucket {
+    
+    private final long intervalNanos;
+    private final long capacityNanos;
+    private final AtomicLong fullAt;
+    
+    public TokenBucket(double tokensPerSecond, int burst, long nowNanos) {
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / tokensPerSecond));
+        this.capacityNanos = intervalNanos * Math.max(burst, 1);
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+    
+    /**
+     * Takes one token. Returns 0 when it was available, otherwise the nanos
+     * until one will be, without taking it.
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = (current - nowNanos > 0 ? current : nowNanos) + intervalNanos;
+            long ahead = next - nowNanos;
+            if (ahead > capacityNanos) {
+                return ahead - capacityNanos;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+    
+    public boolean isFull(long nowNanos) {
+        return fullAt.get() - nowNanos <= 0;
+    }
+}
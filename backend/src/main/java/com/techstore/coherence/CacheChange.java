@@ -0,0 +1,30 @@
+package com.techstore.coherence;
+
+/**
+ * One entity change as it travels between nodes: the node that made it, the
+ * entity and its id (null for every row of the entity), a version from the
+ * {@code cache_changes} id sequence, and when it was sent in epoch millis.
+ */
+record CacheChange(String origin, CacheEntity entity, Long entityId, long version, long sentAt) {
+    
+    private static final String ALL = "-";
+    
+    /** The part of a NOTIFY payload the sender knows before the database assigns the version. */
+    static String header(String origin, CacheEntity entity, Long entityId) {
+        return origin + " " + entity + " " + (entityId != null ? entityId : ALL);
+    }
+    
+    /** Parses {@code "origin entity id version sentAt"}. */
+    static CacheChange parse(String payload) {
+        String[] fields = payload.split(" ");
+        if (fields.length != 5) {
+            throw new IllegalArgumentException("Malformed cache change: " + payload);
+        }
+        return new CacheChange(
+                fields[0],
+                CacheEntity.valueOf(fields[1]),
+                ALL.equals(fields[2]) ? null : Long.valueOf(fields[2]),
+                Long.parseLong(fields[3]),
+                Long.parseLong(fields[4]));
+    }
+}
@@ -0,0 +1,359 @@
+package com.techstore.coherence;
+
+import com.techstore.event.CatalogChangedEvent;
+import com.techstore.event.UserChangedEvent;
+import com.techstore.model.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the node-local caches of every replica coherent through the database
+ * they share. A change to a product or user is broadcast from inside the
+ * transaction that makes it, so it is delivered only if and when that
+ * transaction commits. Every other node then marks its in-memory catalog views
+ * stale, or evicts a changed user's cached roles and profile. Categories are
+ * only written by seeding or directly in the database, so they are not
+ * broadcast; their second-level cache entries expire after an hour instead.
+ * <p>
+ * In {@code notify} mode changes go out with {@code pg_notify}, and a listener
+ * thread holds one primary connection for {@code LISTEN}. Notifications sent
+ * while that connection is down are lost, so after reconnecting the node
+ * evicts everything. In {@code poll} mode, for poolers that do not support
+ * {@code LISTEN}, changes are rows of {@code cache_changes} read every
+ * {@code poll-interval}. Nothing is broadcast unless the database is Postgres.
+ */
+@Slf4j
+@Component
+public class CacheCoherenceBus {
+    
+    static final String CHANNEL = "techstore_cache";
+    
+    private static final String USER_ROLES = User.class.getName() + ".roles";
+    
+    private final String nodeId = UUID.randomUUID().toString().substring(0, 8);
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Counter sent;
+    private final Counter received;
+    private final Counter resyncs;
+    private final Timer lag;
+    
+    // Rows above the watermark that were already applied; ids commit out of order until they settle
+    private final Set<Long> recentlyPolled = new HashSet<>();
+    private long watermark;
+    
+    private volatile boolean active;
+    private volatile boolean connected;
+    private volatile Thread listener;
+    
+    @Value("${cache.coherence.mode:notify}")
+    private String mode;
+    
+    @Value("${cache.coherence.listen-timeout:500}")
+    private int listenTimeout;
+    
+    @Value("${cache.coherence.reconnect-delay:1000}")
+    private long reconnectDelay;
+    
+    @Value("${cache.coherence.settle-time:10s}")
+    private Duration settleTime;
+    
+    @Value("${cache.coherence.retention:1h}")
+    private Duration retention;
+    
+    public CacheCoherenceBus(DataSource dataSource,
+                             EntityManagerFactory entityManagerFactory,
+                             ApplicationEventPublisher eventPublisher,
+                             MeterRegistry meterRegistry) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.entityManagerFactory = entityManagerFactory;
+        this.eventPublisher = eventPublisher;
+        this.sent = meterRegistry.counter("techstore.cache.coherence.changes", "direction", "sent");
+        this.received = meterRegistry.counter("techstore.cache.coherence.changes", "direction", "received");
+        this.resyncs = meterRegistry.counter("techstore.cache.coherence.resyncs");
+        this.lag = Timer.builder("techstore.cache.coherence.lag")
+                .description("From a change being sent to this node evicting it, including clock skew between nodes")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("techstore.cache.coherence.connected", this, bus -> bus.connected ? 1 : 0)
+                .description("Whether the LISTEN connection is up in notify mode")
+                .register(meterRegistry);
+    }
+    
+    public String getNodeId() {
+        return nodeId;
+    }
+    
+    /**
+     * Broadcasts a change to the row {@code id} of {@code entity}, or to all
+     * of its rows when {@code id} is null. Inside a transaction the changes
+     * are collected and sent by one statement just before it commits.
+     */
+    @SuppressWarnings("unchecked")
+    public void publish(CacheEntity entity, Long id) {
+        if (!active) {
+            return;
+        }
+        Change change = new Change(entity, id);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            send(List.of(change));
+            return;
+        }
+        
+        Set<Change> pending = (Set<Change>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<Change> changes = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    send(changes);
+                }
+                
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CacheCoherenceBus.this);
+                }
+            });
+            pending = changes;
+        }
+        pending.add(change);
+    }
+    
+    private void send(Collection<Change> changes) {
+        if (isPolling()) {
+            jdbcTemplate.batchUpdate("INSERT INTO cache_changes (entity, entity_id, origin) VALUES (?, ?, ?)",
+                    changes.stream().map(change -> new Object[]{change.entity().name(), change.id(), nodeId}).toList());
+        } else {
+            // NOTIFY is transactional too: listeners only hear it once the transaction commits
+            String headers = changes.stream()
+                    .map(change -> CacheChange.header(nodeId, change.entity(), change.id()))
+                    .collect(Collectors.joining("\n"));
+            jdbcTemplate.query("""
+                            SELECT pg_notify(?, header || ' ' || nextval('cache_changes_id_seq') || ' ' || CAST(? AS text))
+                            FROM unnest(string_to_array(?, E'\\n')) AS header
+                            """,
+                    rs -> {
+                    },
+                    CHANNEL, String.valueOf(System.currentTimeMillis()), headers);
+        }
+        sent.increment(changes.size());
+    }
+    
+    // Synchronous, so it runs inside the transaction that changed the catalog. Stock and
+    // rating changes stay local: other nodes pick them up on their next snapshot refresh
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (!event.isRemote() && !event.isCountersOnly()) {
+            publish(CacheEntity.PRODUCT, event.getProductId());
+        }
+    }
+    
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (!event.isRemote()) {
+            publish(CacheEntity.USER, event.getUserId());
+        }
+    }
+    
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if ("off".equals(mode)) {
+            return;
+        }
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) {
+            log.info("Cache coherence bus disabled on {}", database);
+            return;
+        }
+        
+        if (isPolling()) {
+            watermark = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM cache_changes", Long.class);
+        } else {
+            Thread thread = new Thread(this::listen, "cache-coherence-listener");
+            thread.setDaemon(true);
+            listener = thread;
+            thread.start();
+        }
+        active = true;
+        log.info("Cache coherence bus started in {} mode as node {}", mode, nodeId);
+    }
+    
+    @PreDestroy
+    public void stop() {
+        active = false;
+        Thread thread = listener;
+        listener = null;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(listenTimeout * 2L);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    private void listen() {
+        boolean reconnecting = false;
+        while (listener == Thread.currentThread()) {
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + CHANNEL);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                connected = true;
+                if (reconnecting) {
+                    resync();
+                }
+                reconnecting = true;
+                
+                while (listener == Thread.currentThread()) {
+                    PGNotification[] notifications = pgConnection.getNotifications(listenTimeout);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        receive(CacheChange.parse(notification.getParameter()));
+                    }
+                }
+            } catch (SQLException | RuntimeException ex) {
+                if (listener == Thread.currentThread()) {
+                    log.warn("Cache coherence listener lost its connection, reconnecting", ex);
+                }
+            } finally {
+                connected = false;
+            }
+            
+            try {
+                TimeUnit.MILLISECONDS.sleep(reconnectDelay);
+            } catch (InterruptedException ex) {
+                return;
+            }
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${cache.coherence.poll-interval:500}")
+    public void poll() {
+        if (!active || !isPolling()) {
+            return;
+        }
+        
+        long settleMillis = settleTime.toMillis();
+        long now = System.currentTimeMillis();
+        List<PolledChange> rows = jdbcTemplate.query("""
+                SELECT id, entity, entity_id, origin,
+                       CAST(EXTRACT(EPOCH FROM clock_timestamp() - created_at) * 1000 AS BIGINT) AS age
+                FROM cache_changes
+                WHERE id > ?
+                ORDER BY id
+                LIMIT 1000
+                """, (rs, n) -> new PolledChange(new CacheChange(
+                rs.getString("origin"),
+                CacheEntity.valueOf(rs.getString("entity")),
+                rs.getObject("entity_id", Long.class),
+                rs.getLong("id"),
+                now - rs.getLong("age")), rs.getLong("age")), watermark);
+        
+        for (PolledChange row : rows) {
+            if (recentlyPolled.add(row.change().version())) {
+                receive(row.change());
+            }
+            // A transaction still open past the settle time could commit a lower id and be missed
+            if (row.age() >= settleMillis) {
+                watermark = Math.max(watermark, row.change().version());
+            }
+        }
+        recentlyPolled.removeIf(version -> version <= watermark);
+    }
+    
+    @Scheduled(fixedDelayString = "${cache.coherence.prune-interval:60000}")
+    public void prune() {
+        if (active && isPolling()) {
+            jdbcTemplate.update("DELETE FROM cache_changes WHERE created_at < clock_timestamp() - CAST(? AS interval)",
+                    retention.toSeconds() + " seconds");
+        }
+    }
+    
+    private void receive(CacheChange change) {
+        if (nodeId.equals(change.origin())) {
+            return;
+        }
+        received.increment();
+        evict(change.entity(), change.entityId());
+        lag.record(Math.max(0, System.currentTimeMillis() - change.sentAt()), TimeUnit.MILLISECONDS);
+    }
+    
+    private void evict(CacheEntity entity, Long id) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        switch (entity) {
+            case PRODUCT -> eventPublisher.publishEvent(new CatalogChangedEvent(id, true));
+            case USER -> {
+                if (id != null) {
+                    cache.evictCollectionData(USER_ROLES, id);
+                } else {
+                    cache.evictCollectionData(USER_ROLES);
+                }
+                eventPublisher.publishEvent(new UserChangedEvent(id, true));
+            }
+        }
+    }
+    
+    // Changes sent while the listener was disconnected are gone
+    private void resync() {
+        resyncs.increment();
+        for (CacheEntity entity : CacheEntity.values()) {
+            evict(entity, null);
+        }
+        log.info("Cache coherence listener reconnected; evicted all cached entities");
+    }
+    
+    private boolean isPolling() {
+        return "poll".equals(mode);
+    }
+    
+    private record Change(CacheEntity entity, Long id) {
+    }
+    
+    private record PolledChange(CacheChange change, long age) {
+    }
+}
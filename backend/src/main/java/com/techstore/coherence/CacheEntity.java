@@ -0,0 +1,7 @@
+package com.techstore.coherence;
+
+/** Entities that nodes cache locally and whose changes are broadcast. */
+public enum CacheEntity {
+    PRODUCT,
+    USER
+}
@@ -0,0 +1,120 @@
+package com.techstore.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Serializes the cart and checkout mutations of one user. Within a node a
+ * striped lock keyed by user id queues a double-clicked checkout behind the
+ * first one without a global lock; across nodes the {@code @Version} columns
+ * on carts and cart items turn the losing write into an optimistic locking
+ * failure, and the whole transaction is replayed on fresh state.
+ * <p>
+ * The lock is taken outside the transaction so a waiting request never holds
+ * a pooled connection. Nested calls (checkout clearing the cart) re-enter the
+ * lock and join the caller's transaction; only the outermost call retries.
+ */
+@Slf4j
+@Component
+public class UserMutations {
+    
+    private final ReentrantLock[] stripes;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter retries;
+    private final Counter conflicts;
+    
+    @Value("${user-mutations.lock-timeout:5s}")
+    private Duration lockTimeout;
+    
+    @Value("${user-mutations.max-attempts:3}")
+    private int maxAttempts;
+    
+    @Value("${user-mutations.retry-backoff:25ms}")
+    private Duration retryBackoff;
+    
+    public UserMutations(PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry,
+                         @Value("${user-mutations.stripes:256}") int stripes) {
+        // Power of two so the stripe is a mask of the spread hash
+        this.stripes = new ReentrantLock[Integer.highestOneBit(Math.max(stripes - 1, 1)) << 1];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retries = meterRegistry.counter("techstore.user.mutations", "outcome", "retried");
+        this.conflicts = meterRegistry.counter("techstore.user.mutations", "outcome", "conflict");
+    }
+    
+    public <T> T run(Long userId, Supplier<T> mutation) {
+        ReentrantLock lock = stripeFor(userId);
+        try {
+            if (!lock.tryLock(lockTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new RuntimeException("Another request for this account is still in progress");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the account lock", ex);
+        }
+        
+        try {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                return mutation.get();
+            }
+            return runWithRetries(userId, mutation);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public void run(Long userId, Runnable mutation) {
+        run(userId, () -> {
+            mutation.run();
+            return null;
+        });
+    }
+    
+    ReentrantLock stripeFor(Long userId) {
+        int hash = Long.hashCode(userId);
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+    
+    private <T> T runWithRetries(Long userId, Supplier<T> mutation) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> mutation.get());
+            } catch (OptimisticLockingFailureException ex) {
+                if (attempt >= maxAttempts) {
+                    conflicts.increment();
+                    throw ex;
+                }
+                retries.increment();
+                log.debug("Concurrent update of user {} data, retrying (attempt {})", userId, attempt + 1);
+                pause(attempt);
+            }
+        }
+    }
+    
+    // Jittered so two nodes that collided do not collide again on the retry
+    private void pause(int attempt) {
+        long bound = retryBackoff.toMillis() * attempt;
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(bound / 2, bound + 1));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while retrying", ex);
+        }
+    }
+}
@@ -1,14 +1,22 @@
 // backend/src/main/java/com/techstore/config/DataSeeder.java
 package com.techstore.config;
 
+import com.techstore.event.CatalogChangedEvent;
+import com.techstore.event.DataSeededEvent;
 import com.techstore.model.*;
 import com.techstore.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.event.EventListener;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.util.*;
@@ -24,9 +32,50 @@ public class DataSeeder {
     private final CategoryRepository categoryRepository;
     private final CartRepository cartRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    // Boot's executor, matched by name: it is shut down with the context, interrupting a seeding run
+    private final TaskExecutor applicationTaskExecutor;
 
+    // sync seeds before readiness, async on a background thread after it, off skips seeding
+    @Value("${data.seed.mode:sync}")
+    private String seedMode;
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
     @EventListener(ApplicationReadyEvent.class)
-    public void initDatabase() {
+    public void onApplicationReady() {
+        switch (seedMode) {
+            case "off" -> {
+                log.info("Database seeding disabled");
+                eventPublisher.publishEvent(new DataSeededEvent());
+            }
+            case "async" -> {
+                // Only a fresh database is worth a background thread
+                if (userRepository.count() > 0) {
+                    log.info("Database already seeded. Skipping...");
+                    eventPublisher.publishEvent(new DataSeededEvent());
+                } else {
+                    applicationTaskExecutor.execute(this::seedInBackground);
+                }
+            }
+            default -> {
+                transactionTemplate.executeWithoutResult(status -> initDatabase());
+                eventPublisher.publishEvent(new DataSeededEvent());
+            }
+        }
+    }
+
+    private void seedInBackground() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> initDatabase());
+        } catch (RuntimeException ex) {
+            log.error("Database seeding failed", ex);
+        } finally {
+            eventPublisher.publishEvent(new DataSeededEvent());
+        }
+    }
+
+    private void initDatabase() {
         // Check if data already exists
         if (userRepository.count() > 0) {
             log.info("Database already seeded. Skipping...");
@@ -50,6 +99,7 @@ public class DataSeeder {
 
         // Create Products
         createProducts(categories);
+        eventPublisher.publishEvent(new CatalogChangedEvent(null));
 
         log.info("Database seeding completed successfully!");
     }
@@ -94,6 +144,8 @@ public class DataSeeder {
         List<User> users = new ArrayList<>();
         String[] firstNames = {"John", "Jane", "Mike", "Sarah", "David"};
         String[] lastNames = {"Doe", "Smith", "Johnson", "Williams", "Brown"};
+        // BCrypt is deliberately slow; the demo accounts share one password, so hash it once
+        String password = passwordEncoder.encode("password123");
 
         for (int i = 0; i < 5; i++) {
             String email = firstNames[i].toLowerCase() + "@test.com";
@@ -102,7 +154,7 @@ public class DataSeeder {
 
             User user = new User();
             user.setEmail(email);
-            user.setPassword(passwordEncoder.encode("password123"));
+            user.setPassword(password);
             user.setFirstName(firstNames[i]);
             user.setLastName(lastNames[i]);
             user.setPhoneNumber("+1-555-010" + i);
@@ -0,0 +1,105 @@
+package com.techstore.config;
+
+import com.techstore.datasource.ReadWriteRoutingDataSource;
+import com.techstore.datasource.ReadYourWritesTracker;
+import com.techstore.datasource.Replica;
+import com.techstore.datasource.ReplicaLagMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Routes read-only transactions to the replicas listed in
+ * {@code datasource.replicas.urls}. Without that property the application
+ * keeps Spring Boot's single auto-configured datasource.
+ */
+@Configuration
+@ConditionalOnProperty("datasource.replicas.urls")
+public class DataSourceRoutingConfig {
+    
+    @Value("${datasource.replicas.urls}")
+    private List<String> replicaUrls;
+    
+    @Value("${datasource.replicas.username:${spring.datasource.username:}}")
+    private String replicaUsername;
+    
+    @Value("${datasource.replicas.password:${spring.datasource.password:}}")
+    private String replicaPassword;
+    
+    @Value("${datasource.routing.max-lag:5s}")
+    private Duration maxLag;
+    
+    @Value("${datasource.routing.read-your-writes-window:10s}")
+    private Duration readYourWritesWindow;
+    
+    @Bean(destroyMethod = "close")
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(DataSourceProperties properties,
+                                                                 Environment environment) {
+        Binder binder = Binder.get(environment);
+        
+        HikariDataSource primary = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        if (primary.getPoolName() == null) {
+            primary.setPoolName(ReadWriteRoutingDataSource.PRIMARY);
+        }
+        
+        List<Replica> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            String name = "replica-" + (replicas.size() + 1);
+            
+            HikariDataSource replica = new HikariDataSource();
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(replica));
+            replica.setPoolName(name);
+            replica.setJdbcUrl(url);
+            replica.setUsername(replicaUsername);
+            replica.setPassword(replicaPassword);
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setReadOnly(true);
+            
+            replicas.add(new Replica(name, replica));
+        }
+        
+        // A window shorter than the tolerated lag could send a user back to a replica that lacks their write
+        Duration window = readYourWritesWindow.compareTo(maxLag) < 0 ? maxLag : readYourWritesWindow;
+        
+        return new ReadWriteRoutingDataSource(primary, replicas, new ReadYourWritesTracker(window));
+    }
+    
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+    
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new ReplicaLagMonitor(readWriteRoutingDataSource, maxLag);
+    }
+    
+    @Bean
+    public MeterBinder replicaLagMetrics(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return registry -> readWriteRoutingDataSource.getReplicas().forEach(replica ->
+                Gauge.builder("techstore.datasource.replica.lag", replica, Replica::getLagMillis)
+                        .description("Replication lag per read replica, -1 while unreachable")
+                        .baseUnit("milliseconds")
+                        .tag("replica", replica.getName())
+                        .register(registry));
+    }
+}
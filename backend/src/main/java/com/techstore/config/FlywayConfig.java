@@ -0,0 +1,26 @@
+package com.techstore.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Under AOT, Flyway's auto-configuration is fixed at build time with migrations
+ * on. The property is still read at runtime, so it is checked again here; that
+ * lets the AppCDS training run (cds profile) start the prod context without a
+ * database.
+ */
+@Configuration
+public class FlywayConfig {
+    
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(
+            @Value("${spring.flyway.enabled:true}") boolean enabled) {
+        return flyway -> {
+            if (enabled) {
+                flyway.migrate();
+            }
+        };
+    }
+}
@@ -0,0 +1,52 @@
+package com.techstore.config;
+
+import com.techstore.datasource.ReadWriteRoutingDataSource;
+import com.techstore.metrics.SqlMetricsListener;
+import com.techstore.service.CacheStatisticsService;
+import com.techstore.tracing.SqlTracingListener;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class MetricsConfig {
+    
+    // Static so the post-processor does not force early init of this configuration
+    @Bean
+    public static BeanPostProcessor sqlMetricsDataSourcePostProcessor(
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // Routed connections are already counted on the lazy proxy in front of the router
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)
+                        && !(bean instanceof ReadWriteRoutingDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(new SqlMetricsListener(meterRegistry.getObject()))
+                            .listener(new SqlTracingListener())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+    
+    @Bean
+    public MeterBinder cacheHitRatioMetrics(CacheStatisticsService cacheStatisticsService) {
+        return registry -> cacheStatisticsService.getRegionStats().forEach(region ->
+                Gauge.builder("techstore.cache.hit.ratio", cacheStatisticsService,
+                                service -> service.getHitRatio(region.getRegion()))
+                        .description("Second-level cache hit ratio per region")
+                        .tag("region", region.getRegion())
+                        .register(registry));
+    }
+}
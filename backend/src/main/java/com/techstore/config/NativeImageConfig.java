@@ -0,0 +1,78 @@
+package com.techstore.config;
+
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+/**
+ * Reachability metadata for the native image that neither Spring AOT nor the
+ * GraalVM metadata repository provides. Entities, controllers and their DTOs
+ * are covered by Spring AOT; ServiceLoader providers are registered by
+ * native-image itself.
+ */
+@Configuration
+@ImportRuntimeHints(NativeImageConfig.NativeImageHints.class)
+public class NativeImageConfig {
+    
+    static class NativeImageHints implements RuntimeHintsRegistrar {
+        
+        // jjwt-api instantiates its runtime-scoped implementation by class name
+        private static final String[] JJWT_TYPES = {
+                "io.jsonwebtoken.impl.DefaultJwtBuilder",
+                "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+                "io.jsonwebtoken.jackson.io.JacksonSerializer",
+                "io.jsonwebtoken.jackson.io.JacksonDeserializer"
+        };
+        
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            for (String type : JJWT_TYPES) {
+                hints.reflection().registerType(TypeReference.of(type), MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            }
+            
+            // datasource-proxy wraps every JDBC object in a JDK dynamic proxy
+            for (Class<?> jdbcType : new Class<?>[] {
+                    Connection.class, Statement.class, PreparedStatement.class, CallableStatement.class}) {
+                hints.proxies().registerJdkProxy(ProxyJdbcObject.class, jdbcType);
+            }
+            
+            // Ehcache binds ehcache.xml to its JAXB model and validates it against the bundled schemas
+            hints.resources().registerPattern("ehcache.xml");
+            hints.resources().registerPattern("ehcache-core.xsd");
+            hints.resources().registerPattern("ehcache-107-ext.xsd");
+            hints.reflection().registerType(TypeReference.of("org.ehcache.jsr107.EhcacheCachingProvider"),
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            registerPackage(hints, classLoader, "org/ehcache/xml/model");
+        }
+        
+        private void registerPackage(RuntimeHints hints, ClassLoader classLoader, String path) {
+            try {
+                Resource[] classes = new PathMatchingResourcePatternResolver(classLoader)
+                        .getResources("classpath*:" + path + "/*.class");
+                for (Resource resource : classes) {
+                    String name = resource.getFilename();
+                    if (name.equals("package-info.class")) {
+                        continue;
+                    }
+                    String type = path.replace('/', '.') + "." + name.substring(0, name.length() - ".class".length());
+                    hints.reflection().registerType(TypeReference.of(type), MemberCategory.values());
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+}
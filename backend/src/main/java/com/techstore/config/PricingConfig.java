@@ -0,0 +1,39 @@
+package com.techstore.config;
+
+import com.techstore.pricing.FlatRateShipping;
+import com.techstore.pricing.Money;
+import com.techstore.pricing.PercentageTax;
+import com.techstore.pricing.ShippingRule;
+import com.techstore.pricing.TaxRule;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+@Configuration
+public class PricingConfig {
+    
+    @Value("${pricing.tax.rate:0.10}")
+    private BigDecimal taxRate;
+    
+    @Value("${pricing.tax.rounding:HALF_UP}")
+    private RoundingMode taxRounding;
+    
+    @Value("${pricing.shipping.flat-rate:10.00}")
+    private BigDecimal shippingRate;
+    
+    @Value("${pricing.shipping.free-from:0}")
+    private BigDecimal freeShippingFrom;
+    
+    @Bean
+    public TaxRule taxRule() {
+        return new PercentageTax(taxRate, taxRounding);
+    }
+    
+    @Bean
+    public ShippingRule shippingRule() {
+        return new FlatRateShipping(Money.toMinor(shippingRate), Money.toMinor(freeShippingFrom));
+    }
+}
@@ -0,0 +1,179 @@
+package com.techstore.config;
+
+import com.techstore.repository.ReactiveProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.pool.PoolMetrics;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Option;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * R2DBC connections for the reactive catalog read path, opened against the
+ * same database as the JDBC datasource. The pool is its own and comes on top
+ * of Hikari's; it is deliberately not a {@code ConnectionFactory} bean, since
+ * Spring Boot would then drop the JDBC datasource that JPA writes through.
+ * <p>
+ * The connection options are derived from the JDBC URL, with its TLS, schema
+ * and session parameters carried over; parameters without an R2DBC
+ * equivalent fail startup. {@code spring.r2dbc.url} overrides the derivation.
+ */
+@Configuration
+@ConditionalOnProperty(name = "catalog.reactive.enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveCatalogConfig {
+    
+    private static final String JDBC_PREFIX = "jdbc:postgresql://";
+    
+    // PgJDBC URL parameters and the r2dbc-postgresql options they become
+    private static final Map<String, String> MAPPED_PARAMETERS = Map.of(
+            "sslmode", "sslMode",
+            "sslrootcert", "sslRootCert",
+            "sslcert", "sslCert",
+            "sslkey", "sslKey",
+            "sslpassword", "sslPassword",
+            "ApplicationName", "applicationName",
+            "tcpKeepAlive", "tcpKeepAlive");
+    
+    // Client-side statement and batching tuning of PgJDBC; nothing the server or the session sees
+    private static final Set<String> JDBC_ONLY_PARAMETERS = Set.of(
+            "prepareThreshold", "preparedStatementCacheQueries", "preparedStatementCacheSizeMiB",
+            "reWriteBatchedInserts", "defaultRowFetchSize", "binaryTransfer", "loginTimeout", "socketTimeout");
+    
+    private static final Option<Map<String, String>> SESSION_OPTIONS = Option.valueOf("options");
+    
+    @Value("${spring.r2dbc.url:}")
+    private String r2dbcUrl;
+    
+    @Value("${catalog.reactive.pool.initial-size:1}")
+    private int initialSize;
+    
+    @Value("${catalog.reactive.pool.max-size:10}")
+    private int maxSize;
+    
+    @Value("${catalog.reactive.pool.max-acquire-time:3s}")
+    private Duration maxAcquireTime;
+    
+    @Value("${catalog.reactive.stream-fetch-size:250}")
+    private int streamFetchSize;
+    
+    @Bean(destroyMethod = "close")
+    public ReactiveProductRepository reactiveProductRepository(JdbcConnectionDetails connectionDetails,
+                                                               MeterRegistry meterRegistry) {
+        ConnectionPool pool = new ConnectionPool(ConnectionPoolConfiguration
+                .builder(ConnectionFactories.get(options(connectionDetails, r2dbcUrl)))
+                .name("reactive-catalog")
+                .initialSize(initialSize)
+                .maxSize(maxSize)
+                .maxAcquireTime(maxAcquireTime)
+                .build());
+        
+        pool.getMetrics().ifPresent(metrics -> {
+            connections(meterRegistry, metrics, "acquired", PoolMetrics::acquiredSize);
+            connections(meterRegistry, metrics, "idle", PoolMetrics::idleSize);
+            connections(meterRegistry, metrics, "pending", PoolMetrics::pendingAcquireSize);
+        });
+        return new ReactiveProductRepository(DatabaseClient.create(pool), pool, streamFetchSize);
+    }
+    
+    static ConnectionFactoryOptions options(JdbcConnectionDetails connectionDetails, String r2dbcUrl) {
+        ConnectionFactoryOptions.Builder options = r2dbcUrl == null || r2dbcUrl.isBlank()
+                ? fromJdbcUrl(connectionDetails.getJdbcUrl())
+                : ConnectionFactoryOptions.parse(r2dbcUrl).mutate();
+        if (connectionDetails.getUsername() != null && !options.build().hasOption(ConnectionFactoryOptions.USER)) {
+            options.option(ConnectionFactoryOptions.USER, connectionDetails.getUsername());
+        }
+        if (connectionDetails.getPassword() != null && !options.build().hasOption(ConnectionFactoryOptions.PASSWORD)) {
+            options.option(ConnectionFactoryOptions.PASSWORD, connectionDetails.getPassword());
+        }
+        return options.build();
+    }
+    
+    private static ConnectionFactoryOptions.Builder fromJdbcUrl(String jdbcUrl) {
+        if (!jdbcUrl.startsWith(JDBC_PREFIX)) {
+            throw new IllegalStateException("The reactive catalog needs a jdbc:postgresql://host URL, got " + jdbcUrl
+                    + "; set spring.r2dbc.url, or catalog.reactive.enabled=false for other databases");
+        }
+        int query = jdbcUrl.indexOf('?');
+        String location = jdbcUrl.substring(JDBC_PREFIX.length(), query < 0 ? jdbcUrl.length() : query);
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse("r2dbc:postgresql://" + location)
+                .mutate();
+        if (query < 0) {
+            return options;
+        }
+        
+        Map<String, String> sessionOptions = new LinkedHashMap<>();
+        List<String> unmapped = new ArrayList<>();
+        for (String parameter : jdbcUrl.substring(query + 1).split("&")) {
+            if (parameter.isEmpty()) {
+                continue;
+            }
+            int equals = parameter.indexOf('=');
+            String name = URLDecoder.decode(equals < 0 ? parameter : parameter.substring(0, equals), StandardCharsets.UTF_8);
+            String value = equals < 0 ? "" : URLDecoder.decode(parameter.substring(equals + 1), StandardCharsets.UTF_8);
+            
+            if (MAPPED_PARAMETERS.containsKey(name)) {
+                options.option(Option.valueOf(MAPPED_PARAMETERS.get(name)), value);
+            } else if (name.equals("ssl")) {
+                options.option(ConnectionFactoryOptions.SSL, value.isEmpty() || Boolean.parseBoolean(value));
+            } else if (name.equals("connectTimeout")) {
+                options.option(ConnectionFactoryOptions.CONNECT_TIMEOUT, Duration.ofSeconds(Long.parseLong(value)));
+            } else if (name.equals("currentSchema")) {
+                sessionOptions.put("search_path", value);
+            } else if (name.equals("options") && parseSessionOptions(value, sessionOptions)) {
+                continue;
+            } else if (!JDBC_ONLY_PARAMETERS.contains(name)) {
+                unmapped.add(name);
+            }
+        }
+        
+        if (!unmapped.isEmpty()) {
+            throw new IllegalStateException("The reactive catalog cannot carry JDBC URL parameters " + unmapped
+                    + " over to R2DBC; set spring.r2dbc.url explicitly");
+        }
+        if (!sessionOptions.isEmpty()) {
+            options.option(SESSION_OPTIONS, sessionOptions);
+        }
+        return options;
+    }
+    
+    // PgJDBC passes "-c name=value ..." to the server; anything else in options is not understood here
+    private static boolean parseSessionOptions(String value, Map<String, String> sessionOptions) {
+        String[] tokens = value.trim().split("\\s+");
+        Map<String, String> parsed = new LinkedHashMap<>();
+        for (int i = 0; i < tokens.length; i += 2) {
+            int equals = i + 1 < tokens.length ? tokens[i + 1].indexOf('=') : -1;
+            if (!tokens[i].equals("-c") || equals <= 0) {
+                return false;
+            }
+            parsed.put(tokens[i + 1].substring(0, equals), tokens[i + 1].substring(equals + 1));
+        }
+        sessionOptions.putAll(parsed);
+        return true;
+    }
+    
+    private static void connections(MeterRegistry meterRegistry, PoolMetrics metrics, String state,
+                                    ToDoubleFunction<PoolMetrics> value) {
+        Gauge.builder("techstore.catalog.reactive.connections", metrics, value)
+                .description("R2DBC connections of the reactive catalog pool, and callers waiting for one")
+                .tag("state", state)
+                .register(meterRegistry);
+    }
+}
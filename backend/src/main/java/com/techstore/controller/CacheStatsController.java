@@ -0,0 +1,28 @@
+package com.techstore.controller;
+
+import com.techstore.dto.cache.CacheRegionStats;
+import com.techstore.service.CacheStatisticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/cache")
+@RequiredArgsConstructor
+public class CacheStatsController {
+    
+    private final CacheStatisticsService cacheStatisticsService;
+    
+    @GetMapping("/stats")
+    public ResponseEntity<List<CacheRegionStats>> getRegionStats() {
+        return ResponseEntity.ok(cacheStatisticsService.getRegionStats());
+    }
+    
+    @DeleteMapping("/stats")
+    public ResponseEntity<Void> resetStats() {
+        cacheStatisticsService.clear();
+        return ResponseEntity.ok().build();
+    }
+}
@@ -1,6 +1,6 @@
 package com.techstore.controller;
 
-import com.techstore.model.Cart;
+import com.techstore.dto.cart.CartResponse;
 import com.techstore.security.UserDetailsImpl;
 import com.techstore.service.CartService;
 import lombok.RequiredArgsConstructor;
@@ -16,34 +16,34 @@ public class CartController {
     private final CartService cartService;
     
     @GetMapping
-    public ResponseEntity<Cart> getCart(@AuthenticationPrincipal UserDetailsImpl userDetails) {
-        return ResponseEntity.ok(cartService.getCartByUserId(userDetails.getId()));
+    public ResponseEntity<CartResponse> getCart(@AuthenticationPrincipal UserDetailsImpl userDetails) {
+        return ResponseEntity.ok(CartResponse.from(cartService.getCartByUserId(userDetails.getId())));
     }
     
     @PostMapping("/items")
-    public ResponseEntity<Cart> addItemToCart(
+    public ResponseEntity<CartResponse> addItemToCart(
             @AuthenticationPrincipal UserDetailsImpl userDetails,
             @RequestParam Long productId,
             @RequestParam Integer quantity) {
         return ResponseEntity.ok(
-                cartService.addItemToCart(userDetails.getId(), productId, quantity));
+                CartResponse.from(cartService.addItemToCart(userDetails.getId(), productId, quantity)));
     }
     
     @PutMapping("/items/{productId}")
-    public ResponseEntity<Cart> updateCartItem(
+    public ResponseEntity<CartResponse> updateCartItem(
             @AuthenticationPrincipal UserDetailsImpl userDetails,
             @PathVariable Long productId,
             @RequestParam Integer quantity) {
         return ResponseEntity.ok(
-                cartService.updateCartItemQuantity(userDetails.getId(), productId, quantity));
+                CartResponse.from(cartService.updateCartItemQuantity(userDetails.getId(), productId, quantity)));
     }
     
     @DeleteMapping("/items/{productId}")
-    public ResponseEntity<Cart> removeCartItem(
+    public ResponseEntity<CartResponse> removeCartItem(
             @AuthenticationPrincipal UserDetailsImpl userDetails,
             @PathVariable Long productId) {
         return ResponseEntity.ok(
-                cartService.removeItemFromCart(userDetails.getId(), productId));
+                CartResponse.from(cartService.removeItemFromCart(userDetails.getId(), productId)));
     }
     
     @DeleteMapping
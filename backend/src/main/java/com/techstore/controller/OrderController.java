@@ -1,6 +1,7 @@
 package com.techstore.controller;
 
-import com.techstore.model.Order;
+import com.techstore.dto.order.OrderDetailResponse;
+import com.techstore.dto.order.OrderSummaryResponse;
 import com.techstore.model.ShippingAddress;
 import com.techstore.security.UserDetailsImpl;
 import com.techstore.service.OrderService;
@@ -19,27 +20,28 @@ public class OrderController {
     private final OrderService orderService;
     
     @PostMapping
-    public ResponseEntity<Order> createOrder(
+    public ResponseEntity<OrderDetailResponse> createOrder(
             @AuthenticationPrincipal UserDetailsImpl userDetails,
             @RequestBody ShippingAddress shippingAddress) {
-        return ResponseEntity.ok(
-                orderService.createOrder(userDetails.getId(), shippingAddress));
+        return ResponseEntity.ok(OrderDetailResponse.from(
+                orderService.createOrder(userDetails.getId(), shippingAddress)));
     }
     
     @GetMapping
-    public ResponseEntity<Page<Order>> getUserOrders(
+    public ResponseEntity<Page<OrderSummaryResponse>> getUserOrders(
             @AuthenticationPrincipal UserDetailsImpl userDetails,
             Pageable pageable) {
-        return ResponseEntity.ok(orderService.getUserOrders(userDetails.getId(), pageable));
+        return ResponseEntity.ok(
+                orderService.getUserOrderSummaries(userDetails.getId(), pageable));
     }
     
     @GetMapping("/{orderId}")
-    public ResponseEntity<Order> getOrderById(@PathVariable Long orderId) {
-        return ResponseEntity.ok(orderService.getOrderById(orderId));
+    public ResponseEntity<OrderDetailResponse> getOrderById(@PathVariable Long orderId) {
+        return ResponseEntity.ok(orderService.getOrderDetails(orderId));
     }
     
     @GetMapping("/number/{orderNumber}")
-    public ResponseEntity<Order> getOrderByNumber(@PathVariable String orderNumber) {
-        return ResponseEntity.ok(orderService.getOrderByNumber(orderNumber));
+    public ResponseEntity<OrderDetailResponse> getOrderByNumber(@PathVariable String orderNumber) {
+        return ResponseEntity.ok(orderService.getOrderDetailsByNumber(orderNumber));
     }
 }
\ No newline at end of file
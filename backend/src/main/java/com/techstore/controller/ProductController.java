@@ -1,15 +1,29 @@
 package com.techstore.controller;
 
-import com.techstore.model.Product;
+import com.techstore.dto.product.ProductResponse;
+import com.techstore.dto.search.Suggestion;
+import com.techstore.service.CatalogSnapshotService;
+import com.techstore.service.CatalogSnapshotService.Listing;
+import com.techstore.service.CatalogSnapshotService.Snapshot;
+import com.techstore.service.FuzzySearchService;
 import com.techstore.service.ProductService;
+import com.techstore.service.RecommendationService;
+import com.techstore.service.SuggestionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/products")
@@ -17,42 +31,124 @@ import java.util.List;
 public class ProductController {
     
     private final ProductService productService;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final RecommendationService recommendationService;
+    private final SuggestionService suggestionService;
+    private final FuzzySearchService fuzzySearchService;
     
     @GetMapping
-    public ResponseEntity<Page<Product>> getAllProducts(Pageable pageable) {
-        return ResponseEntity.ok(productService.getAllProducts(pageable));
+    public ResponseEntity<?> getAllProducts(Pageable pageable, WebRequest request) {
+        return fromSnapshot(catalogSnapshotService.find(Listing.ALL, null, pageable), request,
+                () -> productService.getAllProducts(pageable));
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<Product> getProductById(@PathVariable Long id) {
-        return ResponseEntity.ok(productService.getProductById(id));
+    public ResponseEntity<ProductResponse> getProductById(@PathVariable Long id, 
+                                                          WebRequest request) {
+        // Validators come from updatedAt alone, so a 304 never loads the product
+        Optional<LocalDateTime> updatedAt = productService.getLastModified(id);
+        if (updatedAt.isPresent() && isNotModified(request, "p" + id, updatedAt.get())) {
+            return null;
+        }
+        return ResponseEntity.ok(productService.getProductDetails(id));
     }
     
     @GetMapping("/search")
-    public ResponseEntity<Page<Product>> searchProducts(
+    public ResponseEntity<Page<ProductResponse>> searchProducts(
             @RequestParam String keyword,
-            Pageable pageable) {
-        return ResponseEntity.ok(productService.searchProducts(keyword, pageable));
+            @RequestParam(defaultValue = "false") boolean fuzzy,
+            Pageable pageable,
+            WebRequest request) {
+        // Fuzzy results follow the in-memory index rather than the catalog version, so no ETag
+        if (fuzzy && fuzzySearchService.isEnabled()) {
+            return ResponseEntity.ok(fuzzySearchService.search(keyword, pageable));
+        }
+        return versioned(request, () -> productService.searchProducts(keyword, pageable));
+    }
+    
+    @GetMapping("/suggest")
+    public ResponseEntity<List<Suggestion>> suggest(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "8") int limit) {
+        return ResponseEntity.ok(suggestionService.suggest(query, Math.min(limit, 20)));
     }
     
     @GetMapping("/category/{categoryId}")
-    public ResponseEntity<Page<Product>> getProductsByCategory(
+    public ResponseEntity<?> getProductsByCategory(
             @PathVariable Long categoryId,
-            Pageable pageable) {
-        return ResponseEntity.ok(productService.getProductsByCategory(categoryId, pageable));
+            Pageable pageable,
+            WebRequest request) {
+        return fromSnapshot(catalogSnapshotService.find(Listing.CATEGORY, categoryId, pageable),
+                request, () -> productService.getProductsByCategory(categoryId, pageable));
+    }
+    
+    @GetMapping("/deals")
+    public ResponseEntity<?> getDiscountedProducts(Pageable pageable, WebRequest request) {
+        return fromSnapshot(catalogSnapshotService.find(Listing.DEALS, null, pageable), request,
+                () -> productService.getDiscountedProducts(pageable));
+    }
+    
+    @GetMapping("/bestsellers")
+    public ResponseEntity<?> getBestsellers(Pageable pageable, WebRequest request) {
+        return fromSnapshot(catalogSnapshotService.find(Listing.BESTSELLERS, null, pageable),
+                request, () -> productService.getBestsellers(pageable));
+    }
+    
+    @GetMapping("/{id}/related")
+    public ResponseEntity<List<ProductResponse>> getFrequentlyBoughtTogether(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "5") int limit) {
+        return ResponseEntity.ok(recommendationService.getFrequentlyBoughtTogether(id, Math.min(limit, 20)));
     }
     
     @GetMapping("/price-range")
-    public ResponseEntity<Page<Product>> getProductsByPriceRange(
+    public ResponseEntity<Page<ProductResponse>> getProductsByPriceRange(
             @RequestParam BigDecimal minPrice,
             @RequestParam BigDecimal maxPrice,
-            Pageable pageable) {
-        return ResponseEntity.ok(
-                productService.getProductsByPriceRange(minPrice, maxPrice, pageable));
+            Pageable pageable,
+            WebRequest request) {
+        return versioned(request,
+                () -> productService.getProductsByPriceRange(minPrice, maxPrice, pageable));
     }
     
     @GetMapping("/brands")
     public ResponseEntity<List<String>> getAllBrands() {
         return ResponseEntity.ok(productService.getAllBrands());
     }
+    
+    // Snapshot hits are written as-is; the ETag lets Spring answer If-None-Match with 304
+    private ResponseEntity<?> fromSnapshot(Optional<Snapshot> snapshot,
+                                           WebRequest request,
+                                           Supplier<Page<ProductResponse>> loader) {
+        if (snapshot.isEmpty()) {
+            return versioned(request, loader);
+        }
+        
+        Snapshot s = snapshot.get();
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            return response.eTag(s.getGzipEtag())
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(s.getGzipBody());
+        }
+        return response.eTag(s.getEtag()).body(s.getBody());
+    }
+    
+    // Listings are validated against the catalog version before the page is queried
+    private <T> ResponseEntity<T> versioned(WebRequest request, Supplier<T> loader) {
+        Optional<LocalDateTime> version = productService.getCatalogVersion();
+        if (version.isPresent() && isNotModified(request, "c", version.get())) {
+            return null;
+        }
+        return ResponseEntity.ok(loader.get());
+    }
+    
+    private boolean isNotModified(WebRequest request, String tag, LocalDateTime updatedAt) {
+        long lastModified = updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return request.checkNotModified("W/\"" + tag + "-" + lastModified + "\"", lastModified);
+    }
 }
@@ -0,0 +1,60 @@
+package com.techstore.controller;
+
+import com.techstore.dto.product.ProductResponse;
+import com.techstore.repository.ReactiveProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Non-blocking twin of the catalog reads in {@link ProductController}. The
+ * servlet thread is handed back while R2DBC waits on the database, and no
+ * JDBC connection is held, so slow queries under load queue up as cheap
+ * pending requests instead of exhausting Tomcat threads and the Hikari pool.
+ * Responses are not validated against the catalog version, so there are no
+ * ETags here.
+ */
+@RestController
+@RequestMapping("/api/reactive/products")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "catalog.reactive.enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveProductController {
+    
+    private final ReactiveProductRepository reactiveProductRepository;
+    
+    @GetMapping
+    public Mono<Page<ProductResponse>> getAllProducts(Pageable pageable) {
+        return reactiveProductRepository.findActive(pageable);
+    }
+    
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<ProductResponse>> getProductById(@PathVariable Long id) {
+        return reactiveProductRepository.findById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+    
+    @GetMapping("/search")
+    public Mono<Page<ProductResponse>> searchProducts(@RequestParam String keyword, Pageable pageable) {
+        return reactiveProductRepository.search(keyword, pageable);
+    }
+    
+    @GetMapping("/brands")
+    public Mono<List<String>> getAllBrands() {
+        return reactiveProductRepository.findActiveBrands().collectList();
+    }
+    
+    // Newline-delimited JSON, written only as fast as the client reads it
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ProductResponse> streamProducts() {
+        return reactiveProductRepository.streamActive();
+    }
+}
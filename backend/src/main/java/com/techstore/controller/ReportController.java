@@ -0,0 +1,35 @@
+package com.techstore.controller;
+
+import com.techstore.dto.report.RollupRebuildResponse;
+import com.techstore.dto.report.SalesReportRow;
+import com.techstore.service.SalesReportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/reports")
+@RequiredArgsConstructor
+public class ReportController {
+    
+    private final SalesReportService salesReportService;
+    
+    @GetMapping("/sales")
+    public ResponseEntity<List<SalesReportRow>> getSalesReport(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "day") String groupBy) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        return ResponseEntity.ok(salesReportService.getSalesReport(start, end, groupBy));
+    }
+    
+    @PostMapping("/sales/rebuild")
+    public ResponseEntity<RollupRebuildResponse> rebuildSalesRollups() {
+        return ResponseEntity.ok(salesReportService.rebuild());
+    }
+}
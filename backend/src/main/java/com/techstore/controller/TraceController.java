@@ -0,0 +1,22 @@
+package com.techstore.controller;
+
+import com.techstore.tracing.SlowRequestRecorder;
+import com.techstore.tracing.SlowTrace;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/traces")
+@RequiredArgsConstructor
+public class TraceController {
+    
+    private final SlowRequestRecorder slowRequestRecorder;
+    
+    @GetMapping("/slow")
+    public ResponseEntity<List<SlowTrace>> getSlowRequests() {
+        return ResponseEntity.ok(slowRequestRecorder.recent());
+    }
+}
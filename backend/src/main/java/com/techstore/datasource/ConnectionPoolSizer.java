@@ -0,0 +1,74 @@
+package com.techstore.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Sizes each Hikari pool as {@code cores * 2 + effective spindles}, capped
+ * by this instance's share of the database's non-reserved connections.
+ * Pools are fixed-size (minimum idle = maximum) as Hikari recommends.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "datasource.pool.auto-size", havingValue = "true")
+public class ConnectionPoolSizer {
+    
+    private static final String CONNECTION_LIMIT_QUERY = "SELECT "
+            + "current_setting('max_connections')::int - current_setting('superuser_reserved_connections')::int";
+    
+    private final DataSource dataSource;
+    private final ObjectProvider<ReadWriteRoutingDataSource> routingDataSource;
+    
+    // Under AOT the condition above was settled at build time; the AppCDS training run turns it off here
+    @Value("${datasource.pool.auto-size:false}")
+    private boolean autoSize;
+    
+    @Value("${datasource.pool.effective-spindles:1}")
+    private int effectiveSpindles;
+    
+    @Value("${datasource.pool.instances:1}")
+    private int instances;
+    
+    @PostConstruct
+    public void sizePools() throws SQLException {
+        if (!autoSize) {
+            return;
+        }
+        int cpuBound = Runtime.getRuntime().availableProcessors() * 2 + effectiveSpindles;
+        for (HikariDataSource pool : HikariPools.find(dataSource, routingDataSource.getIfAvailable())) {
+            size(pool, cpuBound);
+        }
+    }
+    
+    private void size(HikariDataSource pool, int cpuBound) {
+        int size = cpuBound;
+        
+        try (Connection connection = pool.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(CONNECTION_LIMIT_QUERY)) {
+            rs.next();
+            size = Math.min(size, rs.getInt(1) / Math.max(instances, 1));
+        } catch (SQLException ex) {
+            log.warn("Could not read the connection limit for pool {}, sizing from cores only",
+                    pool.getPoolName(), ex);
+        }
+        
+        size = Math.max(size, 2);
+        pool.getHikariConfigMXBean().setMaximumPoolSize(size);
+        pool.getHikariConfigMXBean().setMinimumIdle(size);
+        log.info("Connection pool {} sized to {} connections", pool.getPoolName(), size);
+    }
+}
@@ -0,0 +1,32 @@
+package com.techstore.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The Hikari pools behind the application's DataSource: the primary and
+ * every replica when reads are routed, otherwise the single pool.
+ */
+public final class HikariPools {
+    
+    private HikariPools() {
+    }
+    
+    public static List<HikariDataSource> find(DataSource dataSource, ReadWriteRoutingDataSource routing)
+            throws SQLException {
+        List<HikariDataSource> pools = new ArrayList<>();
+        
+        if (routing != null) {
+            pools.add(routing.unwrap(HikariDataSource.class));
+            routing.getReplicas().forEach(replica -> pools.add((HikariDataSource) replica.getDataSource()));
+        } else if (dataSource.isWrapperFor(HikariDataSource.class)) {
+            pools.add(dataSource.unwrap(HikariDataSource.class));
+        }
+        
+        return pools;
+    }
+}
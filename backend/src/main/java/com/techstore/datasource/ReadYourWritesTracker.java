@@ -0,0 +1,33 @@
+package com.techstore.datasource;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which users wrote recently so their reads stay on the primary
+ * until every replica within the lag limit has caught up with the write.
+ */
+public class ReadYourWritesTracker {
+    
+    private final long windowNanos;
+    private final Map<Long, Long> lastWrites = new ConcurrentHashMap<>();
+    
+    public ReadYourWritesTracker(Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+    
+    public void recordWrite(Long userId) {
+        lastWrites.put(userId, System.nanoTime());
+    }
+    
+    public boolean hasRecentWrite(Long userId) {
+        Long writtenAt = lastWrites.get(userId);
+        return writtenAt != null && System.nanoTime() - writtenAt < windowNanos;
+    }
+    
+    public void purgeExpired() {
+        long now = System.nanoTime();
+        lastWrites.values().removeIf(writtenAt -> now - writtenAt >= windowNanos);
+    }
+}
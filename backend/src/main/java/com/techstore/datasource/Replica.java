@@ -0,0 +1,39 @@
+package com.techstore.datasource;
+
+import javax.sql.DataSource;
+
+public class Replica {
+    
+    private final String name;
+    private final DataSource dataSource;
+    
+    // Unavailable until the first lag check has passed
+    private volatile boolean available;
+    private volatile long lagMillis = -1;
+    
+    public Replica(String name, DataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+    
+    public boolean isAvailable() {
+        return available;
+    }
+    
+    public long getLagMillis() {
+        return lagMillis;
+    }
+    
+    void update(long lagMillis, boolean available) {
+        this.lagMillis = lagMillis;
+        this.available = available;
+    }
+}
@@ -0,0 +1,68 @@
+package com.techstore.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Takes replicas out of rotation while they are unreachable or further
+ * behind the primary than the configured limit.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+    
+    // A replica that has replayed everything it received is caught up even if
+    // the primary has been idle, so only measure replay age while WAL is pending
+    static final String LAG_QUERY = "SELECT CASE "
+            + "WHEN NOT pg_is_in_recovery() THEN 0 "
+            + "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000 END";
+    
+    private final ReadWriteRoutingDataSource routingDataSource;
+    private final long maxLagMillis;
+    
+    public ReplicaLagMonitor(ReadWriteRoutingDataSource routingDataSource, Duration maxLag) {
+        this.routingDataSource = routingDataSource;
+        this.maxLagMillis = maxLag.toMillis();
+    }
+    
+    @Scheduled(fixedDelayString = "${datasource.routing.check-interval:2000}")
+    public void checkReplicas() {
+        for (Replica replica : routingDataSource.getReplicas()) {
+            check(replica);
+        }
+        routingDataSource.getReadYourWrites().purgeExpired();
+    }
+    
+    private void check(Replica replica) {
+        boolean wasAvailable = replica.isAvailable();
+        
+        try (Connection connection = replica.getDataSource().getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+            rs.next();
+            long lagMillis = Math.round(rs.getDouble(1));
+            replica.update(lagMillis, lagMillis <= maxLagMillis);
+        } catch (SQLException ex) {
+            replica.update(-1, false);
+            if (wasAvailable) {
+                log.warn("Replica {} unreachable, routing its reads to the primary", replica.getName(), ex);
+            }
+            return;
+        }
+        
+        if (wasAvailable != replica.isAvailable()) {
+            if (replica.isAvailable()) {
+                log.info("Replica {} in rotation, lag {} ms", replica.getName(), replica.getLagMillis());
+            } else {
+                log.warn("Replica {} is {} ms behind, routing its reads to the primary",
+                        replica.getName(), replica.getLagMillis());
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.techstore.dto.cart;
+
+import com.techstore.dto.product.ProductResponse;
+import com.techstore.model.CartItem;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+public class CartItemResponse {
+    private Long id;
+    private ProductResponse product;
+    private BigDecimal price;
+    private Integer quantity;
+    
+    public static CartItemResponse from(CartItem item) {
+        return new CartItemResponse(
+                item.getId(),
+                ProductResponse.from(item.getProduct()),
+                item.getPrice(),
+                item.getQuantity()
+        );
+    }
+}
@@ -0,0 +1,24 @@
+package com.techstore.dto.cart;
+
+import com.techstore.model.Cart;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class CartResponse {
+    private Long id;
+    private List<CartItemResponse> items;
+    private LocalDateTime updatedAt;
+    
+    public static CartResponse from(Cart cart) {
+        return new CartResponse(
+                cart.getId(),
+                cart.getItems().stream().map(CartItemResponse::from).toList(),
+                cart.getUpdatedAt()
+        );
+    }
+}
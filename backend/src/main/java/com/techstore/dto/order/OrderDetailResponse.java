@@ -0,0 +1,46 @@
+package com.techstore.dto.order;
+
+import com.techstore.model.Order;
+import com.techstore.model.ShippingAddress;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class OrderDetailResponse {
+    private Long id;
+    private String orderNumber;
+    private Order.OrderStatus status;
+    private Order.PaymentStatus paymentStatus;
+    private BigDecimal subtotal;
+    private BigDecimal tax;
+    private BigDecimal shippingCost;
+    private BigDecimal total;
+    private ShippingAddress shippingAddress;
+    private String trackingNumber;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private List<OrderItemResponse> items;
+    
+    public static OrderDetailResponse from(Order order) {
+        return new OrderDetailResponse(
+                order.getId(),
+                order.getOrderNumber(),
+                order.getStatus(),
+                order.getPaymentStatus(),
+                order.getSubtotal(),
+                order.getTax(),
+                order.getShippingCost(),
+                order.getTotal(),
+                order.getShippingAddress(),
+                order.getTrackingNumber(),
+                order.getCreatedAt(),
+                order.getUpdatedAt(),
+                order.getItems().stream().map(OrderItemResponse::from).toList()
+        );
+    }
+}
@@ -0,0 +1,28 @@
+package com.techstore.dto.order;
+
+import com.techstore.model.OrderItem;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+public class OrderItemResponse {
+    private Long id;
+    private String productName;
+    private String productSku;
+    private BigDecimal price;
+    private Integer quantity;
+    
+    // Uses only the snapshot columns so the lazy product is never initialized
+    public static OrderItemResponse from(OrderItem item) {
+        return new OrderItemResponse(
+                item.getId(),
+                item.getProductName(),
+                item.getProductSku(),
+                item.getPrice(),
+                item.getQuantity()
+        );
+    }
+}
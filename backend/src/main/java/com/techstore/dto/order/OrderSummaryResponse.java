@@ -0,0 +1,38 @@
+package com.techstore.dto.order;
+
+import com.techstore.model.Order;
+import com.techstore.model.ShippingAddress;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class OrderSummaryResponse {
+    private Long id;
+    private String orderNumber;
+    private Order.OrderStatus status;
+    private Order.PaymentStatus paymentStatus;
+    private BigDecimal total;
+    private ShippingAddress shippingAddress;
+    private String trackingNumber;
+    private LocalDateTime createdAt;
+    private List<OrderItemResponse> items;
+    
+    public static OrderSummaryResponse from(Order order) {
+        return new OrderSummaryResponse(
+                order.getId(),
+                order.getOrderNumber(),
+                order.getStatus(),
+                order.getPaymentStatus(),
+                order.getTotal(),
+                order.getShippingAddress(),
+                order.getTrackingNumber(),
+                order.getCreatedAt(),
+                order.getItems().stream().map(OrderItemResponse::from).toList()
+        );
+    }
+}
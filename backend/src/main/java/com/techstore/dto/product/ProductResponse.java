@@ -0,0 +1,57 @@
+package com.techstore.dto.product;
+
+import com.techstore.model.Category;
+import com.techstore.model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ProductResponse {
+    private Long id;
+    private String name;
+    private String description;
+    private BigDecimal price;
+    private BigDecimal discountPrice;
+    private Integer stockQuantity;
+    private String sku;
+    private String brand;
+    private CategoryRef category;
+    private List<String> imageUrls;
+    private Double averageRating;
+    private Integer reviewCount;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    
+    public static ProductResponse from(Product product) {
+        Category category = product.getCategory();
+        
+        return new ProductResponse(
+                product.getId(),
+                product.getName(),
+                product.getDescription(),
+                product.getPrice(),
+                product.getDiscountPrice(),
+                product.getStockQuantity(),
+                product.getSku(),
+                product.getBrand(),
+                category == null ? null : new CategoryRef(category.getId(), category.getName()),
+                List.copyOf(product.getImageUrls()),
+                product.getAverageRating(),
+                product.getReviewCount(),
+                product.getCreatedAt(),
+                product.getUpdatedAt()
+        );
+    }
+    
+    @Data
+    @AllArgsConstructor
+    public static class CategoryRef {
+        private Long id;
+        private String name;
+    }
+}
@@ -0,0 +1,16 @@
+package com.techstore.dto.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+public class RollupRebuildResponse {
+    private LocalDate from;
+    private LocalDate to;
+    private int chunks;
+    private long rows;
+    private long durationMs;
+}
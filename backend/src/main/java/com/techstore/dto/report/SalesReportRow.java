@@ -0,0 +1,19 @@
+package com.techstore.dto.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+public class SalesReportRow {
+    private String key;
+    private String label;
+    private long units;
+    private BigDecimal revenue;
+    private BigDecimal tax;
+    private long paidUnits;
+    private BigDecimal paidRevenue;
+    private BigDecimal paidTax;
+}
@@ -0,0 +1,12 @@
+package com.techstore.dto.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class Suggestion {
+    private String text;
+    private String type; // product, brand or category
+    private Long id; // product or category id; null for brands
+}
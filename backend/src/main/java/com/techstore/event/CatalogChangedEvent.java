@@ -0,0 +1,45 @@
+package com.techstore.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class CatalogChangedEvent {
+    
+    /**
+     * What changed. STOCK and RATING touch only a product's counters, which the
+     * search indexes do not hold, so they refresh just the listing pages showing
+     * that product and are not broadcast to other nodes.
+     */
+    public enum Kind {
+        PRODUCT,
+        STOCK,
+        RATING
+    }
+    
+    private Long productId; // null when the change is not tied to one product
+    private boolean remote; // made on another node and relayed by the cache coherence bus
+    private Kind kind;
+    
+    public CatalogChangedEvent(Long productId) {
+        this(productId, false);
+    }
+    
+    public CatalogChangedEvent(Long productId, boolean remote) {
+        this(productId, remote, Kind.PRODUCT);
+    }
+    
+    public static CatalogChangedEvent stock(Long productId) {
+        return new CatalogChangedEvent(productId, false, Kind.STOCK);
+    }
+    
+    public static CatalogChangedEvent rating(Long productId) {
+        return new CatalogChangedEvent(productId, false, Kind.RATING);
+    }
+    
+    // Counter changes are always for one product
+    public boolean isCountersOnly() {
+        return kind != Kind.PRODUCT && productId != null;
+    }
+}
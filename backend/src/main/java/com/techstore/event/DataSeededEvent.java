@@ -0,0 +1,9 @@
+package com.techstore.event;
+
+/**
+ * Published once DataSeeder is done with the database at startup: seeded,
+ * found already seeded, failed, or seeding turned off. With async seeding this
+ * comes from the seeding thread, after the application is ready.
+ */
+public class DataSeededEvent {
+}
@@ -0,0 +1,13 @@
+package com.techstore.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class OrderPlacedEvent {
+    private Long orderId;
+    private List<Long> productIds;
+}
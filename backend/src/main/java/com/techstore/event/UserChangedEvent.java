@@ -0,0 +1,20 @@
+package com.techstore.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published by any transaction that changes what a signed-in user is made of:
+ * email, password or roles. Cached profiles of the user are dropped once it
+ * commits, on this node and, through the cache coherence bus, on the others.
+ */
+@Data
+@AllArgsConstructor
+public class UserChangedEvent {
+    private Long userId; // null when every user may have changed
+    private boolean remote; // made on another node and relayed by the cache coherence bus
+    
+    public UserChangedEvent(Long userId) {
+        this(userId, false);
+    }
+}
@@ -0,0 +1,63 @@
+package com.techstore.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements each request issued, tagged by route, and
+ * warns when a request goes over the configured query budget.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class QueryBudgetFilter extends OncePerRequestFilter {
+    
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${metrics.sql.query-budget:20}")
+    private int queryBudget;
+    
+    public QueryBudgetFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest req, 
+                                    HttpServletResponse res, 
+                                    FilterChain chain) 
+            throws ServletException, IOException {
+        QueryStats stats = QueryStats.reset();
+        try {
+            chain.doFilter(req, res);
+        } finally {
+            Object pattern = req.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            
+            DistributionSummary.builder("techstore.sql.requests")
+                    .description("SQL statements issued per HTTP request")
+                    .tag("uri", uri)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(stats.getStatements());
+            
+            if (stats.getStatements() > queryBudget) {
+                log.warn("{} {} issued {} SQL statements ({} ms), over the budget of {}",
+                        req.getMethod(), uri, stats.getStatements(),
+                        stats.getNanos() / 1_000_000, queryBudget);
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.techstore.metrics;
+
+/**
+ * Per-thread SQL statement count and time for the request being served.
+ * Instances are reused across requests on the same thread, so recording a
+ * statement does not allocate.
+ */
+public final class QueryStats {
+    
+    private static final ThreadLocal<QueryStats> CURRENT = ThreadLocal.withInitial(QueryStats::new);
+    
+    private int statements;
+    private long nanos;
+    private long startedAt;
+    
+    private QueryStats() {
+    }
+    
+    public static QueryStats current() {
+        return CURRENT.get();
+    }
+    
+    public static QueryStats reset() {
+        QueryStats stats = CURRENT.get();
+        stats.statements = 0;
+        stats.nanos = 0;
+        return stats;
+    }
+    
+    void begin() {
+        startedAt = System.nanoTime();
+    }
+    
+    long end() {
+        long elapsed = System.nanoTime() - startedAt;
+        statements++;
+        nanos += elapsed;
+        return elapsed;
+    }
+    
+    public int getStatements() {
+        return statements;
+    }
+    
+    public long getNanos() {
+        return nanos;
+    }
+}
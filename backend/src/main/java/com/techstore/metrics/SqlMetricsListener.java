@@ -0,0 +1,47 @@
+package com.techstore.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every JDBC round trip by statement type and adds it to the current
+ * request's {@link QueryStats}. A batch counts as one statement.
+ */
+public class SqlMetricsListener implements QueryExecutionListener {
+    
+    private final Map<QueryType, Timer> timers = new EnumMap<>(QueryType.class);
+    
+    public SqlMetricsListener(MeterRegistry meterRegistry) {
+        for (QueryType type : QueryType.values()) {
+            timers.put(type, Timer.builder("techstore.sql.statements")
+                    .description("JDBC statement execution time")
+                    .tag("type", type.name().toLowerCase())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+    
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        QueryStats.current().begin();
+    }
+    
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsed = QueryStats.current().end();
+        QueryType type = queryInfoList.isEmpty()
+                ? QueryType.OTHER
+                : QueryUtils.getQueryType(queryInfoList.get(0).getQuery());
+        timers.get(type).record(elapsed, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,57 @@
+package com.techstore.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Maintained by SQL upserts in SalesRollupRepository, never through the persistence context
+@Entity
+@Immutable
+@Table(name = "sales_rollups")
+@IdClass(SalesRollup.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesRollup {
+    @Id
+    private LocalDate day;
+    
+    @Id
+    private Long categoryId;
+    
+    @Id
+    private String brand;
+    
+    @Column(nullable = false)
+    private Long units;
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal revenue;
+    
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal tax;
+    
+    @Column(nullable = false)
+    private Long paidUnits;
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal paidRevenue;
+    
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal paidTax;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate day;
+        private Long categoryId;
+        private String brand;
+    }
+}
@@ -0,0 +1,18 @@
+package com.techstore.pricing;
+
+/** The same charge on every order, waived from a subtotal of {@code freeFrom} cents when that is positive. */
+public class FlatRateShipping implements ShippingRule {
+    
+    private final long rate;
+    private final long freeFrom;
+    
+    public FlatRateShipping(long rate, long freeFrom) {
+        this.rate = rate;
+        this.freeFrom = freeFrom;
+    }
+    
+    @Override
+    public long shipping(long subtotal) {
+        return freeFrom > 0 && subtotal >= freeFrom ? 0 : rate;
+    }
+}
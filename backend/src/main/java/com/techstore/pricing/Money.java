@@ -0,0 +1,70 @@
+package com.techstore.pricing;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Amounts as a {@code long} count of cents, the minor unit of the store's one
+ * currency. Arithmetic on them allocates nothing and overflows loudly; every
+ * division names its rounding mode. Entities keep {@code NUMERIC(38, 2)}
+ * columns, so amounts are converted only where they are read or stored.
+ */
+public final class Money {
+    
+    public static final int SCALE = 2;
+    
+    private Money() {
+    }
+    
+    /**
+     * Cents in {@code amount}, rounding sub-cent digits half up the way a
+     * {@code NUMERIC(38, 2)} column does when it stores them.
+     */
+    public static long toMinor(BigDecimal amount) {
+        // Shifting leaves a scale-0 BigDecimal whose long value is read without going through BigInteger
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).movePointRight(SCALE).longValueExact();
+    }
+    
+    public static BigDecimal toBigDecimal(long minor) {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+    
+    public static long times(long minor, int quantity) {
+        return Math.multiplyExact(minor, quantity);
+    }
+    
+    /** {@code basisPoints} hundredths of a percent of {@code minor}, rounded with {@code rounding}. */
+    public static long percentOf(long minor, long basisPoints, RoundingMode rounding) {
+        return divide(Math.multiplyExact(minor, basisPoints), 10_000, rounding);
+    }
+    
+    /** {@code dividend / divisor} rounded like {@link BigDecimal#divide(BigDecimal, int, RoundingMode)} at scale 0. */
+    public static long divide(long dividend, long divisor, RoundingMode rounding) {
+        long quotient = dividend / divisor;
+        long remainder = dividend - divisor * quotient;
+        if (remainder == 0) {
+            return quotient;
+        }
+        
+        // -1 when the exact quotient is negative; it was truncated towards zero
+        int signum = 1 | (int) ((dividend ^ divisor) >> (Long.SIZE - 1));
+        boolean awayFromZero = switch (rounding) {
+            case UNNECESSARY -> throw new ArithmeticException("Rounding necessary for " + dividend + " / " + divisor);
+            case DOWN -> false;
+            case UP -> true;
+            case CEILING -> signum > 0;
+            case FLOOR -> signum < 0;
+            case HALF_UP, HALF_DOWN, HALF_EVEN -> {
+                long absRemainder = Math.abs(remainder);
+                // Compared as rem - (|divisor| - rem) so that 2 * rem cannot overflow
+                long pastHalf = absRemainder - (Math.abs(divisor) - absRemainder);
+                if (pastHalf != 0) {
+                    yield pastHalf > 0;
+                }
+                yield rounding == RoundingMode.HALF_UP
+                        || rounding == RoundingMode.HALF_EVEN && (quotient & 1) != 0;
+            }
+        };
+        return awayFromZero ? quotient + signum : quotient;
+    }
+}
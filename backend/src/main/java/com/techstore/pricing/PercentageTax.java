@@ -0,0 +1,25 @@
+package com.techstore.pricing;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/** One rate on the whole subtotal, rounded to the cent once per order. */
+public class PercentageTax implements TaxRule {
+    
+    private final long basisPoints;
+    private final RoundingMode rounding;
+    
+    /** {@code rate} as a fraction, such as 0.0825, down to hundredths of a percent. */
+    public PercentageTax(BigDecimal rate, RoundingMode rounding) {
+        if (rate.signum() < 0) {
+            throw new IllegalArgumentException("Tax rate must not be negative, got " + rate);
+        }
+        this.basisPoints = rate.movePointRight(4).longValueExact();
+        this.rounding = rounding;
+    }
+    
+    @Override
+    public long tax(long subtotal) {
+        return Money.percentOf(subtotal, basisPoints, rounding);
+    }
+}
@@ -0,0 +1,48 @@
+package com.techstore.pricing;
+
+import com.techstore.model.CartItem;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Cart and order totals in cents. Lines are summed exactly, tax and shipping
+ * come from the {@link TaxRule} and {@link ShippingRule} beans (a
+ * {@code @Primary} bean of either replaces the configured one), and the total
+ * is the sum of the rounded parts, so it always adds up on the invoice.
+ */
+@Component
+public class PricingEngine {
+    
+    private final TaxRule taxRule;
+    private final ShippingRule shippingRule;
+    
+    public PricingEngine(TaxRule taxRule, ShippingRule shippingRule) {
+        this.taxRule = taxRule;
+        this.shippingRule = shippingRule;
+    }
+    
+    // Indexed rather than iterated, so that summing allocates no iterator
+    public long subtotal(List<CartItem> items) {
+        long subtotal = 0;
+        for (int i = 0; i < items.size(); i++) {
+            CartItem item = items.get(i);
+            subtotal = Math.addExact(subtotal, Money.times(Money.toMinor(item.getPrice()), item.getQuantity()));
+        }
+        return subtotal;
+    }
+    
+    public Totals totals(List<CartItem> items) {
+        return totals(subtotal(items));
+    }
+    
+    public Totals totals(long subtotal) {
+        long tax = taxRule.tax(subtotal);
+        long shipping = shippingRule.shipping(subtotal);
+        return new Totals(subtotal, tax, shipping, Math.addExact(Math.addExact(subtotal, tax), shipping));
+    }
+    
+    /** The amounts of one order, in cents. */
+    public record Totals(long subtotal, long tax, long shipping, long total) {
+    }
+}
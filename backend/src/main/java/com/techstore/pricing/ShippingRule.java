@@ -0,0 +1,8 @@
+package com.techstore.pricing;
+
+/** Shipping charged on an order, in cents, given its subtotal in cents. */
+@FunctionalInterface
+public interface ShippingRule {
+    
+    long shipping(long subtotal);
+}
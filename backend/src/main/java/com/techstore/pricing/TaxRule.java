@@ -0,0 +1,8 @@
+package com.techstore.pricing;
+
+/** Tax owed on an order, in cents, given its subtotal in cents. */
+@FunctionalInterface
+public interface TaxRule {
+    
+    long tax(long subtotal);
+}
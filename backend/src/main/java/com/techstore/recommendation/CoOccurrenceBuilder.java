@@ -0,0 +1,75 @@
+package com.techstore.recommendation;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Builds a {@link CoOccurrenceMatrix} from order lines in parallel. The lines
+ * arrive as two parallel arrays sorted by order id; the range is split in
+ * half, moved to the nearest order boundary, until slices are small enough
+ * to count on one thread, and the partial matrices are merged on the way up.
+ */
+public class CoOccurrenceBuilder extends RecursiveTask<CoOccurrenceMatrix> {
+    
+    private static final int SLICE = 20_000;
+    
+    private final long[] orderIds;
+    private final long[] productIds;
+    private final int from;
+    private final int to;
+    
+    private CoOccurrenceBuilder(long[] orderIds, long[] productIds, int from, int to) {
+        this.orderIds = orderIds;
+        this.productIds = productIds;
+        this.from = from;
+        this.to = to;
+    }
+    
+    public static CoOccurrenceMatrix build(long[] orderIds, long[] productIds, int length, ForkJoinPool pool) {
+        return pool.invoke(new CoOccurrenceBuilder(orderIds, productIds, 0, length));
+    }
+    
+    @Override
+    protected CoOccurrenceMatrix compute() {
+        if (to - from > SLICE) {
+            int middle = (from + to) >>> 1;
+            while (middle < to && orderIds[middle] == orderIds[middle - 1]) {
+                middle++;
+            }
+            if (middle < to) {
+                CoOccurrenceBuilder left = new CoOccurrenceBuilder(orderIds, productIds, from, middle);
+                left.fork();
+                CoOccurrenceMatrix right = new CoOccurrenceBuilder(orderIds, productIds, middle, to).compute();
+                CoOccurrenceMatrix merged = left.join();
+                merged.addAll(right);
+                return merged;
+            }
+        }
+        
+        CoOccurrenceMatrix matrix = new CoOccurrenceMatrix();
+        int start = from;
+        while (start < to) {
+            int end = start + 1;
+            while (end < to && orderIds[end] == orderIds[start]) {
+                end++;
+            }
+            if (end - start > 1) {
+                matrix.addOrder(distinct(Arrays.copyOfRange(productIds, start, end)));
+            }
+            start = end;
+        }
+        return matrix;
+    }
+    
+    public static long[] distinct(long[] ids) {
+        Arrays.sort(ids);
+        int n = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (i == 0 || ids[i] != ids[i - 1]) {
+                ids[n++] = ids[i];
+            }
+        }
+        return Arrays.copyOf(ids, n);
+    }
+}
@@ -0,0 +1,116 @@
+package com.techstore.recommendation;
+
+import java.util.Arrays;
+
+/**
+ * Sparse symmetric matrix of how many orders contained both of two
+ * products. Only pairs that were actually bought together take memory: one
+ * primitive row per product, keyed by the other product's id. Not
+ * thread-safe.
+ */
+public class CoOccurrenceMatrix {
+    
+    private final LongObjectHashMap<LongIntHashMap> rows = new LongObjectHashMap<>();
+    
+    /**
+     * Counts one order. {@code productIds} must be distinct.
+     */
+    public void addOrder(long[] productIds) {
+        for (int i = 0; i < productIds.length; i++) {
+            for (int j = i + 1; j < productIds.length; j++) {
+                row(productIds[i]).addTo(productIds[j], 1);
+                row(productIds[j]).addTo(productIds[i], 1);
+            }
+        }
+    }
+    
+    public void addAll(CoOccurrenceMatrix other) {
+        for (long productId : other.rows.keys()) {
+            row(productId).addAll(other.rows.get(productId));
+        }
+    }
+    
+    public int count(long productId, long otherId) {
+        LongIntHashMap row = rows.get(productId);
+        return row != null ? row.get(otherId) : 0;
+    }
+    
+    public long[] products() {
+        return rows.keys();
+    }
+    
+    /**
+     * The {@code k} products bought most often with {@code productId}, most
+     * frequent first and lowest id first on ties, ignoring pairs seen fewer
+     * than {@code minCount} times.
+     */
+    public long[] topK(long productId, int k, int minCount) {
+        LongIntHashMap row = rows.get(productId);
+        if (row == null || k <= 0) {
+            return new long[0];
+        }
+        
+        // Bounded min-heap of (count, id) packed into one long: count in the high bits and the
+        // inverted id (ids stay below 2^32) in the low bits, so ties rank the lower id higher
+        long[] heap = new long[Math.min(k, row.size())];
+        int[] size = {0};
+        row.forEach((otherId, count) -> {
+            if (count < minCount) {
+                return;
+            }
+            long entry = ((long) count << 32) | (0xFFFFFFFFL - otherId);
+            if (size[0] < heap.length) {
+                heap[size[0]++] = entry;
+                siftUp(heap, size[0] - 1);
+            } else if (entry > heap[0]) {
+                heap[0] = entry;
+                siftDown(heap, size[0]);
+            }
+        });
+        
+        long[] sorted = Arrays.copyOf(heap, size[0]);
+        Arrays.sort(sorted);
+        long[] result = new long[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            result[i] = 0xFFFFFFFFL - (sorted[sorted.length - 1 - i] & 0xFFFFFFFFL);
+        }
+        return result;
+    }
+    
+    private LongIntHashMap row(long productId) {
+        return rows.computeIfAbsent(productId, id -> new LongIntHashMap());
+    }
+    
+    private static void siftUp(long[] heap, int i) {
+        while (i > 0 && heap[(i - 1) / 2] > heap[i]) {
+            swap(heap, i, (i - 1) / 2);
+            i = (i - 1) / 2;
+        }
+    }
+    
+    private static void siftDown(long[] heap, int size) {
+        int i = 0;
+        while (true) {
+            int smallest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && heap[left] < heap[smallest]) {
+                smallest = left;
+            }
+            if (right < size && heap[right] < heap[smallest]) {
+                smallest = right;
+            }
+            if (smallest == i) {
+                return;
+            }
+            swap(heap, i, smallest);
+            i = smallest;
+        }
+    }
+    
+    private static void swap(long[] heap, int i, int j) {
+        long tmp = heap[i];
+        heap[i] = heap[j];
+        heap[j] = tmp;
+    }
+}
@@ -0,0 +1,102 @@
+package com.techstore.recommendation;
+
+/**
+ * Open-addressing map from long to int without boxing: parallel key and
+ * value arrays, linear probing, and 0 as the empty-slot marker, so keys must
+ * be non-zero (entity ids are). Not thread-safe.
+ */
+public class LongIntHashMap {
+    
+    private static final float LOAD_FACTOR = 0.6f;
+    
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int shift;
+    
+    public LongIntHashMap() {
+        this(8);
+    }
+    
+    public LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+    
+    public int get(long key) {
+        int slot = slot(key);
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & (keys.length - 1);
+        }
+        return 0;
+    }
+    
+    public void addTo(long key, int delta) {
+        if (key == 0) {
+            throw new IllegalArgumentException("0 is reserved as the empty key");
+        }
+        int slot = slot(key);
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                values[slot] += delta;
+                return;
+            }
+            slot = (slot + 1) & (keys.length - 1);
+        }
+        keys[slot] = key;
+        values[slot] = delta;
+        if (++size > keys.length * LOAD_FACTOR) {
+            rehash(keys.length << 1);
+        }
+    }
+    
+    public void addAll(LongIntHashMap other) {
+        for (int i = 0; i < other.keys.length; i++) {
+            if (other.keys[i] != 0) {
+                addTo(other.keys[i], other.values[i]);
+            }
+        }
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public void forEach(Entry consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+    
+    private int slot(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+    
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        shift = 64 - Integer.numberOfTrailingZeros(capacity);
+    }
+    
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                addTo(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+    
+    @FunctionalInterface
+    public interface Entry {
+        void accept(long key, int value);
+    }
+}
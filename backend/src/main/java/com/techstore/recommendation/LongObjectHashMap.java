@@ -0,0 +1,94 @@
+package com.techstore.recommendation;
+
+import java.util.function.LongFunction;
+
+/**
+ * Open-addressing map from non-zero long keys to objects, the outer index of
+ * the co-occurrence matrix. Same layout as {@link LongIntHashMap}. Not
+ * thread-safe.
+ */
+public class LongObjectHashMap<V> {
+    
+    private static final float LOAD_FACTOR = 0.6f;
+    
+    private long[] keys;
+    private Object[] values;
+    private int size;
+    private int shift;
+    
+    public LongObjectHashMap() {
+        allocate(16);
+    }
+    
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int slot = slot(key);
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                return (V) values[slot];
+            }
+            slot = (slot + 1) & (keys.length - 1);
+        }
+        return null;
+    }
+    
+    @SuppressWarnings("unchecked")
+    public V computeIfAbsent(long key, LongFunction<V> factory) {
+        if (key == 0) {
+            throw new IllegalArgumentException("0 is reserved as the empty key");
+        }
+        int slot = slot(key);
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                return (V) values[slot];
+            }
+            slot = (slot + 1) & (keys.length - 1);
+        }
+        V value = factory.apply(key);
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > keys.length * LOAD_FACTOR) {
+            rehash(keys.length << 1);
+        }
+        return value;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public long[] keys() {
+        long[] result = new long[size];
+        int n = 0;
+        for (long key : keys) {
+            if (key != 0) {
+                result[n++] = key;
+            }
+        }
+        return result;
+    }
+    
+    private int slot(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+    
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        shift = 64 - Integer.numberOfTrailingZeros(capacity);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                V value = (V) oldValues[i];
+                computeIfAbsent(oldKeys[i], key -> value);
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.techstore.repository;
 
 import com.techstore.model.Cart;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -8,5 +9,6 @@ import java.util.Optional;
 
 @Repository
 public interface CartRepository extends JpaRepository<Cart, Long> {
+    @EntityGraph(attributePaths = {"items", "items.product", "items.product.category"})
     Optional<Cart> findByUserId(Long userId);
 }
\ No newline at end of file
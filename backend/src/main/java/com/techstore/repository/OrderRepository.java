@@ -1,11 +1,20 @@
 package com.techstore.repository;
 
 import com.techstore.model.Order;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -13,4 +22,46 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     Page<Order> findByUserId(Long userId, Pageable pageable);
     Optional<Order> findByOrderNumber(String orderNumber);
     Optional<Order> findByPaymentIntentId(String paymentIntentId);
+    
+    // SELECT ... FOR UPDATE: status changes to one order apply one after another,
+    // each seeing the status the previous one committed
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Order> findForUpdateById(Long id);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Order> findForUpdateByPaymentIntentId(String paymentIntentId);
+    
+    @EntityGraph(attributePaths = "items")
+    Optional<Order> findWithItemsById(Long id);
+    
+    @EntityGraph(attributePaths = "items")
+    Optional<Order> findWithItemsByOrderNumber(String orderNumber);
+    
+    @EntityGraph(attributePaths = "items")
+    List<Order> findWithItemsByIdIn(Collection<Long> ids);
+    
+    @Query("SELECT o.id AS id, o.total AS total, o.status AS status, o.paymentIntentId AS paymentIntentId, " +
+           "o.paymentStatus AS paymentStatus FROM Order o WHERE o.id = :orderId")
+    Optional<PaymentView> findPaymentViewById(@Param("orderId") Long orderId);
+    
+    // Only the first caller wins; a non-zero result means this intent id was persisted.
+    // An order whose payment failed takes a new intent, which puts its payment back to PENDING.
+    // Cancelled orders are never paid, and the order status itself only moves once payment succeeds.
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Order o SET o.paymentIntentId = :paymentIntentId, " +
+           "o.paymentStatus = com.techstore.model.Order$PaymentStatus.PENDING, " +
+           "o.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE o.id = :orderId AND o.status <> com.techstore.model.Order$OrderStatus.CANCELLED " +
+           "AND (o.paymentIntentId IS NULL " +
+           "OR o.paymentStatus = com.techstore.model.Order$PaymentStatus.FAILED)")
+    int assignPaymentIntent(@Param("orderId") Long orderId,
+                            @Param("paymentIntentId") String paymentIntentId);
+    
+    interface PaymentView {
+        Long getId();
+        BigDecimal getTotal();
+        Order.OrderStatus getStatus();
+        String getPaymentIntentId();
+        Order.PaymentStatus getPaymentStatus();
+    }
 }
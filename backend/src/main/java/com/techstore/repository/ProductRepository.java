@@ -1,28 +1,49 @@
 package com.techstore.repository;
 
 import com.techstore.model.Product;
+import com.techstore.search.SearchableProduct;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
+    @EntityGraph(attributePaths = "category")
     Page<Product> findByActiveTrue(Pageable pageable);
     
+    @EntityGraph(attributePaths = "category")
     Page<Product> findByCategoryIdAndActiveTrue(Long categoryId, Pageable pageable);
     
+    @EntityGraph(attributePaths = "category")
+    Page<Product> findByActiveTrueAndDiscountPriceIsNotNull(Pageable pageable);
+    
+    @Query(value = "SELECT i.product.id FROM OrderItem i WHERE i.product.active = true " +
+                   "GROUP BY i.product.id ORDER BY SUM(i.quantity) DESC",
+           countQuery = "SELECT COUNT(DISTINCT i.product.id) FROM OrderItem i " +
+                        "WHERE i.product.active = true")
+    Page<Long> findBestsellerIds(Pageable pageable);
+    
+    @EntityGraph(attributePaths = "category")
+    List<Product> findByIdIn(Collection<Long> ids);
+    
+    @EntityGraph(attributePaths = "category")
     @Query("SELECT p FROM Product p WHERE p.active = true AND " +
            "(LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
            "LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
            "LOWER(p.brand) LIKE LOWER(CONCAT('%', :keyword, '%')))")
     Page<Product> searchProducts(@Param("keyword") String keyword, Pageable pageable);
     
+    @EntityGraph(attributePaths = "category")
     @Query("SELECT p FROM Product p WHERE p.active = true AND " +
            "p.price BETWEEN :minPrice AND :maxPrice")
     Page<Product> findByPriceRange(@Param("minPrice") BigDecimal minPrice,
@@ -31,6 +52,26 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     
     List<Product> findByBrandAndActiveTrue(String brand);
     
+    @Query("SELECT p.updatedAt FROM Product p WHERE p.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+    
+    // Doubles as the catalog version: every create, update, soft delete and stock change bumps it
+    @Query("SELECT MAX(p.updatedAt) FROM Product p")
+    Optional<LocalDateTime> findLatestUpdate();
+    
     @Query("SELECT DISTINCT p.brand FROM Product p WHERE p.active = true ORDER BY p.brand")
     List<String> findAllActiveBrands();
+    
+    @Query("SELECT new com.techstore.search.SearchableProduct(p.id, p.name, p.brand, c.id, c.name) " +
+           "FROM Product p LEFT JOIN p.category c WHERE p.active = true")
+    List<SearchableProduct> findSearchableProducts();
+    
+    @Query("SELECT i.product.id AS productId, SUM(i.quantity) AS units FROM OrderItem i " +
+           "WHERE i.product IS NOT NULL GROUP BY i.product.id")
+    List<ProductSales> findUnitsSold();
+    
+    interface ProductSales {
+        Long getProductId();
+        Long getUnits();
+    }
 }
@@ -0,0 +1,189 @@
+package com.techstore.repository;
+
+import com.techstore.dto.product.ProductResponse;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.Readable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Catalog reads over R2DBC for the reactive read path. Results are shaped
+ * like the JPA ones: pages of {@link ProductResponse} with category and
+ * images, sorted by the same property names. Nothing here writes.
+ */
+public class ReactiveProductRepository {
+    
+    private static final String SELECT_PRODUCTS = """
+            SELECT p.id, p.name, p.description, p.price, p.discount_price, p.stock_quantity, p.sku, p.brand,
+                   p.category_id, c.name AS category_name, p.average_rating, p.review_count,
+                   p.created_at, p.updated_at
+            FROM products p
+            LEFT JOIN categories c ON c.id = p.category_id
+            """;
+    
+    private static final String SEARCH_CONDITION = """
+            p.active = true AND (LOWER(p.name) LIKE :pattern OR LOWER(p.description) LIKE :pattern
+                                 OR LOWER(p.brand) LIKE :pattern)
+            """;
+    
+    // Images are loaded for this many streamed products at a time
+    private static final int STREAM_BATCH = 100;
+    
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "p.id",
+            "name", "p.name",
+            "price", "p.price",
+            "discountPrice", "p.discount_price",
+            "stockQuantity", "p.stock_quantity",
+            "brand", "p.brand",
+            "averageRating", "p.average_rating",
+            "reviewCount", "p.review_count",
+            "createdAt", "p.created_at",
+            "updatedAt", "p.updated_at");
+    
+    private final DatabaseClient client;
+    private final ConnectionPool pool;
+    private final int streamFetchSize;
+    
+    public ReactiveProductRepository(DatabaseClient client, ConnectionPool pool, int streamFetchSize) {
+        this.client = client;
+        this.pool = pool;
+        this.streamFetchSize = streamFetchSize;
+    }
+    
+    public Mono<Page<ProductResponse>> findActive(Pageable pageable) {
+        return page(SELECT_PRODUCTS + "WHERE p.active = true",
+                "SELECT COUNT(*) FROM products p WHERE p.active = true",
+                Map.of(), pageable);
+    }
+    
+    public Mono<Page<ProductResponse>> search(String keyword, Pageable pageable) {
+        return page(SELECT_PRODUCTS + "WHERE " + SEARCH_CONDITION,
+                "SELECT COUNT(*) FROM products p WHERE " + SEARCH_CONDITION,
+                Map.of("pattern", "%" + keyword.toLowerCase() + "%"), pageable);
+    }
+    
+    public Mono<ProductResponse> findById(long id) {
+        return client.sql(SELECT_PRODUCTS + "WHERE p.id = :id")
+                .bind("id", id)
+                .map(ReactiveProductRepository::toResponse)
+                .one()
+                .flatMap(product -> withImages(List.of(product)))
+                .map(products -> products.get(0));
+    }
+    
+    public Flux<String> findActiveBrands() {
+        return client.sql("SELECT DISTINCT brand FROM products WHERE active = true AND brand IS NOT NULL "
+                        + "ORDER BY brand")
+                .map(row -> row.get("brand", String.class))
+                .all();
+    }
+    
+    /**
+     * Every active product by id, read from a server-side cursor only as fast
+     * as the subscriber requests, with images loaded a batch at a time.
+     */
+    public Flux<ProductResponse> streamActive() {
+        return client.sql(SELECT_PRODUCTS + "WHERE p.active = true ORDER BY p.id")
+                .filter(statement -> statement.fetchSize(streamFetchSize))
+                .map(ReactiveProductRepository::toResponse)
+                .all()
+                .buffer(STREAM_BATCH)
+                .concatMap(this::withImages, 1)
+                .flatMapIterable(Function.identity());
+    }
+    
+    public void close() {
+        pool.dispose();
+    }
+    
+    // The content and the total count are read at the same time, on two connections
+    private Mono<Page<ProductResponse>> page(String select, String count, Map<String, Object> parameters,
+                                             Pageable pageable) {
+        String sql = select + orderBy(pageable.getSort());
+        if (pageable.isPaged()) {
+            sql += " LIMIT " + pageable.getPageSize() + " OFFSET " + pageable.getOffset();
+        }
+        
+        DatabaseClient.GenericExecuteSpec contentSpec = client.sql(sql);
+        DatabaseClient.GenericExecuteSpec countSpec = client.sql(count);
+        for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
+            contentSpec = contentSpec.bind(parameter.getKey(), parameter.getValue());
+            countSpec = countSpec.bind(parameter.getKey(), parameter.getValue());
+        }
+        
+        Mono<List<ProductResponse>> content = contentSpec.map(ReactiveProductRepository::toResponse)
+                .all()
+                .collectList()
+                .flatMap(this::withImages);
+        Mono<Long> total = countSpec.map(row -> row.get(0, Long.class)).one();
+        return Mono.zip(content, total)
+                .map(result -> new PageImpl<>(result.getT1(), pageable, result.getT2()));
+    }
+    
+    private Mono<List<ProductResponse>> withImages(List<ProductResponse> products) {
+        if (products.isEmpty()) {
+            return Mono.just(products);
+        }
+        Map<Long, ProductResponse> byId = products.stream()
+                .collect(Collectors.toMap(ProductResponse::getId, Function.identity()));
+        return client.sql("""
+                        SELECT product_id, image_url FROM product_images
+                        WHERE product_id = ANY(:ids) AND image_url IS NOT NULL
+                        """)
+                .bind("ids", byId.keySet().toArray(new Long[0]))
+                .map(row -> Map.entry(row.get("product_id", Long.class), row.get("image_url", String.class)))
+                .all()
+                .doOnNext(image -> byId.get(image.getKey()).getImageUrls().add(image.getValue()))
+                .then(Mono.just(products));
+    }
+    
+    // Ties are broken by id so that pages never overlap
+    private static String orderBy(Sort sort) {
+        List<String> columns = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            String column = SORT_COLUMNS.get(order.getProperty());
+            if (column == null) {
+                throw new IllegalArgumentException("Cannot sort products by " + order.getProperty());
+            }
+            columns.add(column + (order.isAscending() ? " ASC" : " DESC"));
+        }
+        if (sort.getOrderFor("id") == null) {
+            columns.add("p.id ASC");
+        }
+        return " ORDER BY " + String.join(", ", columns);
+    }
+    
+    private static ProductResponse toResponse(Readable row) {
+        Long categoryId = row.get("category_id", Long.class);
+        return new ProductResponse(
+                row.get("id", Long.class),
+                row.get("name", String.class),
+                row.get("description", String.class),
+                row.get("price", BigDecimal.class),
+                row.get("discount_price", BigDecimal.class),
+                row.get("stock_quantity", Integer.class),
+                row.get("sku", String.class),
+                row.get("brand", String.class),
+                categoryId == null ? null
+                        : new ProductResponse.CategoryRef(categoryId, row.get("category_name", String.class)),
+                new ArrayList<>(),
+                row.get("average_rating", Double.class),
+                row.get("review_count", Integer.class),
+                row.get("created_at", LocalDateTime.class),
+                row.get("updated_at", LocalDateTime.class));
+    }
+}
@@ -0,0 +1,136 @@
+package com.techstore.repository;
+
+import com.techstore.dto.report.SalesReportRow;
+import com.techstore.model.SalesRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.QueryHint;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Rollup rows are only ever written by the upserts and the day-range rebuild
+ * below. Writers of a day share a transaction-scoped advisory lock that a
+ * rebuild of that day takes exclusively, so each order is counted exactly
+ * once whichever commits first.
+ */
+@Repository
+public interface SalesRollupRepository extends JpaRepository<SalesRollup, SalesRollup.Key> {
+    
+    // Advisory lock key for one day: (oid of sales_rollups, days since 2000-01-01)
+    String LOCK_SPACE = "CAST(CAST('sales_rollups' AS regclass) AS integer)";
+    String EPOCH = "DATE '2000-01-01'";
+    
+    // Without declared spaces Hibernate would evict the whole second-level cache after every native write
+    String ROLLUP_SPACE = "org.hibernate.query.native.spaces";
+    
+    // Constructor expressions instead of interface projections: a multi-year daily report has thousands of rows
+    String SUMS = "SUM(r.units), SUM(r.revenue), ROUND(SUM(r.tax), 2), " +
+                  "SUM(r.paidUnits), SUM(r.paidRevenue), ROUND(SUM(r.paidTax), 2)";
+    
+    String LINE_TAX = "ROUND(i.price * i.quantity * o.tax / NULLIF(o.subtotal, 0), 4)";
+    
+    String ORDER_LINE_GROUPS = "FROM orders o " +
+                         "CROSS JOIN LATERAL (SELECT pg_advisory_xact_lock_shared(" + LOCK_SPACE + ", " +
+                         "CAST(o.created_at AS DATE) - " + EPOCH + ")) day_lock " +
+                         "JOIN order_items i ON i.order_id = o.id " +
+                         "LEFT JOIN products p ON p.id = i.product_id " +
+                         "WHERE o.id = :orderId " +
+                         "GROUP BY 1, 2, 3 ";
+    
+    /** Adds ({@code sign} 1) or takes back (-1) an order's lines in the placed measures. */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = ROLLUP_SPACE, value = "sales_rollups"))
+    @Query(value = "INSERT INTO sales_rollups (day, category_id, brand, units, revenue, tax) " +
+                   "SELECT CAST(o.created_at AS DATE), COALESCE(p.category_id, 0), COALESCE(p.brand, ''), " +
+                   ":sign * SUM(i.quantity), :sign * SUM(i.price * i.quantity), " +
+                   ":sign * COALESCE(SUM(" + LINE_TAX + "), 0) " +
+                   ORDER_LINE_GROUPS +
+                   "ON CONFLICT (day, category_id, brand) DO UPDATE SET " +
+                   "units = sales_rollups.units + EXCLUDED.units, " +
+                   "revenue = sales_rollups.revenue + EXCLUDED.revenue, " +
+                   "tax = sales_rollups.tax + EXCLUDED.tax",
+           nativeQuery = true)
+    int addPlaced(@Param("orderId") Long orderId, @Param("sign") int sign);
+    
+    /** Adds ({@code sign} 1) or takes back (-1) an order's lines in the paid measures. */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = ROLLUP_SPACE, value = "sales_rollups"))
+    @Query(value = "INSERT INTO sales_rollups (day, category_id, brand, paid_units, paid_revenue, paid_tax) " +
+                   "SELECT CAST(o.created_at AS DATE), COALESCE(p.category_id, 0), COALESCE(p.brand, ''), " +
+                   ":sign * SUM(i.quantity), :sign * SUM(i.price * i.quantity), " +
+                   ":sign * COALESCE(SUM(" + LINE_TAX + "), 0) " +
+                   ORDER_LINE_GROUPS +
+                   "ON CONFLICT (day, category_id, brand) DO UPDATE SET " +
+                   "paid_units = sales_rollups.paid_units + EXCLUDED.paid_units, " +
+                   "paid_revenue = sales_rollups.paid_revenue + EXCLUDED.paid_revenue, " +
+                   "paid_tax = sales_rollups.paid_tax + EXCLUDED.paid_tax",
+           nativeQuery = true)
+    int addPaid(@Param("orderId") Long orderId, @Param("sign") int sign);
+    
+    /** Blocks writers of every day in [from, to) until the calling transaction ends. */
+    @Query(value = "SELECT COUNT(*) FROM (SELECT pg_advisory_xact_lock(" + LOCK_SPACE + ", d) " +
+                   "FROM generate_series(CAST(:from AS DATE) - " + EPOCH + ", " +
+                   "CAST(:to AS DATE) - " + EPOCH + " - 1) d) locked",
+           nativeQuery = true)
+    long lockDays(@Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    @Modifying
+    @Query("DELETE FROM SalesRollup r WHERE r.day >= :from AND r.day < :to")
+    int deleteDays(@Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    // Must run after lockDays in the same transaction, so its snapshot includes every order the lock waited for
+    @Modifying
+    @QueryHints(@QueryHint(name = ROLLUP_SPACE, value = "sales_rollups"))
+    @Query(value = "INSERT INTO sales_rollups " +
+                   "(day, category_id, brand, units, revenue, tax, paid_units, paid_revenue, paid_tax) " +
+                   "SELECT CAST(o.created_at AS DATE), COALESCE(p.category_id, 0), COALESCE(p.brand, ''), " +
+                   "COALESCE(SUM(i.quantity) FILTER (WHERE o.status IS DISTINCT FROM 'CANCELLED'), 0), " +
+                   "COALESCE(SUM(i.price * i.quantity) FILTER (WHERE o.status IS DISTINCT FROM 'CANCELLED'), 0), " +
+                   "COALESCE(SUM(" + LINE_TAX + ") FILTER (WHERE o.status IS DISTINCT FROM 'CANCELLED'), 0), " +
+                   "COALESCE(SUM(i.quantity) FILTER (WHERE o.payment_status = 'PAID'), 0), " +
+                   "COALESCE(SUM(i.price * i.quantity) FILTER (WHERE o.payment_status = 'PAID'), 0), " +
+                   "COALESCE(SUM(" + LINE_TAX + ") FILTER (WHERE o.payment_status = 'PAID'), 0) " +
+                   "FROM orders o " +
+                   "JOIN order_items i ON i.order_id = o.id " +
+                   "LEFT JOIN products p ON p.id = i.product_id " +
+                   "WHERE o.created_at >= :from AND o.created_at < :to " +
+                   "GROUP BY 1, 2, 3",
+           nativeQuery = true)
+    int rebuildDays(@Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    @Query(value = "SELECT MIN(day) FROM (SELECT MIN(CAST(created_at AS DATE)) AS day FROM orders " +
+                   "UNION ALL SELECT MIN(day) FROM sales_rollups) days",
+           nativeQuery = true)
+    Optional<LocalDate> findFirstDay();
+    
+    // A chunk reads a thin slice of history through idx_order_items_order_id; with the default random_page_cost
+    // the planner scans all of order_items for every chunk instead, which is several times slower on SSDs
+    @Query(value = "SELECT set_config('random_page_cost', '1.1', true)", nativeQuery = true)
+    String preferIndexScans();
+    
+    @Query("SELECT new com.techstore.dto.report.SalesReportRow(CAST(r.day AS String), CAST(r.day AS String), " +
+           SUMS + ") " +
+           "FROM SalesRollup r WHERE r.day >= :from AND r.day < :to " +
+           "GROUP BY r.day ORDER BY r.day")
+    List<SalesReportRow> sumByDay(@Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    @Query("SELECT new com.techstore.dto.report.SalesReportRow(CAST(r.categoryId AS String), " +
+           "COALESCE(c.name, 'Uncategorized'), " + SUMS + ") " +
+           "FROM SalesRollup r LEFT JOIN Category c ON c.id = r.categoryId " +
+           "WHERE r.day >= :from AND r.day < :to " +
+           "GROUP BY r.categoryId, c.name ORDER BY SUM(r.revenue) DESC")
+    List<SalesReportRow> sumByCategory(@Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    @Query("SELECT new com.techstore.dto.report.SalesReportRow(r.brand, " +
+           "CASE WHEN r.brand = '' THEN 'Unbranded' ELSE r.brand END, " + SUMS + ") " +
+           "FROM SalesRollup r WHERE r.day >= :from AND r.day < :to " +
+           "GROUP BY r.brand ORDER BY SUM(r.revenue) DESC")
+    List<SalesReportRow> sumByBrand(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
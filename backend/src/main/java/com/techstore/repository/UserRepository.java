@@ -1,13 +1,32 @@
 package com.techstore.repository;
 
+import com.techstore.model.Role;
 import com.techstore.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
-}
\ No newline at end of file
+    
+    // One row per role, in one statement; loading the entity would also fetch the user's cart
+    @Query("SELECT u.id AS id, u.email AS email, u.password AS password, " +
+           "u.firstName AS firstName, u.lastName AS lastName, r.name AS role " +
+           "FROM User u LEFT JOIN u.roles r WHERE u.email = :email")
+    List<SignInView> findSignInViewsByEmail(@Param("email") String email);
+    
+    interface SignInView {
+        Long getId();
+        String getEmail();
+        String getPassword();
+        String getFirstName();
+        String getLastName();
+        Role.RoleType getRole();
+    }
+}
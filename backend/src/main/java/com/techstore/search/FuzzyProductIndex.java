@@ -0,0 +1,457 @@
+package com.techstore.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Immutable typo-tolerant index over the words of product names and brands.
+ * Each query word is looked up in two steps: the character trigrams it shares
+ * with the vocabulary pick candidate terms, then a bounded optimal string
+ * alignment distance, where swapping two adjacent letters is one edit, keeps
+ * the terms within the edits the word's length allows. A product matches when
+ * every query word matches one of its words; matches are ranked by total
+ * edits, then by weight.
+ * <p>
+ * Only the query word with the fewest postings is expanded into products. The
+ * other words are checked against each of those products' own term lists, so
+ * a query costs about as much as its rarest word.
+ */
+public final class FuzzyProductIndex {
+    
+    public static final FuzzyProductIndex EMPTY = builder().build();
+    
+    private static final int MAX_QUERY_WORDS = 8;
+    
+    // Products by ordinal, heaviest first, and the slice of their term ids
+    private final long[] productIds;
+    private final int[] termStart;
+    private final int[] productTerms;
+    // Sorted vocabulary and the ordinals of the products using each term, ascending
+    private final String[] terms;
+    private final int[] postingStart;
+    private final int[] postings;
+    // Sorted trigram keys and the terms containing each of them, shortest first
+    private final long[] grams;
+    private final int[] gramStart;
+    private final int[] gramTerms;
+    
+    private FuzzyProductIndex(long[] productIds, int[] termStart, int[] productTerms, String[] terms,
+                              int[] postingStart, int[] postings, long[] grams, int[] gramStart, int[] gramTerms) {
+        this.productIds = productIds;
+        this.termStart = termStart;
+        this.productTerms = productTerms;
+        this.terms = terms;
+        this.postingStart = postingStart;
+        this.postings = postings;
+        this.grams = grams;
+        this.gramStart = gramStart;
+        this.gramTerms = gramTerms;
+    }
+    
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    /**
+     * The ids of the {@code limit} best matches for {@code query}, best first,
+     * and how many products matched in total.
+     */
+    public Result search(String query, int limit) {
+        String[] words = words(query);
+        if (words.length == 0 || productIds.length == 0) {
+            return Result.EMPTY;
+        }
+        
+        Candidates[] candidates = new Candidates[words.length];
+        int driver = 0;
+        for (int i = 0; i < words.length; i++) {
+            candidates[i] = candidates(words[i]);
+            if (candidates[i].size() == 0) {
+                return Result.EMPTY;
+            }
+            if (candidates[i].postings < candidates[driver].postings) {
+                driver = i;
+            }
+        }
+        
+        Candidates expanded = candidates[driver];
+        TopN top = new TopN(limit);
+        int total = 0;
+        for (int c = 0; c < expanded.size(); c++) {
+            int term = expanded.terms[c];
+            for (int p = postingStart[term]; p < postingStart[term + 1]; p++) {
+                int product = postings[p];
+                // A product with several candidate terms is reached once per term; keep the first
+                if (c > 0 && firstCandidate(expanded, product) != c) {
+                    continue;
+                }
+                int edits = edits(candidates, product);
+                if (edits >= 0) {
+                    total++;
+                    top.offer((long) edits << 32 | product);
+                }
+            }
+        }
+        
+        long[] ranked = top.sorted();
+        long[] ids = new long[ranked.length];
+        for (int i = 0; i < ranked.length; i++) {
+            ids[i] = productIds[(int) ranked[i]];
+        }
+        return new Result(ids, total);
+    }
+    
+    public int size() {
+        return productIds.length;
+    }
+    
+    public int termCount() {
+        return terms.length;
+    }
+    
+    /** Approximate heap footprint of the index. */
+    public long memoryBytes() {
+        long bytes = 8L * productIds.length + 8L * grams.length
+                + 4L * (termStart.length + productTerms.length + postingStart.length + postings.length
+                + gramStart.length + gramTerms.length);
+        for (String term : terms) {
+            bytes += 56 + term.length();
+        }
+        return bytes;
+    }
+    
+    /** Edits allowed for a word: none up to three characters, then one, and two from nine. */
+    static int maxEdits(int length) {
+        return length <= 3 ? 0 : length <= 8 ? 1 : 2;
+    }
+    
+    /**
+     * Optimal string alignment distance between {@code a} and {@code b}, or
+     * {@code max + 1} as soon as it is known to exceed {@code max}.
+     */
+    static int distance(String a, String b, int max) {
+        return distance(a, b, max, new int[3][b.length() + 1]);
+    }
+    
+    // rows holds three int arrays of at least b.length() + 1, reused across calls
+    private static int distance(String a, String b, int max, int[][] rows) {
+        int n = a.length();
+        int m = b.length();
+        if (Math.abs(n - m) > max) {
+            return max + 1;
+        }
+        int[] beforePrevious = rows[0];
+        int[] previous = rows[1];
+        int[] current = rows[2];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            current[0] = i;
+            int rowMin = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= m; j++) {
+                char cb = b.charAt(j - 1);
+                int d = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + (ca == cb ? 0 : 1));
+                if (i > 1 && j > 1 && ca == b.charAt(j - 2) && a.charAt(i - 2) == cb) {
+                    d = Math.min(d, beforePrevious[j - 2] + 1);
+                }
+                current[j] = d;
+                rowMin = Math.min(rowMin, d);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[m], max + 1);
+    }
+    
+    private Candidates candidates(String word) {
+        int maxEdits = maxEdits(word.length());
+        IntList matched = new IntList();
+        IntList edits = new IntList();
+        
+        if (maxEdits == 0) {
+            int term = Arrays.binarySearch(terms, word);
+            if (term >= 0) {
+                matched.add(term);
+                edits.add(0);
+            }
+        } else {
+            // Slices of the trigram postings holding terms of a length within reach
+            long[] wordGrams = grams(word);
+            long[] slices = new long[wordGrams.length];
+            int found = 0;
+            for (long gram : wordGrams) {
+                int g = Arrays.binarySearch(grams, gram);
+                if (g >= 0) {
+                    int from = lengthBound(g, word.length() - maxEdits);
+                    int to = lengthBound(g, word.length() + maxEdits + 1);
+                    slices[found++] = (long) (to - from) << 32 | from;
+                }
+            }
+            
+            // An edit changes at most three trigrams and a swap four; one swap per word is allowed
+            // for. A term sharing enough of them shares one of any (grams - minShared + 1), so only
+            // the rarest are read, and a trigram no term has is the rarest of all.
+            int minShared = Math.max(1, wordGrams.length - 3 * maxEdits - 1);
+            int read = found - minShared + 1;
+            Arrays.sort(slices, 0, found);
+            IntList shared = new IntList();
+            for (int s = 0; s < read; s++) {
+                int from = (int) slices[s];
+                int to = from + (int) (slices[s] >>> 32);
+                for (int i = from; i < to; i++) {
+                    shared.add(gramTerms[i]);
+                }
+            }
+            
+            int[] sorted = shared.toArray();
+            Arrays.sort(sorted);
+            int[][] rows = new int[3][word.length() + maxEdits + 1];
+            for (int i = 0; i < sorted.length; i++) {
+                if (i > 0 && sorted[i] == sorted[i - 1]) {
+                    continue;
+                }
+                int distance = distance(word, terms[sorted[i]], maxEdits, rows);
+                if (distance <= maxEdits) {
+                    matched.add(sorted[i]);
+                    edits.add(distance);
+                }
+            }
+        }
+        
+        int[] termIds = matched.toArray();
+        long postingCount = 0;
+        for (int term : termIds) {
+            postingCount += postingStart[term + 1] - postingStart[term];
+        }
+        return new Candidates(termIds, edits.toArray(), postingCount);
+    }
+    
+    // First position in the postings of trigram g, which are ordered by term length, of a term at least length long
+    private int lengthBound(int g, int length) {
+        int low = gramStart[g];
+        int high = gramStart[g + 1];
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (terms[gramTerms[mid]].length() < length) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+    
+    private int firstCandidate(Candidates candidates, int product) {
+        int first = Integer.MAX_VALUE;
+        for (int i = termStart[product]; i < termStart[product + 1]; i++) {
+            int c = Arrays.binarySearch(candidates.terms, productTerms[i]);
+            if (c >= 0) {
+                first = Math.min(first, c);
+            }
+        }
+        return first;
+    }
+    
+    // Sum over the query words of the fewest edits any of the product's terms needs, or -1
+    private int edits(Candidates[] candidates, int product) {
+        int total = 0;
+        for (Candidates word : candidates) {
+            int best = Integer.MAX_VALUE;
+            for (int i = termStart[product]; i < termStart[product + 1]; i++) {
+                int c = Arrays.binarySearch(word.terms, productTerms[i]);
+                if (c >= 0) {
+                    best = Math.min(best, word.edits[c]);
+                }
+            }
+            if (best == Integer.MAX_VALUE) {
+                return -1;
+            }
+            total += best;
+        }
+        return total;
+    }
+    
+    private static String[] words(String text) {
+        String normalized = SearchText.normalize(text);
+        if (normalized.isEmpty()) {
+            return new String[0];
+        }
+        Set<String> words = new LinkedHashSet<>(Arrays.asList(normalized.split(" ")));
+        return words.stream().limit(MAX_QUERY_WORDS).toArray(String[]::new);
+    }
+    
+    // Distinct trigrams of "$$word$" with $ as the boundary, three chars packed into a long. The
+    // doubled start keeps the first letter in common when a short word has two letters swapped.
+    private static long[] grams(String word) {
+        long[] keys = new long[word.length() + 1];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = (long) charAt(word, i - 2) << 32 | (long) charAt(word, i - 1) << 16 | charAt(word, i);
+        }
+        return Arrays.stream(keys).sorted().distinct().toArray();
+    }
+    
+    private static char charAt(String word, int index) {
+        return index >= 0 && index < word.length() ? word.charAt(index) : 0;
+    }
+    
+    public record Result(long[] productIds, int total) {
+        
+        public static final Result EMPTY = new Result(new long[0], 0);
+    }
+    
+    // Matching term ids, ascending, with the edits each one needs
+    private record Candidates(int[] terms, int[] edits, long postings) {
+        
+        int size() {
+            return terms.length;
+        }
+    }
+    
+    // Keeps the smallest values offered in a max-heap of fixed capacity
+    private static final class TopN {
+        
+        private final long[] heap;
+        private int size;
+        
+        TopN(int capacity) {
+            this.heap = new long[Math.max(capacity, 0)];
+        }
+        
+        void offer(long value) {
+            if (size < heap.length) {
+                int i = size++;
+                while (i > 0 && heap[(i - 1) >>> 1] < value) {
+                    heap[i] = heap[(i - 1) >>> 1];
+                    i = (i - 1) >>> 1;
+                }
+                heap[i] = value;
+            } else if (size > 0 && value < heap[0]) {
+                int i = 0;
+                while (true) {
+                    int child = 2 * i + 1;
+                    if (child >= size) {
+                        break;
+                    }
+                    if (child + 1 < size && heap[child + 1] > heap[child]) {
+                        child++;
+                    }
+                    if (heap[child] <= value) {
+                        break;
+                    }
+                    heap[i] = heap[child];
+                    i = child;
+                }
+                heap[i] = value;
+            }
+        }
+        
+        long[] sorted() {
+            long[] values = Arrays.copyOf(heap, size);
+            Arrays.sort(values);
+            return values;
+        }
+    }
+    
+    public static final class Builder {
+        
+        private final List<Long> ids = new ArrayList<>();
+        private final List<String> texts = new ArrayList<>();
+        private final List<Long> weights = new ArrayList<>();
+        
+        private Builder() {
+        }
+        
+        public Builder add(long id, String name, String brand, long weight) {
+            ids.add(id);
+            texts.add(SearchText.normalize(name + " " + (brand != null ? brand : "")));
+            weights.add(weight);
+            return this;
+        }
+        
+        /** Orders products by weight, heaviest first, then by id. */
+        public FuzzyProductIndex build() {
+            Integer[] order = new Integer[ids.size()];
+            Arrays.setAll(order, i -> i);
+            Arrays.sort(order, Comparator.<Integer>comparingLong(i -> -weights.get(i)).thenComparing(ids::get));
+            
+            String[][] productWords = new String[order.length][];
+            Map<String, Integer> vocabulary = new TreeMap<>();
+            for (int ordinal = 0; ordinal < order.length; ordinal++) {
+                String text = texts.get(order[ordinal]);
+                productWords[ordinal] = text.isEmpty() ? new String[0] : Arrays.stream(text.split(" ")).distinct().toArray(String[]::new);
+                for (String word : productWords[ordinal]) {
+                    vocabulary.put(word, 0);
+                }
+            }
+            String[] terms = vocabulary.keySet().toArray(String[]::new);
+            for (int term = 0; term < terms.length; term++) {
+                vocabulary.put(terms[term], term);
+            }
+            
+            long[] productIds = new long[order.length];
+            int[] termStart = new int[order.length + 1];
+            IntList productTerms = new IntList();
+            int[] postingStart = new int[terms.length + 1];
+            for (int ordinal = 0; ordinal < order.length; ordinal++) {
+                productIds[ordinal] = ids.get(order[ordinal]);
+                termStart[ordinal] = productTerms.size();
+                for (String word : productWords[ordinal]) {
+                    int term = vocabulary.get(word);
+                    productTerms.add(term);
+                    postingStart[term + 1]++;
+                }
+            }
+            termStart[order.length] = productTerms.size();
+            for (int term = 0; term < terms.length; term++) {
+                postingStart[term + 1] += postingStart[term];
+            }
+            
+            // Ordinals are visited in order, so every posting list comes out sorted
+            int[] postings = new int[productTerms.size()];
+            int[] next = Arrays.copyOf(postingStart, terms.length);
+            for (int ordinal = 0; ordinal < order.length; ordinal++) {
+                for (int i = termStart[ordinal]; i < termStart[ordinal + 1]; i++) {
+                    postings[next[productTerms.get(i)]++] = ordinal;
+                }
+            }
+            
+            Integer[] byLength = new Integer[terms.length];
+            Arrays.setAll(byLength, i -> i);
+            Arrays.sort(byLength, Comparator.comparingInt(term -> terms[term].length()));
+            Map<Long, IntList> gramIndex = new HashMap<>();
+            for (int term : byLength) {
+                for (long gram : grams(terms[term])) {
+                    gramIndex.computeIfAbsent(gram, key -> new IntList()).add(term);
+                }
+            }
+            long[] grams = gramIndex.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+            int[] gramStart = new int[grams.length + 1];
+            IntList gramTerms = new IntList();
+            for (int g = 0; g < grams.length; g++) {
+                gramStart[g] = gramTerms.size();
+                IntList termIds = gramIndex.get(grams[g]);
+                for (int i = 0; i < termIds.size(); i++) {
+                    gramTerms.add(termIds.get(i));
+                }
+            }
+            gramStart[grams.length] = gramTerms.size();
+            
+            return new FuzzyProductIndex(productIds, termStart, productTerms.toArray(), terms,
+                    postingStart, postings, grams, gramStart, gramTerms.toArray());
+        }
+    }
+}
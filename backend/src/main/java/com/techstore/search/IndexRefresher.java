@@ -0,0 +1,54 @@
+package com.techstore.search;
+
+import com.techstore.event.CatalogChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Rebuild bookkeeping for an in-memory search index. Catalog changes mark the
+ * index stale, except stock and rating changes, which no index holds; a
+ * scheduled check then rebuilds it at most once per minimum interval. A failed
+ * rebuild keeps the previous index and is retried on the next check.
+ */
+@Slf4j
+public class IndexRefresher {
+    
+    private final String name;
+    private final Runnable rebuild;
+    private final AtomicBoolean stale = new AtomicBoolean(true);
+    private volatile long lastRebuild;
+    
+    public IndexRefresher(String name, Runnable rebuild) {
+        this.name = name;
+        this.rebuild = rebuild;
+    }
+    
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (!event.isCountersOnly()) {
+            stale.set(true);
+        }
+    }
+    
+    public void rebuildNow() {
+        stale.set(false);
+        rebuild.run();
+        lastRebuild = System.currentTimeMillis();
+    }
+    
+    public void rebuildIfStale(long minRebuildInterval) {
+        if (System.currentTimeMillis() - lastRebuild < minRebuildInterval) {
+            return;
+        }
+        if (stale.getAndSet(false)) {
+            try {
+                rebuild.run();
+                lastRebuild = System.currentTimeMillis();
+            } catch (RuntimeException ex) {
+                // Keep serving the previous index and try again on the next tick
+                stale.set(true);
+                log.warn("{} rebuild failed", name, ex);
+            }
+        }
+    }
+}
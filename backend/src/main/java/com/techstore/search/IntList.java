@@ -0,0 +1,33 @@
+package com.techstore.search;
+
+import java.util.Arrays;
+
+/** Growable int array for building the flat search indexes. */
+final class IntList {
+    
+    private int[] values = new int[16];
+    private int size;
+    
+    void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+    
+    int get(int index) {
+        return values[index];
+    }
+    
+    void set(int index, int value) {
+        values[index] = value;
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+}
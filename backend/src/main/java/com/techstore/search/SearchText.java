@@ -0,0 +1,39 @@
+package com.techstore.search;
+
+import java.text.Normalizer;
+
+/**
+ * The one normalization shared by everything indexed for search and every
+ * query run against it: lower case, accents stripped, and each run of
+ * characters that are not letters or digits collapsed into a single space.
+ */
+public final class SearchText {
+    
+    private SearchText() {
+    }
+    
+    public static String normalize(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder normalized = new StringBuilder(decomposed.length());
+        boolean space = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                if (space && normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                normalized.append(Character.toLowerCase(c));
+                space = false;
+            } else {
+                space = true;
+            }
+        }
+        return normalized.toString();
+    }
+}
@@ -0,0 +1,5 @@
+package com.techstore.search;
+
+/** What the in-memory search indexes read about an active product. */
+public record SearchableProduct(Long id, String name, String brand, Long categoryId, String categoryName) {
+}
@@ -0,0 +1,364 @@
+package com.techstore.search;
+
+import com.techstore.dto.search.Suggestion;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable radix trie for search-as-you-type. Every suggestion is indexed
+ * under its normalized text and under each later word start, so "gal"
+ * finds "Samsung Galaxy S24". Suggestions are ranked by weight once at build
+ * time; each node stores the best rank below it, so the top N for a prefix
+ * come out of a best-first walk that touches little more than N nodes.
+ * <p>
+ * Nodes, labels and entries live in flat primitive arrays. Memory is bounded
+ * by {@code maxEntries}, {@code maxTokens} and {@code maxKeyLength}: only the
+ * heaviest entries are kept, and each key is cut to its first bytes.
+ */
+public final class SuggestionIndex {
+    
+    public static final SuggestionIndex EMPTY = new Builder(1, 1).build(0);
+    
+    private static final long NODE = 1L << 31;
+    
+    // Per node: label slice, children slice, terminal entries slice and the best rank in the subtree
+    private final int[] labelStart;
+    private final int[] labelLength;
+    private final int[] firstChild;
+    private final int[] childCount;
+    private final int[] entryStart;
+    private final int[] entryCount;
+    private final int[] minRank;
+    private final byte[] labels;
+    private final int[] entryRanks;
+    private final Suggestion[] entries;
+    private final int maxKeyLength;
+    
+    private SuggestionIndex(IntList labelStart, IntList labelLength, IntList firstChild, IntList childCount,
+                            IntList entryStart, IntList entryCount, IntList minRank, byte[] labels,
+                            IntList entryRanks, Suggestion[] entries, int maxKeyLength) {
+        this.labelStart = labelStart.toArray();
+        this.labelLength = labelLength.toArray();
+        this.firstChild = firstChild.toArray();
+        this.childCount = childCount.toArray();
+        this.entryStart = entryStart.toArray();
+        this.entryCount = entryCount.toArray();
+        this.minRank = minRank.toArray();
+        this.labels = labels;
+        this.entryRanks = entryRanks.toArray();
+        this.entries = entries;
+        this.maxKeyLength = maxKeyLength;
+    }
+    
+    public static Builder builder(int maxTokens, int maxKeyLength) {
+        return new Builder(maxTokens, maxKeyLength);
+    }
+    
+    /** Up to {@code limit} suggestions starting with {@code prefix}, heaviest first. */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String normalized = SearchText.normalize(prefix);
+        byte[] full = normalized.getBytes(StandardCharsets.UTF_8);
+        byte[] query = truncate(full, maxKeyLength);
+        if (query.length == 0 || limit <= 0 || entries.length == 0) {
+            return List.of();
+        }
+        // Keys stop at maxKeyLength bytes, so a longer prefix is checked against the full text
+        String wordStart = query.length < full.length ? " " + normalized : null;
+        
+        int node = 0;
+        int matched = 0;
+        while (matched < query.length) {
+            node = findChild(node, query[matched]);
+            if (node < 0) {
+                return List.of();
+            }
+            int start = labelStart[node];
+            for (int i = 0; i < labelLength[node] && matched < query.length; i++, matched++) {
+                if (labels[start + i] != query[matched]) {
+                    return List.of();
+                }
+            }
+        }
+        
+        // Heap items are (rank << 32) | NODE | node or (rank << 32) for an entry, so ties pop entries first
+        List<Suggestion> result = new ArrayList<>(limit);
+        LongHeap heap = new LongHeap();
+        heap.push((long) minRank[node] << 32 | NODE | node);
+        int last = -1;
+        while (!heap.isEmpty() && result.size() < limit) {
+            long item = heap.pop();
+            int rank = (int) (item >>> 32);
+            if ((item & NODE) == 0) {
+                // The same entry is reachable through several word starts; all its copies pop in a row
+                if (rank != last && (wordStart == null
+                        || (" " + SearchText.normalize(entries[rank].getText())).contains(wordStart))) {
+                    result.add(entries[rank]);
+                }
+                last = rank;
+                continue;
+            }
+            int current = (int) (item & (NODE - 1));
+            for (int i = entryStart[current]; i < entryStart[current] + entryCount[current]; i++) {
+                heap.push((long) entryRanks[i] << 32);
+            }
+            for (int child = firstChild[current]; child < firstChild[current] + childCount[current]; child++) {
+                heap.push((long) minRank[child] << 32 | NODE | child);
+            }
+        }
+        return result;
+    }
+    
+    public int size() {
+        return entries.length;
+    }
+    
+    public int nodeCount() {
+        return minRank.length;
+    }
+    
+    /** Approximate heap footprint of the index, including the suggestion objects. */
+    public long memoryBytes() {
+        long bytes = 7L * 4 * minRank.length + labels.length + 4L * entryRanks.length;
+        for (Suggestion entry : entries) {
+            bytes += 64 + 2L * entry.getText().length();
+        }
+        return bytes;
+    }
+    
+    // Cut to maxKeyLength bytes without splitting a UTF-8 sequence
+    private static byte[] truncate(byte[] key, int maxKeyLength) {
+        if (key.length <= maxKeyLength) {
+            return key;
+        }
+        int length = maxKeyLength;
+        while (length > 0 && (key[length] & 0xC0) == 0x80) {
+            length--;
+        }
+        return Arrays.copyOf(key, length);
+    }
+    
+    // Children are sorted by the first byte of their label
+    private int findChild(int node, byte first) {
+        int low = firstChild[node];
+        int high = low + childCount[node] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = Byte.toUnsignedInt(labels[labelStart[mid]]) - Byte.toUnsignedInt(first);
+            if (cmp == 0) {
+                return mid;
+            }
+            if (cmp < 0) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return -1;
+    }
+    
+    public static final class Builder {
+        
+        private final int maxTokens;
+        private final int maxKeyLength;
+        private final List<Suggestion> suggestions = new ArrayList<>();
+        private final List<Long> weights = new ArrayList<>();
+        
+        private Builder(int maxTokens, int maxKeyLength) {
+            this.maxTokens = maxTokens;
+            this.maxKeyLength = maxKeyLength;
+        }
+        
+        public Builder add(Suggestion suggestion, long weight) {
+            suggestions.add(suggestion);
+            weights.add(weight);
+            return this;
+        }
+        
+        /** Keeps the {@code maxEntries} heaviest suggestions; ties go to the alphabetically first. */
+        public SuggestionIndex build(int maxEntries) {
+            Integer[] order = new Integer[suggestions.size()];
+            Arrays.setAll(order, i -> i);
+            Arrays.sort(order, Comparator.<Integer>comparingLong(i -> -weights.get(i))
+                    .thenComparing(i -> suggestions.get(i).getText()));
+            Suggestion[] entries = new Suggestion[Math.min(maxEntries, order.length)];
+            for (int rank = 0; rank < entries.length; rank++) {
+                entries[rank] = suggestions.get(order[rank]);
+            }
+            
+            List<byte[]> keys = new ArrayList<>();
+            IntList keyRanks = new IntList();
+            for (int rank = 0; rank < entries.length; rank++) {
+                String text = SearchText.normalize(entries[rank].getText());
+                for (int start = 0, tokens = 0; start < text.length() && tokens < maxTokens; tokens++) {
+                    keys.add(truncate(text.substring(start).getBytes(StandardCharsets.UTF_8), maxKeyLength));
+                    keyRanks.add(rank);
+                    int space = text.indexOf(' ', start);
+                    start = space < 0 ? text.length() : space + 1;
+                }
+            }
+            
+            Integer[] sorted = new Integer[keys.size()];
+            Arrays.setAll(sorted, i -> i);
+            Arrays.sort(sorted, (a, b) -> {
+                int cmp = Arrays.compareUnsigned(keys.get(a), keys.get(b));
+                return cmp != 0 ? cmp : Integer.compare(keyRanks.get(a), keyRanks.get(b));
+            });
+            byte[][] sortedKeys = new byte[sorted.length][];
+            int[] sortedRanks = new int[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                sortedKeys[i] = keys.get(sorted[i]);
+                sortedRanks[i] = keyRanks.get(sorted[i]);
+            }
+            return new TrieWriter(sortedKeys, sortedRanks).write(entries, maxKeyLength);
+        }
+    }
+    
+    // Lays the trie out breadth first, so the children of every node are contiguous
+    private static final class TrieWriter {
+        
+        private final byte[][] keys;
+        private final int[] ranks;
+        private final IntList labelStart = new IntList();
+        private final IntList labelLength = new IntList();
+        private final IntList firstChild = new IntList();
+        private final IntList childCount = new IntList();
+        private final IntList entryStart = new IntList();
+        private final IntList entryCount = new IntList();
+        private final IntList minRank = new IntList();
+        private final IntList entryRanks = new IntList();
+        private final IntList rangeLow = new IntList();
+        private final IntList rangeHigh = new IntList();
+        private final IntList depth = new IntList();
+        private final ByteArrayOutputStream labels = new ByteArrayOutputStream();
+        
+        private TrieWriter(byte[][] keys, int[] ranks) {
+            this.keys = keys;
+            this.ranks = ranks;
+        }
+        
+        private SuggestionIndex write(Suggestion[] entries, int maxKeyLength) {
+            addNode(0, keys.length, 0, 0);
+            for (int node = 0; node < rangeLow.size(); node++) {
+                expand(node);
+            }
+            for (int node = minRank.size() - 1; node >= 0; node--) {
+                int best = Integer.MAX_VALUE;
+                for (int i = entryStart.get(node); i < entryStart.get(node) + entryCount.get(node); i++) {
+                    best = Math.min(best, entryRanks.get(i));
+                }
+                for (int child = firstChild.get(node); child < firstChild.get(node) + childCount.get(node); child++) {
+                    best = Math.min(best, minRank.get(child));
+                }
+                minRank.set(node, best);
+            }
+            return new SuggestionIndex(labelStart, labelLength, firstChild, childCount, entryStart, entryCount,
+                    minRank, labels.toByteArray(), entryRanks, entries, maxKeyLength);
+        }
+        
+        private void addNode(int low, int high, int from, int to) {
+            labelStart.add(labels.size());
+            labelLength.add(to - from);
+            if (low < high) {
+                labels.write(keys[low], from, to - from);
+            }
+            rangeLow.add(low);
+            rangeHigh.add(high);
+            depth.add(to);
+            firstChild.add(0);
+            childCount.add(0);
+            entryStart.add(0);
+            entryCount.add(0);
+            minRank.add(0);
+        }
+        
+        private void expand(int node) {
+            int low = rangeLow.get(node);
+            int high = rangeHigh.get(node);
+            int d = depth.get(node);
+            
+            // Keys ending here sort first; drop repeats of the same entry under the same key
+            entryStart.set(node, entryRanks.size());
+            int previous = -1;
+            while (low < high && keys[low].length == d) {
+                if (ranks[low] != previous) {
+                    entryRanks.add(ranks[low]);
+                    previous = ranks[low];
+                }
+                low++;
+            }
+            entryCount.set(node, entryRanks.size() - entryStart.get(node));
+            
+            firstChild.set(node, rangeLow.size());
+            int children = 0;
+            while (low < high) {
+                byte first = keys[low][d];
+                int end = low + 1;
+                while (end < high && keys[end][d] == first) {
+                    end++;
+                }
+                addNode(low, end, d, d + commonPrefix(keys[low], keys[end - 1], d));
+                children++;
+                low = end;
+            }
+            childCount.set(node, children);
+        }
+        
+        private static int commonPrefix(byte[] a, byte[] b, int from) {
+            int length = Math.min(a.length, b.length);
+            int i = from;
+            while (i < length && a[i] == b[i]) {
+                i++;
+            }
+            return i - from;
+        }
+    }
+    
+    private static final class LongHeap {
+        
+        private long[] values = new long[32];
+        private int size;
+        
+        boolean isEmpty() {
+            return size == 0;
+        }
+        
+        void push(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            int i = size++;
+            while (i > 0 && values[(i - 1) >>> 1] > value) {
+                values[i] = values[(i - 1) >>> 1];
+                i = (i - 1) >>> 1;
+            }
+            values[i] = value;
+        }
+        
+        long pop() {
+            long top = values[0];
+            long last = values[--size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && values[child + 1] < values[child]) {
+                    child++;
+                }
+                if (values[child] >= last) {
+                    break;
+                }
+                values[i] = values[child];
+                i = child;
+            }
+            values[i] = last;
+            return top;
+        }
+    }
+}
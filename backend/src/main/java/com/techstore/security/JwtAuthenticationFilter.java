@@ -4,7 +4,9 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
+import com.techstore.tracing.Tracer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -14,25 +16,40 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
     private final JwtTokenProvider tokenProvider;
     private final UserDetailsServiceImpl userDetailsService;
+    private final UserProfileCache userProfileCache;
+    private final Timer validTokenTimer;
+    private final Timer invalidTokenTimer;
+    
+    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider,
+                                   UserDetailsServiceImpl userDetailsService,
+                                   UserProfileCache userProfileCache,
+                                   MeterRegistry meterRegistry) {
+        this.tokenProvider = tokenProvider;
+        this.userDetailsService = userDetailsService;
+        this.userProfileCache = userProfileCache;
+        this.validTokenTimer = verificationTimer(meterRegistry, "valid");
+        this.invalidTokenTimer = verificationTimer(meterRegistry, "invalid");
+    }
     
     @Override
     protected void doFilterInternal(HttpServletRequest req, 
                                     HttpServletResponse res, 
                                     FilterChain chain) 
             throws ServletException, IOException {
+        int span = Tracer.start("JwtAuthenticationFilter");
         try {
             String jwt = getJwtFromRequest(req);
             
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
+            if (StringUtils.hasText(jwt) && validateToken(jwt)) {
                 String email = tokenProvider.getEmailFromToken(jwt);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+                UserDetails userDetails = loadUser(email);
                 
                 UsernamePasswordAuthenticationToken auth = 
                     new UsernamePasswordAuthenticationToken(
@@ -44,11 +61,38 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             }
         } catch (Exception ex) {
             logger.error("Could not set user authentication", ex);
+        } finally {
+            Tracer.end(span);
         }
         
         chain.doFilter(req, res);
     }
     
+    private boolean validateToken(String jwt) {
+        long start = System.nanoTime();
+        boolean valid = tokenProvider.validateToken(jwt);
+        (valid ? validTokenTimer : invalidTokenTimer)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return valid;
+    }
+    
+    private UserDetails loadUser(String email) {
+        UserDetails user = userProfileCache.getUserFromCache(email);
+        if (user == null) {
+            user = userDetailsService.loadUserByUsername(email);
+            userProfileCache.putUserInCache(user);
+        }
+        return user;
+    }
+    
+    private static Timer verificationTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("techstore.jwt.verification")
+                .description("JWT signature and expiry verification time")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+    
     private String getJwtFromRequest(HttpServletRequest req) {
         String bearerToken = req.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -1,6 +1,6 @@
 package com.techstore.security;
 
-import com.techstore.model.User;
+import com.techstore.repository.UserRepository;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import org.springframework.security.core.GrantedAuthority;
@@ -8,6 +8,7 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.stream.Collectors;
 
 @Data
@@ -17,17 +18,24 @@ public class UserDetailsImpl implements UserDetails {
     private Long id;
     private String email;
     private String password;
+    private String firstName;
+    private String lastName;
     private Collection<? extends GrantedAuthority> authorities;
     
-    public static UserDetailsImpl build(User user) {
-        Collection<GrantedAuthority> authorities = user.getRoles().stream()
-                .map(role -> new SimpleGrantedAuthority(role.getName().name()))
+    // One row per role, as read by UserRepository.findSignInViewsByEmail
+    public static UserDetailsImpl build(List<UserRepository.SignInView> rows) {
+        UserRepository.SignInView user = rows.get(0);
+        Collection<GrantedAuthority> authorities = rows.stream()
+                .filter(row -> row.getRole() != null)
+                .map(row -> new SimpleGrantedAuthority(row.getRole().name()))
                 .collect(Collectors.toList());
         
         return new UserDetailsImpl(
                 user.getId(),
                 user.getEmail(),
                 user.getPassword(),
+                user.getFirstName(),
+                user.getLastName(),
                 authorities
         );
     }
@@ -1,6 +1,5 @@
 package com.techstore.security;
 
-import com.techstore.model.User;
 import com.techstore.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -9,6 +8,8 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 public class UserDetailsServiceImpl implements UserDetailsService {
@@ -18,10 +19,11 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     @Override
     @Transactional
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> 
-                    new UsernameNotFoundException("User not found: " + email));
+        List<UserRepository.SignInView> rows = userRepository.findSignInViewsByEmail(email);
+        if (rows.isEmpty()) {
+            throw new UsernameNotFoundException("User not found: " + email);
+        }
         
-        return UserDetailsImpl.build(user);
+        return UserDetailsImpl.build(rows);
     }
 }
\ No newline at end of file
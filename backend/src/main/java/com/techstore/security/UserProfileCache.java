@@ -0,0 +1,98 @@
+package com.techstore.security;
+
+import com.techstore.event.UserChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.ehcache.Cache;
+import org.ehcache.CacheManager;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.CacheManagerBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Signed-in users by email, with their roles and profile, so that logins and
+ * JWT-authenticated requests skip the database once a user has been loaded.
+ * Password checks against a cached user that fail are retried against the
+ * database by Spring Security, so a stale password never locks anyone out.
+ * <p>
+ * The cache is bounded to {@code security.user-cache.max-entries} users. A
+ * user is evicted once a {@link UserChangedEvent} about them commits,
+ * whichever node made the change; the application publishes one from every
+ * path that writes a user. Changes made outside it, straight in the database,
+ * publish nothing, so every entry also expires
+ * {@code security.user-cache.time-to-live} after it was loaded, however
+ * often it is used.
+ */
+@Component
+public class UserProfileCache implements UserCache {
+    
+    private static final String ALIAS = "userProfiles";
+    
+    private final CacheManager cacheManager;
+    private final Cache<String, UserDetailsImpl> cache;
+    private final Counter hits;
+    private final Counter misses;
+    
+    public UserProfileCache(@Value("${security.user-cache.max-entries:10000}") long maxEntries,
+                            @Value("${security.user-cache.time-to-live:10m}") Duration timeToLive,
+                            MeterRegistry meterRegistry) {
+        this.cacheManager = CacheManagerBuilder.newCacheManagerBuilder()
+                .withCache(ALIAS, CacheConfigurationBuilder
+                        .newCacheConfigurationBuilder(String.class, UserDetailsImpl.class,
+                                ResourcePoolsBuilder.heap(maxEntries))
+                        .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(timeToLive)))
+                .build(true);
+        this.cache = cacheManager.getCache(ALIAS, String.class, UserDetailsImpl.class);
+        this.hits = meterRegistry.counter("techstore.security.user.cache", "result", "hit");
+        this.misses = meterRegistry.counter("techstore.security.user.cache", "result", "miss");
+    }
+    
+    @Override
+    public UserDetailsImpl getUserFromCache(String email) {
+        UserDetailsImpl user = cache.get(email);
+        (user != null ? hits : misses).increment();
+        return user;
+    }
+    
+    @Override
+    public void putUserInCache(UserDetails user) {
+        cache.put(user.getUsername(), (UserDetailsImpl) user);
+    }
+    
+    @Override
+    public void removeUserFromCache(String email) {
+        cache.remove(email);
+    }
+    
+    public void clear() {
+        cache.clear();
+    }
+    
+    // Entries are keyed by email, so a change to one user id means a scan; changes are rare
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.getUserId() == null) {
+            cache.clear();
+            return;
+        }
+        for (Cache.Entry<String, UserDetailsImpl> entry : cache) {
+            if (event.getUserId().equals(entry.getValue().getId())) {
+                cache.remove(entry.getKey());
+            }
+        }
+    }
+    
+    @PreDestroy
+    public void close() {
+        cacheManager.close();
+    }
+}
@@ -3,6 +3,7 @@ package com.techstore.service;
 import com.techstore.dto.auth.AuthResponse;
 import com.techstore.dto.auth.LoginRequest;
 import com.techstore.dto.auth.RegisterRequest;
+import com.techstore.event.UserChangedEvent;
 import com.techstore.model.Cart;
 import com.techstore.model.Role;
 import com.techstore.model.User;
@@ -12,6 +13,7 @@ import com.techstore.repository.UserRepository;
 import com.techstore.security.JwtTokenProvider;
 import com.techstore.security.UserDetailsImpl;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -34,6 +36,7 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider tokenProvider;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Transactional
     public AuthResponse register(RegisterRequest request) {
@@ -56,6 +59,7 @@ public class AuthService {
         user.setRoles(roles);
         
         User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(savedUser.getId()));
         
         // Create cart for user
         Cart cart = new Cart();
@@ -95,12 +99,10 @@ public class AuthService {
                 )
         );
         
+        // The principal already carries the profile, so the user is not read again
         String token = tokenProvider.generateToken(authentication);
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
         
-        User user = userRepository.findByEmail(userDetails.getEmail())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
         Set<String> roles = userDetails.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.toSet());
@@ -109,8 +111,8 @@ public class AuthService {
                 token,
                 userDetails.getId(),
                 userDetails.getEmail(),
-                user.getFirstName(),
-                user.getLastName(),
+                userDetails.getFirstName(),
+                userDetails.getLastName(),
                 roles
         );
     }
@@ -0,0 +1,54 @@
+package com.techstore.service;
+
+import com.techstore.dto.cache.CacheRegionStats;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class CacheStatisticsService {
+    
+    private final EntityManagerFactory entityManagerFactory;
+    
+    public List<CacheRegionStats> getRegionStats() {
+        Statistics statistics = getStatistics();
+        
+        return Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(region -> toRegionStats(region, statistics.getCacheRegionStatistics(region)))
+                .toList();
+    }
+    
+    public double getHitRatio(String region) {
+        return toRegionStats(region, getStatistics().getCacheRegionStatistics(region)).getHitRatio();
+    }
+    
+    public void clear() {
+        getStatistics().clear();
+    }
+    
+    private Statistics getStatistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+    
+    private CacheRegionStats toRegionStats(String region, CacheRegionStatistics stats) {
+        long hits = stats.getHitCount();
+        long lookups = hits + stats.getMissCount();
+        
+        return new CacheRegionStats(
+                region,
+                hits,
+                stats.getMissCount(),
+                stats.getPutCount(),
+                stats.getElementCountInMemory(),
+                lookups == 0 ? 0.0 : (double) hits / lookups
+        );
+    }
+}
@@ -1,15 +1,19 @@
 package com.techstore.service;
 
+import com.techstore.concurrency.UserMutations;
 import com.techstore.model.Cart;
 import com.techstore.model.CartItem;
 import com.techstore.model.Product;
+import com.techstore.pricing.Money;
+import com.techstore.pricing.PricingEngine;
 import com.techstore.repository.CartRepository;
 import com.techstore.repository.ProductRepository;
+import com.techstore.stock.StockHolds;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -18,86 +22,110 @@ public class CartService {
     
     private final CartRepository cartRepository;
     private final ProductRepository productRepository;
+    private final UserMutations userMutations;
+    private final StockHolds stockHolds;
+    private final PricingEngine pricingEngine;
     
     public Cart getCartByUserId(Long userId) {
         return cartRepository.findByUserId(userId)
                 .orElseThrow(() -> new RuntimeException("Cart not found"));
     }
     
-    @Transactional
     public Cart addItemToCart(Long userId, Long productId, Integer quantity) {
-        Cart cart = getCartByUserId(userId);
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
-        
-        if (product.getStockQuantity() < quantity) {
-            throw new RuntimeException("Insufficient stock");
-        }
-        
-        // Check if item already exists in cart
-        Optional<CartItem> existingItem = cart.getItems().stream()
-                .filter(item -> item.getProduct().getId().equals(productId))
-                .findFirst();
-        
-        if (existingItem.isPresent()) {
-            CartItem item = existingItem.get();
-            item.setQuantity(item.getQuantity() + quantity);
-        } else {
-            CartItem newItem = new CartItem();
-            newItem.setCart(cart);
-            newItem.setProduct(product);
-            newItem.setQuantity(quantity);
-            newItem.setPrice(product.getDiscountPrice() != null ? 
-                    product.getDiscountPrice() : product.getPrice());
-            cart.getItems().add(newItem);
-        }
-        
-        return cartRepository.save(cart);
+        return userMutations.run(userId, () -> {
+            Cart cart = getCartByUserId(userId);
+            Product product = productRepository.findById(productId)
+                    .orElseThrow(() -> new RuntimeException("Product not found"));
+            
+            if (product.getStockQuantity() < quantity) {
+                throw new RuntimeException("Insufficient stock");
+            }
+            
+            // Check if item already exists in cart
+            Optional<CartItem> existingItem = cart.getItems().stream()
+                    .filter(item -> item.getProduct().getId().equals(productId))
+                    .findFirst();
+            
+            if (existingItem.isPresent()) {
+                CartItem item = existingItem.get();
+                holdStock(userId, product, item.getQuantity() + quantity);
+                item.setQuantity(item.getQuantity() + quantity);
+            } else {
+                holdStock(userId, product, quantity);
+                CartItem newItem = new CartItem();
+                newItem.setCart(cart);
+                newItem.setProduct(product);
+                newItem.setQuantity(quantity);
+                newItem.setPrice(product.getDiscountPrice() != null ? 
+                        product.getDiscountPrice() : product.getPrice());
+                cart.getItems().add(newItem);
+            }
+            
+            return cartRepository.save(cart);
+        });
     }
     
-    @Transactional
     public Cart updateCartItemQuantity(Long userId, Long productId, Integer quantity) {
-        Cart cart = getCartByUserId(userId);
-        
-        CartItem item = cart.getItems().stream()
-                .filter(i -> i.getProduct().getId().equals(productId))
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("Item not in cart"));
-        
-        Product product = item.getProduct();
-        if (product.getStockQuantity() < quantity) {
-            throw new RuntimeException("Insufficient stock");
-        }
-        
-        if (quantity <= 0) {
-            cart.getItems().remove(item);
-        } else {
-            item.setQuantity(quantity);
-        }
-        
-        return cartRepository.save(cart);
+        return userMutations.run(userId, () -> {
+            Cart cart = getCartByUserId(userId);
+            
+            CartItem item = cart.getItems().stream()
+                    .filter(i -> i.getProduct().getId().equals(productId))
+                    .findFirst()
+                    .orElseThrow(() -> new RuntimeException("Item not in cart"));
+            
+            Product product = item.getProduct();
+            if (product.getStockQuantity() < quantity) {
+                throw new RuntimeException("Insufficient stock");
+            }
+            
+            if (quantity <= 0) {
+                cart.getItems().remove(item);
+                stockHolds.release(userId, List.of(productId));
+            } else {
+                holdStock(userId, product, quantity);
+                item.setQuantity(quantity);
+            }
+            
+            return cartRepository.save(cart);
+        });
     }
     
-    @Transactional
     public Cart removeItemFromCart(Long userId, Long productId) {
-        Cart cart = getCartByUserId(userId);
-        
-        cart.getItems().removeIf(item -> 
-                item.getProduct().getId().equals(productId));
-        
-        return cartRepository.save(cart);
+        return userMutations.run(userId, () -> {
+            Cart cart = getCartByUserId(userId);
+            
+            cart.getItems().removeIf(item -> 
+                    item.getProduct().getId().equals(productId));
+            stockHolds.release(userId, List.of(productId));
+            
+            return cartRepository.save(cart);
+        });
     }
     
-    @Transactional
     public void clearCart(Long userId) {
-        Cart cart = getCartByUserId(userId);
-        cart.getItems().clear();
-        cartRepository.save(cart);
+        userMutations.run(userId, () -> {
+            Cart cart = getCartByUserId(userId);
+            stockHolds.release(userId, cart.getItems().stream()
+                    .map(item -> item.getProduct().getId())
+                    .toList());
+            cart.getItems().clear();
+            cartRepository.save(cart);
+        });
+    }
+    
+    /**
+     * With stock holds enabled, holds the whole cart line against the stock
+     * other shoppers have not already held. Fails the same way as the plain
+     * stock check when it cannot.
+     */
+    public void holdStock(Long userId, Product product, int quantity) {
+        if (stockHolds.isEnabled() && !stockHolds.hold(userId, product.getId(), quantity, product.getStockQuantity())) {
+            throw new RuntimeException("Insufficient stock");
+        }
     }
     
     public BigDecimal calculateCartTotal(Cart cart) {
-        return cart.getItems().stream()
-                .map(item -> item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return Money.toBigDecimal(pricingEngine.subtotal(cart.getItems()));
     }
 }
\ No newline at end of file
@@ -0,0 +1,258 @@
+package com.techstore.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techstore.dto.product.ProductResponse;
+import com.techstore.event.CatalogChangedEvent;
+import com.techstore.model.Category;
+import com.techstore.repository.CategoryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the first pages of the hottest product listings as pre-serialized
+ * JSON so they can be served without touching the database. Snapshots are
+ * rebuilt in the background, either on a fixed interval or shortly after
+ * a catalog change, and swapped in as one immutable map. A stock or rating
+ * change re-renders only the pages that show the product, so the other
+ * pages keep their ETags through checkout traffic.
+ */
+@Service
+@Slf4j
+public class CatalogSnapshotService {
+    
+    public enum Listing {
+        ALL,
+        CATEGORY,
+        DEALS,
+        BESTSELLERS
+    }
+    
+    @Value("${catalog.snapshot.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${catalog.snapshot.pages:3}")
+    private int pages;
+    
+    @Value("${catalog.snapshot.page-size:12}")
+    private int pageSize;
+    
+    @Value("${catalog.snapshot.refresh-interval:300000}")
+    private long refreshInterval;
+    
+    private final ProductService productService;
+    private final CategoryRepository categoryRepository;
+    private final ObjectMapper objectMapper;
+    
+    private final Counter snapshotHits;
+    private final Counter snapshotMisses;
+    
+    private final AtomicBoolean stale = new AtomicBoolean(true);
+    private final Set<Long> changedProducts = ConcurrentHashMap.newKeySet();
+    private volatile Map<String, Snapshot> snapshots = Map.of();
+    private volatile long lastRefresh;
+    
+    public CatalogSnapshotService(ProductService productService,
+                                  CategoryRepository categoryRepository,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry) {
+        this.productService = productService;
+        this.categoryRepository = categoryRepository;
+        this.objectMapper = objectMapper;
+        this.snapshotHits = meterRegistry.counter("techstore.catalog.snapshot.requests", "result", "hit");
+        this.snapshotMisses = meterRegistry.counter("techstore.catalog.snapshot.requests", "result", "miss");
+    }
+    
+    public Optional<Snapshot> find(Listing listing, Long categoryId, Pageable pageable) {
+        Snapshot snapshot = null;
+        if (pageable.getSort().isUnsorted() && pageable.getPageSize() == pageSize) {
+            snapshot = snapshots.get(key(listing, categoryId, pageable.getPageNumber()));
+        }
+        
+        (snapshot != null ? snapshotHits : snapshotMisses).increment();
+        return Optional.ofNullable(snapshot);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.isCountersOnly()) {
+            changedProducts.add(event.getProductId());
+        } else {
+            stale.set(true);
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${catalog.snapshot.check-interval:1000}")
+    public void refreshIfStale() {
+        if (!enabled) {
+            return;
+        }
+        
+        boolean expired = System.currentTimeMillis() - lastRefresh >= refreshInterval;
+        if (stale.getAndSet(false) || expired) {
+            try {
+                refresh();
+            } catch (RuntimeException ex) {
+                // Keep serving the previous snapshots and try again on the next tick
+                stale.set(true);
+                log.warn("Catalog snapshot refresh failed", ex);
+            }
+        } else if (!changedProducts.isEmpty()) {
+            Set<Long> changed = new HashSet<>(changedProducts);
+            changedProducts.removeAll(changed);
+            try {
+                refreshPages(changed);
+            } catch (RuntimeException ex) {
+                changedProducts.addAll(changed);
+                log.warn("Catalog snapshot page refresh failed", ex);
+            }
+        }
+    }
+    
+    public void refresh() {
+        long start = System.currentTimeMillis();
+        changedProducts.clear();
+        Map<String, Snapshot> next = new HashMap<>();
+        
+        materialize(next, Listing.ALL, null);
+        materialize(next, Listing.DEALS, null);
+        materialize(next, Listing.BESTSELLERS, null);
+        
+        for (Category category : categoryRepository.findByActiveTrue()) {
+            materialize(next, Listing.CATEGORY, category.getId());
+        }
+        
+        snapshots = Map.copyOf(next);
+        lastRefresh = System.currentTimeMillis();
+        log.debug("Refreshed {} catalog snapshots in {} ms", next.size(), lastRefresh - start);
+    }
+    
+    // Stock and rating changes leave page membership alone, so each page is rendered again in place
+    private void refreshPages(Set<Long> productIds) {
+        Map<String, Snapshot> next = new HashMap<>(snapshots);
+        int refreshed = 0;
+        for (Snapshot snapshot : snapshots.values()) {
+            if (snapshot.containsAny(productIds)) {
+                Page<ProductResponse> result = loader(snapshot.listing, snapshot.categoryId)
+                        .apply(PageRequest.of(snapshot.page, pageSize));
+                next.put(key(snapshot.listing, snapshot.categoryId, snapshot.page),
+                        Snapshot.of(snapshot.listing, snapshot.categoryId, snapshot.page, result, serialize(result)));
+                refreshed++;
+            }
+        }
+        
+        if (refreshed > 0) {
+            snapshots = Map.copyOf(next);
+            log.debug("Refreshed {} catalog snapshot pages for {} changed products", refreshed, productIds.size());
+        }
+    }
+    
+    private void materialize(Map<String, Snapshot> target, Listing listing, Long categoryId) {
+        Function<Pageable, Page<ProductResponse>> loader = loader(listing, categoryId);
+        for (int page = 0; page < pages; page++) {
+            Page<ProductResponse> result = loader.apply(PageRequest.of(page, pageSize));
+            target.put(key(listing, categoryId, page),
+                    Snapshot.of(listing, categoryId, page, result, serialize(result)));
+            
+            if (!result.hasNext()) {
+                break;
+            }
+        }
+    }
+    
+    private Function<Pageable, Page<ProductResponse>> loader(Listing listing, Long categoryId) {
+        return switch (listing) {
+            case ALL -> productService::getAllProducts;
+            case DEALS -> productService::getDiscountedProducts;
+            case BESTSELLERS -> productService::getBestsellers;
+            case CATEGORY -> pageable -> productService.getProductsByCategory(categoryId, pageable);
+        };
+    }
+    
+    private byte[] serialize(Page<ProductResponse> page) {
+        try {
+            return objectMapper.writeValueAsBytes(page);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize catalog snapshot", ex);
+        }
+    }
+    
+    private static String key(Listing listing, Long categoryId, int page) {
+        return listing + ":" + (categoryId == null ? "" : categoryId) + ":" + page;
+    }
+    
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+    
+    // Compressed once per refresh so hot pages cost no CPU per request
+    public static class Snapshot {
+        private final Listing listing;
+        private final Long categoryId;
+        private final int page;
+        private final long[] productIds;
+        private final byte[] body;
+        private final byte[] gzipBody;
+        private final String etag;
+        
+        private Snapshot(Listing listing, Long categoryId, int page, long[] productIds,
+                         byte[] body, byte[] gzipBody, String etag) {
+            this.listing = listing;
+            this.categoryId = categoryId;
+            this.page = page;
+            this.productIds = productIds;
+            this.body = body;
+            this.gzipBody = gzipBody;
+            this.etag = etag;
+        }
+        
+        static Snapshot of(Listing listing, Long categoryId, int page,
+                           Page<ProductResponse> content, byte[] body) {
+            long[] productIds = content.getContent().stream().mapToLong(ProductResponse::getId).toArray();
+            return new Snapshot(listing, categoryId, page, productIds,
+                    body, gzip(body), DigestUtils.md5DigestAsHex(body));
+        }
+        
+        boolean containsAny(Set<Long> ids) {
+            for (long id : productIds) {
+                if (ids.contains(id)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        public byte[] getBody() { return body; }
+        public byte[] getGzipBody() { return gzipBody; }
+        public String getEtag() { return "\"" + etag + "\""; }
+        public String getGzipEtag() { return "\"" + etag + "-gzip\""; }
+    }
+}
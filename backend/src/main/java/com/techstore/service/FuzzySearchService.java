@@ -0,0 +1,139 @@
+package com.techstore.service;
+
+import com.techstore.dto.product.ProductResponse;
+import com.techstore.event.CatalogChangedEvent;
+import com.techstore.event.DataSeededEvent;
+import com.techstore.model.Product;
+import com.techstore.repository.ProductRepository;
+import com.techstore.search.FuzzyProductIndex;
+import com.techstore.search.IndexRefresher;
+import com.techstore.search.SearchableProduct;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Typo-tolerant product search served from an in-memory
+ * {@link FuzzyProductIndex}: the index ranks the matches and only the
+ * requested page is loaded from the database. Results are ordered by
+ * relevance, so the page's sort is ignored, and at most
+ * {@code max-results} matches are reachable through paging.
+ * <p>
+ * The index is rebuilt in the background after catalog changes, at most
+ * once per {@code min-rebuild-interval}, and swapped in as a whole.
+ */
+@Slf4j
+@Service
+public class FuzzySearchService {
+    
+    private final ProductRepository productRepository;
+    private final IndexRefresher refresher = new IndexRefresher("Fuzzy search index", this::rebuild);
+    private volatile FuzzyProductIndex index = FuzzyProductIndex.EMPTY;
+    
+    @Value("${search.fuzzy.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${search.fuzzy.max-results:1000}")
+    private int maxResults;
+    
+    @Value("${search.fuzzy.min-rebuild-interval:30000}")
+    private long minRebuildInterval;
+    
+    public FuzzySearchService(ProductRepository productRepository, MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        Gauge.builder("techstore.search.fuzzy.terms", this, service -> service.index.termCount())
+                .description("Distinct words in the fuzzy search index")
+                .register(meterRegistry);
+        Gauge.builder("techstore.search.fuzzy.memory", this, service -> service.index.memoryBytes())
+                .description("Approximate heap used by the fuzzy search index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    @Transactional(readOnly = true)
+    public Page<ProductResponse> search(String keyword, Pageable pageable) {
+        int end = (int) Math.min(pageable.getOffset() + pageable.getPageSize(), maxResults);
+        FuzzyProductIndex.Result result = index.search(keyword, end);
+        long total = Math.min(result.total(), maxResults);
+        
+        List<Long> ids = Arrays.stream(result.productIds())
+                .skip(pageable.getOffset())
+                .boxed()
+                .toList();
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, total);
+        }
+        
+        Map<Long, Product> products = productRepository.findByIdIn(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        // The index trails the catalog by up to one rebuild, so products removed since are skipped
+        List<ProductResponse> content = ids.stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .filter(Product::isActive)
+                .map(ProductResponse::from)
+                .toList();
+        return new PageImpl<>(content, pageable, total);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        refresher.onCatalogChanged(event);
+    }
+    
+    // After seeding, so a freshly seeded catalog is indexed, and before the warmup replay
+    @Order(Ordered.LOWEST_PRECEDENCE - 1)
+    @EventListener(DataSeededEvent.class)
+    public void onDataSeeded() {
+        if (enabled) {
+            refresher.rebuildNow();
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${search.fuzzy.check-interval:1000}")
+    public void rebuildIfStale() {
+        if (enabled) {
+            refresher.rebuildIfStale(minRebuildInterval);
+        }
+    }
+    
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        Map<Long, Long> unitsSold = productRepository.findUnitsSold().stream()
+                .collect(Collectors.toMap(ProductRepository.ProductSales::getProductId,
+                        ProductRepository.ProductSales::getUnits));
+        
+        FuzzyProductIndex.Builder builder = FuzzyProductIndex.builder();
+        for (SearchableProduct product : productRepository.findSearchableProducts()) {
+            builder.add(product.id(), product.name(), product.brand(),
+                    unitsSold.getOrDefault(product.id(), 0L));
+        }
+        
+        FuzzyProductIndex rebuilt = builder.build();
+        index = rebuilt;
+        log.info("Rebuilt fuzzy search index with {} products, {} terms, ~{} KB in {} ms",
+                rebuilt.size(), rebuilt.termCount(), rebuilt.memoryBytes() / 1024, System.currentTimeMillis() - start);
+    }
+}
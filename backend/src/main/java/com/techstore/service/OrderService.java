@@ -1,15 +1,21 @@
 package com.techstore.service;
 
+import com.techstore.concurrency.UserMutations;
+import com.techstore.dto.order.OrderDetailResponse;
+import com.techstore.dto.order.OrderSummaryResponse;
+import com.techstore.event.OrderPlacedEvent;
 import com.techstore.model.*;
+import com.techstore.pricing.Money;
+import com.techstore.pricing.PricingEngine;
 import com.techstore.repository.OrderRepository;
 import com.techstore.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -23,63 +29,76 @@ public class OrderService {
     private final UserRepository userRepository;
     private final CartService cartService;
     private final ProductService productService;
+    private final UserMutations userMutations;
+    private final SalesReportService salesReportService;
+    private final PricingEngine pricingEngine;
+    private final ApplicationEventPublisher eventPublisher;
     
-    @Transactional
+    // Serialized per user, so a double-submitted checkout finds the cart already emptied
     public Order createOrder(Long userId, ShippingAddress shippingAddress) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        Cart cart = cartService.getCartByUserId(userId);
-        
-        if (cart.getItems().isEmpty()) {
-            throw new RuntimeException("Cart is empty");
-        }
-        
-        Order order = new Order();
-        order.setUser(user);
-        order.setOrderNumber(generateOrderNumber());
-        order.setShippingAddress(shippingAddress);
-        order.setStatus(Order.OrderStatus.PENDING);
-        order.setPaymentStatus(Order.PaymentStatus.PENDING);
-        
-        // Create order items from cart
-        List<OrderItem> orderItems = new ArrayList<>();
-        BigDecimal subtotal = BigDecimal.ZERO;
-        
-        for (CartItem cartItem : cart.getItems()) {
-            OrderItem orderItem = new OrderItem();
-            orderItem.setOrder(order);
-            orderItem.setProduct(cartItem.getProduct());
-            orderItem.setQuantity(cartItem.getQuantity());
-            orderItem.setPrice(cartItem.getPrice());
-            orderItem.setProductName(cartItem.getProduct().getName());
-            orderItem.setProductSku(cartItem.getProduct().getSku());
+        return userMutations.run(userId, () -> {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
             
-            orderItems.add(orderItem);
+            Cart cart = cartService.getCartByUserId(userId);
             
-            BigDecimal itemTotal = cartItem.getPrice()
-                    .multiply(BigDecimal.valueOf(cartItem.getQuantity()));
-            subtotal = subtotal.add(itemTotal);
+            if (cart.getItems().isEmpty()) {
+                throw new RuntimeException("Cart is empty");
+            }
             
-            // Update product stock
-            productService.updateProductStock(
-                    cartItem.getProduct().getId(), 
-                    cartItem.getQuantity()
-            );
-        }
-        
-        order.setItems(orderItems);
-        order.setSubtotal(subtotal);
-        order.setTax(subtotal.multiply(BigDecimal.valueOf(0.1))); // 10% tax
-        order.setShippingCost(BigDecimal.valueOf(10)); // Flat $10 shipping
-        order.setTotal(order.getSubtotal().add(order.getTax()).add(order.getShippingCost()));
-        
-        Order savedOrder = orderRepository.save(order);
-        
-        // Clear the cart
-        cartService.clearCart(userId);
-        
-        return savedOrder;
+            // Re-assert every hold before any order rows are built, so a line whose
+            // hold expired and whose stock has since gone fails here rather than late
+            for (CartItem cartItem : cart.getItems()) {
+                cartService.holdStock(userId, cartItem.getProduct(), cartItem.getQuantity());
+            }
+            
+            Order order = new Order();
+            order.setUser(user);
+            order.setOrderNumber(generateOrderNumber());
+            order.setShippingAddress(shippingAddress);
+            order.setStatus(Order.OrderStatus.PENDING);
+            order.setPaymentStatus(Order.PaymentStatus.PENDING);
+            
+            // Create order items from cart
+            List<OrderItem> orderItems = new ArrayList<>();
+            
+            for (CartItem cartItem : cart.getItems()) {
+                OrderItem orderItem = new OrderItem();
+                orderItem.setOrder(order);
+                orderItem.setProduct(cartItem.getProduct());
+                orderItem.setQuantity(cartItem.getQuantity());
+                orderItem.setPrice(cartItem.getPrice());
+                orderItem.setProductName(cartItem.getProduct().getName());
+                orderItem.setProductSku(cartItem.getProduct().getSku());
+                
+                orderItems.add(orderItem);
+                
+                // Update product stock
+                productService.updateProductStock(
+                        cartItem.getProduct().getId(), 
+                        cartItem.getQuantity()
+                );
+            }
+            
+            PricingEngine.Totals totals = pricingEngine.totals(cart.getItems());
+            order.setItems(orderItems);
+            order.setSubtotal(Money.toBigDecimal(totals.subtotal()));
+            order.setTax(Money.toBigDecimal(totals.tax()));
+            order.setShippingCost(Money.toBigDecimal(totals.shipping()));
+            order.setTotal(Money.toBigDecimal(totals.total()));
+            
+            Order savedOrder = orderRepository.save(order);
+            salesReportService.recordPlaced(savedOrder.getId());
+            eventPublisher.publishEvent(new OrderPlacedEvent(savedOrder.getId(), orderItems.stream()
+                    .map(item -> item.getProduct().getId())
+                    .toList()));
+            
+            // Clear the cart
+            cartService.clearCart(userId);
+            
+            return savedOrder;
+            
+        });
     }
     
     public Order getOrderById(Long orderId) {
@@ -92,34 +111,98 @@ public class OrderService {
                 .orElseThrow(() -> new RuntimeException("Order not found"));
     }
     
+    @Transactional(readOnly = true)
     public Page<Order> getUserOrders(Long userId, Pageable pageable) {
         return orderRepository.findByUserId(userId, pageable);
     }
     
+    @Transactional(readOnly = true)
+    public Page<OrderSummaryResponse> getUserOrderSummaries(Long userId, Pageable pageable) {
+        Page<Order> orders = orderRepository.findByUserId(userId, pageable);
+        
+        if (orders.hasContent()) {
+            // One fetch-join query initializes the items of every order on the page
+            orderRepository.findWithItemsByIdIn(orders.map(Order::getId).getContent());
+        }
+        
+        return orders.map(OrderSummaryResponse::from);
+    }
+    
+    @Transactional(readOnly = true)
+    public OrderDetailResponse getOrderDetails(Long orderId) {
+        return orderRepository.findWithItemsById(orderId)
+                .map(OrderDetailResponse::from)
+                .orElseThrow(() -> new RuntimeException("Order not found"));
+    }
+    
+    @Transactional(readOnly = true)
+    public OrderDetailResponse getOrderDetailsByNumber(String orderNumber) {
+        return orderRepository.findWithItemsByOrderNumber(orderNumber)
+                .map(OrderDetailResponse::from)
+                .orElseThrow(() -> new RuntimeException("Order not found"));
+    }
+    
+    @Transactional(readOnly = true)
     public Page<Order> getAllOrders(Pageable pageable) {
         return orderRepository.findAll(pageable);
     }
     
+    // The order row is locked, so a second concurrent cancel sees CANCELLED and moves no rollup
     @Transactional
     public Order updateOrderStatus(Long orderId, Order.OrderStatus status) {
-        Order order = getOrderById(orderId);
+        Order order = orderRepository.findForUpdateById(orderId)
+                .orElseThrow(() -> new RuntimeException("Order not found"));
+        Order.OrderStatus previous = order.getStatus();
         order.setStatus(status);
-        return orderRepository.save(order);
+        Order savedOrder = orderRepository.save(order);
+        salesReportService.recordStatusChange(orderId, previous, status);
+        return savedOrder;
     }
     
+    // Locked like updateOrderStatus, so a webhook delivered twice at once counts the payment once
     @Transactional
     public Order updatePaymentStatus(String paymentIntentId, 
                                       Order.PaymentStatus paymentStatus) {
-        Order order = orderRepository.findByPaymentIntentId(paymentIntentId)
+        Order order = orderRepository.findForUpdateByPaymentIntentId(paymentIntentId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
         
+        Order.OrderStatus previousStatus = order.getStatus();
+        Order.PaymentStatus previousPayment = order.getPaymentStatus();
         order.setPaymentStatus(paymentStatus);
         
         if (paymentStatus == Order.PaymentStatus.PAID) {
             order.setStatus(Order.OrderStatus.PROCESSING);
         }
         
-        return orderRepository.save(order);
+        Order savedOrder = orderRepository.save(order);
+        salesReportService.recordStatusChange(savedOrder.getId(), previousStatus, savedOrder.getStatus());
+        salesReportService.recordPaymentChange(savedOrder.getId(), previousPayment, paymentStatus);
+        return savedOrder;
+    }
+    
+    public OrderRepository.PaymentView getPaymentView(Long orderId) {
+        return orderRepository.findPaymentViewById(orderId)
+                .orElseThrow(() -> new RuntimeException("Order not found"));
+    }
+    
+    /**
+     * Persists the intent id and PENDING payment status in one conditional update.
+     * Returns the id that ended up on the order, which is the caller's own id
+     * unless another request assigned one first. Cancelled orders cannot be paid.
+     */
+    @Transactional
+    public String assignPaymentIntent(Long orderId, String paymentIntentId) {
+        int updated = orderRepository.assignPaymentIntent(orderId, paymentIntentId);
+        
+        if (updated == 1) {
+            return paymentIntentId;
+        }
+        
+        OrderRepository.PaymentView order = getPaymentView(orderId);
+        if (order.getStatus() == Order.OrderStatus.CANCELLED) {
+            throw new RuntimeException("Order is cancelled");
+        }
+        return order.getPaymentIntentId();
     }
     
     private String generateOrderNumber() {
@@ -1,11 +1,25 @@
 package com.techstore.service;
 
+import org.ehcache.Cache;
+import org.ehcache.CacheManager;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.CacheManagerBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import com.techstore.model.Order;
+import com.techstore.pricing.Money;
+import com.techstore.repository.OrderRepository;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class PaymentService {
@@ -13,10 +27,28 @@ public class PaymentService {
     @Value("${stripe.api-key:dummy_key}")
     private String stripeApiKey;
 
+    private static final String ALIAS = "openPaymentIntents";
+
     private final OrderService orderService;
 
-    public PaymentService(OrderService orderService) {
+    // Open intents by order id, bounded and expired so that abandoned checkouts do not pile up
+    private final CacheManager cacheManager;
+    private final Cache<Long, MockPaymentIntent> openIntents;
+
+    // Intents being opened right now, so that concurrent requests for one order wait for the same one
+    private final Map<Long, CompletableFuture<MockPaymentIntent>> opening = new ConcurrentHashMap<>();
+
+    public PaymentService(OrderService orderService,
+                          @Value("${payment.open-intents.max-entries:10000}") long maxEntries,
+                          @Value("${payment.open-intents.time-to-live:30m}") Duration timeToLive) {
         this.orderService = orderService;
+        this.cacheManager = CacheManagerBuilder.newCacheManagerBuilder()
+                .withCache(ALIAS, CacheConfigurationBuilder
+                        .newCacheConfigurationBuilder(Long.class, MockPaymentIntent.class,
+                                ResourcePoolsBuilder.heap(maxEntries))
+                        .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(timeToLive)))
+                .build(true);
+        this.openIntents = cacheManager.getCache(ALIAS, Long.class, MockPaymentIntent.class);
     }
 
     @PostConstruct
@@ -27,33 +59,80 @@ public class PaymentService {
 
     
     public MockPaymentIntent createPaymentIntent(Long orderId) {
+        // Repeat calls for the same order (double clicks, retries) get the same intent
+        MockPaymentIntent intent = openIntents.get(orderId);
+        if (intent != null) {
+            return intent;
+        }
 
-        Order order = orderService.getOrderById(orderId);
+        CompletableFuture<MockPaymentIntent> mine = new CompletableFuture<>();
+        CompletableFuture<MockPaymentIntent> other = opening.putIfAbsent(orderId, mine);
+        if (other != null) {
+            return await(other);
+        }
 
-        // calculate fake amount (not sent to Stripe)
-        long amount = order.getTotal()
-                .multiply(java.math.BigDecimal.valueOf(100))
-                .longValue();
+        // The database write happens here rather than under a map lock; whoever
+        // opened the intent before us cached it before leaving the opening map
+        try {
+            intent = openIntents.get(orderId);
+            if (intent == null) {
+                intent = openPaymentIntent(orderId);
+                openIntents.put(orderId, intent);
+            }
+            mine.complete(intent);
+            return intent;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            opening.remove(orderId, mine);
+        }
+    }
 
-        //
-        String fakePaymentIntentId = "pi_mock_" + UUID.randomUUID();
-        String fakeClientSecret = fakePaymentIntentId + "_secret_" + UUID.randomUUID();
+    private static MockPaymentIntent await(CompletableFuture<MockPaymentIntent> intent) {
+        try {
+            return intent.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
 
-        
-        order.setPaymentIntentId(fakePaymentIntentId);
-        orderService.updateOrderStatus(orderId, Order.OrderStatus.PENDING);
+    private MockPaymentIntent openPaymentIntent(Long orderId) {
 
-        
-        return new MockPaymentIntent(fakePaymentIntentId, fakeClientSecret, amount);
+        OrderRepository.PaymentView order = orderService.getPaymentView(orderId);
+        if (order.getStatus() == Order.OrderStatus.CANCELLED) {
+            throw new RuntimeException("Order is cancelled");
+        }
+
+        // calculate fake amount in cents (not sent to Stripe)
+        long amount = Money.toMinor(order.getTotal());
+
+        // A failed payment is retried with a new intent rather than the failed one
+        String paymentIntentId = order.getPaymentIntentId();
+        if (paymentIntentId == null || order.getPaymentStatus() == Order.PaymentStatus.FAILED) {
+            paymentIntentId = orderService.assignPaymentIntent(
+                    orderId, "pi_mock_" + UUID.randomUUID());
+        }
+
+        String fakeClientSecret = paymentIntentId + "_secret_" + UUID.randomUUID();
+
+        return new MockPaymentIntent(paymentIntentId, fakeClientSecret, amount);
     }
 
     public void handlePaymentSuccess(String paymentIntentId) {
-        orderService.updatePaymentStatus(paymentIntentId, Order.PaymentStatus.PAID);
+        Order order = orderService.updatePaymentStatus(paymentIntentId, Order.PaymentStatus.PAID);
+        openIntents.remove(order.getId());
     }
 
     
     public void handlePaymentFailure(String paymentIntentId) {
-        orderService.updatePaymentStatus(paymentIntentId, Order.PaymentStatus.FAILED);
+        Order order = orderService.updatePaymentStatus(paymentIntentId, Order.PaymentStatus.FAILED);
+        openIntents.remove(order.getId());
+    }
+
+    @PreDestroy
+    public void close() {
+        cacheManager.close();
     }
 
     
@@ -1,24 +1,34 @@
 package com.techstore.service;
 
+import com.techstore.dto.product.ProductResponse;
+import com.techstore.event.CatalogChangedEvent;
 import com.techstore.model.Product;
 import com.techstore.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ProductService {
     
     private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
     
-    public Page<Product> getAllProducts(Pageable pageable) {
-        return productRepository.findByActiveTrue(pageable);
+    @Transactional(readOnly = true)
+    public Page<ProductResponse> getAllProducts(Pageable pageable) {
+        return productRepository.findByActiveTrue(pageable).map(ProductResponse::from);
     }
     
     public Product getProductById(Long id) {
@@ -26,18 +36,52 @@ public class ProductService {
                 .orElseThrow(() -> new RuntimeException("Product not found"));
     }
     
-    public Page<Product> searchProducts(String keyword, Pageable pageable) {
-        return productRepository.searchProducts(keyword, pageable);
+    @Transactional(readOnly = true)
+    public ProductResponse getProductDetails(Long id) {
+        return ProductResponse.from(getProductById(id));
     }
     
-    public Page<Product> getProductsByCategory(Long categoryId, Pageable pageable) {
-        return productRepository.findByCategoryIdAndActiveTrue(categoryId, pageable);
+    @Transactional(readOnly = true)
+    public Page<ProductResponse> searchProducts(String keyword, Pageable pageable) {
+        return productRepository.searchProducts(keyword, pageable).map(ProductResponse::from);
     }
     
-    public Page<Product> getProductsByPriceRange(BigDecimal minPrice, 
-                                                  BigDecimal maxPrice, 
-                                                  Pageable pageable) {
-        return productRepository.findByPriceRange(minPrice, maxPrice, pageable);
+    @Transactional(readOnly = true)
+    public Page<ProductResponse> getProductsByCategory(Long categoryId, Pageable pageable) {
+        return productRepository.findByCategoryIdAndActiveTrue(categoryId, pageable)
+                .map(ProductResponse::from);
+    }
+    
+    @Transactional(readOnly = true)
+    public Page<ProductResponse> getProductsByPriceRange(BigDecimal minPrice, 
+                                                          BigDecimal maxPrice, 
+                                                          Pageable pageable) {
+        return productRepository.findByPriceRange(minPrice, maxPrice, pageable)
+                .map(ProductResponse::from);
+    }
+    
+    @Transactional(readOnly = true)
+    public Page<ProductResponse> getDiscountedProducts(Pageable pageable) {
+        return productRepository.findByActiveTrueAndDiscountPriceIsNotNull(pageable)
+                .map(ProductResponse::from);
+    }
+    
+    // Ranked by units sold across all order items
+    @Transactional(readOnly = true)
+    public Page<ProductResponse> getBestsellers(Pageable pageable) {
+        Page<Long> ids = productRepository.findBestsellerIds(pageable);
+        Map<Long, Product> products = productRepository.findByIdIn(ids.getContent()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        
+        return ids.map(id -> ProductResponse.from(products.get(id)));
+    }
+    
+    public Optional<LocalDateTime> getLastModified(Long id) {
+        return productRepository.findUpdatedAtById(id);
+    }
+    
+    public Optional<LocalDateTime> getCatalogVersion() {
+        return productRepository.findLatestUpdate();
     }
     
     public List<String> getAllBrands() {
@@ -47,7 +91,9 @@ public class ProductService {
     @Transactional
     public Product createProduct(Product product) {
         product.setActive(true);
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(new CatalogChangedEvent(saved.getId()));
+        return saved;
     }
     
     @Transactional
@@ -63,7 +109,9 @@ public class ProductService {
         product.setCategory(productDetails.getCategory());
         product.setImageUrls(productDetails.getImageUrls());
         
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(new CatalogChangedEvent(id));
+        return saved;
     }
     
     @Transactional
@@ -71,6 +119,7 @@ public class ProductService {
         Product product = getProductById(id);
         product.setActive(false);
         productRepository.save(product);
+        eventPublisher.publishEvent(new CatalogChangedEvent(id));
     }
     
     @Transactional
@@ -84,6 +133,7 @@ public class ProductService {
         
         product.setStockQuantity(newStock);
         productRepository.save(product);
+        eventPublisher.publishEvent(CatalogChangedEvent.stock(productId));
     }
     
     @Transactional
@@ -103,6 +153,7 @@ public class ProductService {
             product.setAverageRating(average);
             product.setReviewCount(ratings.size());
             productRepository.save(product);
+            eventPublisher.publishEvent(CatalogChangedEvent.rating(productId));
         }
     }
 }
\ No newline at end of file
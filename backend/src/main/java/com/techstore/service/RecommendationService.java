@@ -0,0 +1,214 @@
+package com.techstore.service;
+
+import com.techstore.dto.product.ProductResponse;
+import com.techstore.event.OrderPlacedEvent;
+import com.techstore.model.Product;
+import com.techstore.recommendation.CoOccurrenceBuilder;
+import com.techstore.recommendation.CoOccurrenceMatrix;
+import com.techstore.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * "Frequently bought together" from an in-memory co-occurrence matrix. The
+ * matrix is bootstrapped from order history by a fork-join pass and then kept
+ * current by counting each order as it commits; the top-K list of every
+ * product is precomputed, so serving one is a single map lookup.
+ * <p>
+ * Each instance only sees the orders it placed itself between rebuilds, so
+ * the matrix is rebuilt from the database periodically. Orders committed
+ * while a rebuild reads history are buffered and counted exactly once.
+ */
+@Slf4j
+@Service
+public class RecommendationService {
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ProductRepository productRepository;
+    private final Map<Long, long[]> topK = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+    
+    @Value("${recommendations.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${recommendations.top-k:10}")
+    private int k;
+    
+    @Value("${recommendations.min-count:1}")
+    private int minCount;
+    
+    private CoOccurrenceMatrix matrix = new CoOccurrenceMatrix();
+    private List<OrderPlacedEvent> buffered;
+    
+    public RecommendationService(DataSource dataSource,
+                                 PlatformTransactionManager transactionManager,
+                                 ProductRepository productRepository) {
+        // PgJDBC only streams with a fetch size inside a transaction; otherwise it buffers every row
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(10_000);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.productRepository = productRepository;
+    }
+    
+    @Transactional(readOnly = true)
+    public List<ProductResponse> getFrequentlyBoughtTogether(Long productId, int limit) {
+        long[] related = relatedProductIds(productId, limit);
+        if (related.length == 0) {
+            return List.of();
+        }
+        
+        List<Long> ids = Arrays.stream(related).boxed().toList();
+        Map<Long, Product> products = productRepository.findByIdIn(ids).stream()
+                .filter(Product::isActive)
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        return ids.stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .map(ProductResponse::from)
+                .toList();
+    }
+    
+    public long[] relatedProductIds(long productId, int limit) {
+        long[] related = topK.get(productId);
+        if (related == null) {
+            return new long[0];
+        }
+        return related.length <= limit ? related : Arrays.copyOf(related, limit);
+    }
+    
+    // Before the warmup replay, which runs last
+    @Order(Ordered.LOWEST_PRECEDENCE - 1)
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+    
+    @Scheduled(initialDelayString = "${recommendations.rebuild-interval:3600000}",
+            fixedDelayString = "${recommendations.rebuild-interval:3600000}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        
+        synchronized (lock) {
+            buffered = new ArrayList<>();
+        }
+        
+        try {
+            long start = System.currentTimeMillis();
+            OrderLines lines = loadOrderLines();
+            CoOccurrenceMatrix rebuilt = CoOccurrenceBuilder.build(
+                    lines.orderIds, lines.productIds, lines.size, ForkJoinPool.commonPool());
+            
+            Map<Long, long[]> index = new ConcurrentHashMap<>();
+            Arrays.stream(rebuilt.products()).parallel()
+                    .forEach(productId -> index.put(productId, rebuilt.topK(productId, k, minCount)));
+            
+            synchronized (lock) {
+                matrix = rebuilt;
+                topK.putAll(index);
+                topK.keySet().retainAll(index.keySet());
+                // Orders the history query already saw are counted; the rest committed after it started
+                for (OrderPlacedEvent event : buffered) {
+                    if (Arrays.binarySearch(lines.orderIds, 0, lines.size, event.getOrderId()) < 0) {
+                        count(event);
+                    }
+                }
+                buffered = null;
+            }
+            
+            log.info("Rebuilt co-occurrence matrix from {} order lines in {} ms, {} products with recommendations",
+                    lines.size, System.currentTimeMillis() - start, index.size());
+        } finally {
+            synchronized (lock) {
+                // A failed rebuild keeps the previous matrix, which has not seen the buffered orders yet
+                if (buffered != null) {
+                    buffered.forEach(this::count);
+                    buffered = null;
+                }
+            }
+        }
+    }
+    
+    @TransactionalEventListener
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (lock) {
+            if (buffered != null) {
+                buffered.add(event);
+            } else {
+                count(event);
+            }
+        }
+    }
+    
+    private void count(OrderPlacedEvent event) {
+        long[] productIds = CoOccurrenceBuilder.distinct(
+                event.getProductIds().stream().mapToLong(Long::longValue).toArray());
+        if (productIds.length < 2) {
+            return;
+        }
+        matrix.addOrder(productIds);
+        for (long productId : productIds) {
+            topK.put(productId, matrix.topK(productId, k, minCount));
+        }
+    }
+    
+    private OrderLines loadOrderLines() {
+        OrderLines lines = new OrderLines();
+        readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query("""
+                SELECT i.order_id, i.product_id
+                FROM order_items i
+                JOIN orders o ON o.id = i.order_id
+                WHERE i.product_id IS NOT NULL AND o.status <> 'CANCELLED'
+                ORDER BY i.order_id
+                """, rs -> {
+            lines.add(rs.getLong(1), rs.getLong(2));
+        }));
+        return lines;
+    }
+    
+    // Growable primitive arrays, sorted by order id as they are read
+    private static class OrderLines {
+        
+        private long[] orderIds = new long[1024];
+        private long[] productIds = new long[1024];
+        private int size;
+        
+        void add(long orderId, long productId) {
+            if (size == orderIds.length) {
+                orderIds = Arrays.copyOf(orderIds, size * 2);
+                productIds = Arrays.copyOf(productIds, size * 2);
+            }
+            orderIds[size] = orderId;
+            productIds[size] = productId;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.techstore.service;
+
+import com.techstore.dto.report.RollupRebuildResponse;
+import com.techstore.dto.report.SalesReportRow;
+import com.techstore.model.Order;
+import com.techstore.repository.SalesRollupRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admin sales reports served from the per day, category and brand rollups.
+ * The rollups move in the same transaction as the order change that causes
+ * them, so a report never disagrees with committed orders. A rebuild
+ * recomputes them from order history in day-range chunks on parallel
+ * connections, each chunk replacing its days atomically.
+ */
+@Slf4j
+@Service
+public class SalesReportService {
+    
+    private final SalesRollupRepository salesRollupRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    
+    @Value("${reporting.rebuild-chunk-days:31}")
+    private int chunkDays;
+    
+    @Value("${reporting.rebuild-parallelism:4}")
+    private int parallelism;
+    
+    public SalesReportService(SalesRollupRepository salesRollupRepository,
+                              PlatformTransactionManager transactionManager) {
+        this.salesRollupRepository = salesRollupRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    // Each record method must run inside the transaction that changes the order
+    public void recordPlaced(Long orderId) {
+        salesRollupRepository.addPlaced(orderId, 1);
+    }
+    
+    public void recordStatusChange(Long orderId, Order.OrderStatus previous, Order.OrderStatus current) {
+        boolean wasCancelled = previous == Order.OrderStatus.CANCELLED;
+        boolean cancelled = current == Order.OrderStatus.CANCELLED;
+        if (wasCancelled != cancelled) {
+            salesRollupRepository.addPlaced(orderId, cancelled ? -1 : 1);
+        }
+    }
+    
+    public void recordPaymentChange(Long orderId, Order.PaymentStatus previous, Order.PaymentStatus current) {
+        boolean wasPaid = previous == Order.PaymentStatus.PAID;
+        boolean paid = current == Order.PaymentStatus.PAID;
+        if (wasPaid != paid) {
+            salesRollupRepository.addPaid(orderId, paid ? 1 : -1);
+        }
+    }
+    
+    /** Totals for the days from {@code from} through {@code to}, both inclusive. */
+    @Transactional(readOnly = true)
+    public List<SalesReportRow> getSalesReport(LocalDate from, LocalDate to, String groupBy) {
+        LocalDate end = to.plusDays(1);
+        
+        return switch (groupBy) {
+            case "day" -> salesRollupRepository.sumByDay(from, end);
+            case "category" -> salesRollupRepository.sumByCategory(from, end);
+            case "brand" -> salesRollupRepository.sumByBrand(from, end);
+            default -> throw new RuntimeException("Unsupported grouping: " + groupBy);
+        };
+    }
+    
+    public RollupRebuildResponse rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new RuntimeException("A sales rollup rebuild is already running");
+        }
+        
+        try {
+            long start = System.currentTimeMillis();
+            LocalDate to = LocalDate.now().plusDays(1);
+            LocalDate from = salesRollupRepository.findFirstDay().orElse(to);
+            
+            List<LocalDate> chunkStarts = new ArrayList<>();
+            for (LocalDate day = from; day.isBefore(to); day = day.plusDays(chunkDays)) {
+                chunkStarts.add(day);
+            }
+            
+            // Every chunk holds its own connection, so the parallelism has to stay well below the pool size
+            ExecutorService executor = Executors.newFixedThreadPool(
+                    Math.max(1, Math.min(parallelism, chunkStarts.size())));
+            long rows = 0;
+            try {
+                List<Future<Integer>> results = new ArrayList<>();
+                for (LocalDate chunkStart : chunkStarts) {
+                    LocalDate chunkEnd = chunkStart.plusDays(chunkDays).isBefore(to) ? chunkStart.plusDays(chunkDays) : to;
+                    results.add(executor.submit(() -> transactionTemplate.execute(
+                            status -> rebuildDays(chunkStart, chunkEnd))));
+                }
+                for (Future<Integer> result : results) {
+                    rows += result.get();
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Sales rollup rebuild was interrupted");
+            } catch (ExecutionException ex) {
+                throw new RuntimeException("Sales rollup rebuild failed", ex.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+            
+            long duration = System.currentTimeMillis() - start;
+            log.info("Rebuilt {} sales rollup rows from {} to {} in {} chunks, {} ms",
+                    rows, from, to, chunkStarts.size(), duration);
+            return new RollupRebuildResponse(from, to.minusDays(1), chunkStarts.size(), rows, duration);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+    
+    private int rebuildDays(LocalDate from, LocalDate to) {
+        salesRollupRepository.preferIndexScans();
+        salesRollupRepository.lockDays(from, to);
+        salesRollupRepository.deleteDays(from, to);
+        return salesRollupRepository.rebuildDays(from, to);
+    }
+}
@@ -0,0 +1,129 @@
+package com.techstore.service;
+
+import com.techstore.dto.search.Suggestion;
+import com.techstore.event.CatalogChangedEvent;
+import com.techstore.event.DataSeededEvent;
+import com.techstore.model.Category;
+import com.techstore.repository.CategoryRepository;
+import com.techstore.repository.ProductRepository;
+import com.techstore.search.IndexRefresher;
+import com.techstore.search.SearchableProduct;
+import com.techstore.search.SuggestionIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Search-as-you-type over product names, brands and category names, served
+ * from an in-memory {@link SuggestionIndex} without touching the database.
+ * Products are weighted by units sold; brands and categories by the sum of
+ * their products. The index is rebuilt in the background after catalog
+ * changes, at most once per {@code min-rebuild-interval}, and swapped in
+ * as a whole.
+ */
+@Slf4j
+@Service
+public class SuggestionService {
+    
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final IndexRefresher refresher = new IndexRefresher("Suggestion index", this::rebuild);
+    private volatile SuggestionIndex index = SuggestionIndex.EMPTY;
+    
+    @Value("${search.suggest.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${search.suggest.max-entries:200000}")
+    private int maxEntries;
+    
+    @Value("${search.suggest.max-tokens:4}")
+    private int maxTokens;
+    
+    @Value("${search.suggest.max-key-length:24}")
+    private int maxKeyLength;
+    
+    @Value("${search.suggest.min-rebuild-interval:30000}")
+    private long minRebuildInterval;
+    
+    public SuggestionService(ProductRepository productRepository,
+                             CategoryRepository categoryRepository,
+                             MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        Gauge.builder("techstore.search.suggest.entries", this, service -> service.index.size())
+                .description("Suggestions in the autocomplete index")
+                .register(meterRegistry);
+        Gauge.builder("techstore.search.suggest.memory", this, service -> service.index.memoryBytes())
+                .description("Approximate heap used by the autocomplete index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+    
+    public List<Suggestion> suggest(String prefix, int limit) {
+        return index.suggest(prefix, limit);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        refresher.onCatalogChanged(event);
+    }
+    
+    // After seeding, so a freshly seeded catalog is indexed, and before the warmup replay
+    @Order(Ordered.LOWEST_PRECEDENCE - 1)
+    @EventListener(DataSeededEvent.class)
+    public void onDataSeeded() {
+        if (enabled) {
+            refresher.rebuildNow();
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${search.suggest.check-interval:1000}")
+    public void rebuildIfStale() {
+        if (enabled) {
+            refresher.rebuildIfStale(minRebuildInterval);
+        }
+    }
+    
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        Map<Long, Long> unitsSold = productRepository.findUnitsSold().stream()
+                .collect(Collectors.toMap(ProductRepository.ProductSales::getProductId,
+                        ProductRepository.ProductSales::getUnits));
+        
+        SuggestionIndex.Builder builder = SuggestionIndex.builder(maxTokens, maxKeyLength);
+        Map<String, Long> brandWeights = new HashMap<>();
+        Map<Long, Long> categoryWeights = new HashMap<>();
+        for (SearchableProduct product : productRepository.findSearchableProducts()) {
+            long weight = 1 + unitsSold.getOrDefault(product.id(), 0L);
+            builder.add(new Suggestion(product.name(), "product", product.id()), weight);
+            if (product.brand() != null && !product.brand().isBlank()) {
+                brandWeights.merge(product.brand(), weight, Long::sum);
+            }
+            if (product.categoryId() != null) {
+                categoryWeights.merge(product.categoryId(), weight, Long::sum);
+            }
+        }
+        brandWeights.forEach((brand, weight) -> builder.add(new Suggestion(brand, "brand", null), weight));
+        for (Category category : categoryRepository.findByActiveTrue()) {
+            builder.add(new Suggestion(category.getName(), "category", category.getId()),
+                    categoryWeights.getOrDefault(category.getId(), 0L));
+        }
+        
+        SuggestionIndex rebuilt = builder.build(maxEntries);
+        index = rebuilt;
+        log.info("Rebuilt suggestion index with {} entries, {} nodes, ~{} KB in {} ms",
+                rebuilt.size(), rebuilt.nodeCount(), rebuilt.memoryBytes() / 1024, System.currentTimeMillis() - start);
+    }
+}
@@ -0,0 +1,180 @@
+package com.techstore.stock;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory, time-boxed stock holds for cart lines. A hold mirrors the
+ * quantity of one product in one user's cart and is counted against the
+ * product's stock for every other shopper until it is released, converted
+ * by checkout, or expires after {@code stock.holds.ttl}.
+ * <p>
+ * The table is lock-free: holds live in a concurrent map keyed by user and
+ * product, and the held total per product only moves by compare-and-set, so
+ * a hold can never push the total past the stock it was checked against.
+ * Expiry is driven by a {@link TimingWheel}. The database stock stays
+ * authoritative, and each instance only knows about its own holds.
+ */
+@Component
+public class StockHolds {
+    
+    private final Map<Key, Hold> holds = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicInteger> heldByProduct = new ConcurrentHashMap<>();
+    private final TimingWheel<Hold> wheel;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final Counter expired;
+    
+    @Value("${stock.holds.enabled:false}")
+    private boolean enabled;
+    
+    @Autowired
+    public StockHolds(@Value("${stock.holds.ttl:15m}") Duration ttl,
+                      @Value("${stock.holds.tick:1000}") long tickMillis,
+                      MeterRegistry meterRegistry) {
+        this(ttl, tickMillis, meterRegistry, System::currentTimeMillis);
+    }
+    
+    StockHolds(Duration ttl, long tickMillis, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+        this.wheel = new TimingWheel<>(tickMillis, clock.getAsLong());
+        this.expired = meterRegistry.counter("techstore.stock.holds.expired");
+        meterRegistry.gaugeMapSize("techstore.stock.holds", Tags.empty(), holds);
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * Sets the hold of {@code userId} on {@code productId} to {@code quantity}
+     * and restarts its TTL. Returns false, leaving any existing hold as it
+     * was, when the stock not held by other users cannot cover the quantity.
+     */
+    public boolean hold(Long userId, Long productId, int quantity, int stock) {
+        Key key = new Key(userId, productId);
+        AtomicInteger held = heldByProduct.computeIfAbsent(productId, id -> new AtomicInteger());
+        
+        while (true) {
+            Hold current = holds.get(key);
+            int delta = quantity - (current != null ? current.quantity : 0);
+            int total = held.get();
+            if (delta > 0 && total + delta > stock) {
+                return false;
+            }
+            if (!held.compareAndSet(total, total + delta)) {
+                continue;
+            }
+            
+            Hold next = new Hold(key, quantity);
+            boolean swapped = current == null
+                    ? holds.putIfAbsent(key, next) == null
+                    : holds.replace(key, current, next);
+            if (!swapped) {
+                // Raced with another change to the same hold; undo and re-read
+                held.addAndGet(-delta);
+                continue;
+            }
+            
+            if (current != null) {
+                cancel(current);
+            }
+            next.timeout = wheel.schedule(next, clock.getAsLong() + ttlMillis);
+            return true;
+        }
+    }
+    
+    public int heldQuantity(Long productId) {
+        AtomicInteger held = heldByProduct.get(productId);
+        return held != null ? held.get() : 0;
+    }
+    
+    /**
+     * Drops the holds of {@code userId} on the given products. Inside a
+     * transaction this waits for the commit, so a checkout's holds turn into
+     * its stock decrement without a window where both or neither count.
+     */
+    public void release(Long userId, Collection<Long> productIds) {
+        if (!enabled || productIds.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    releaseNow(userId, productIds);
+                }
+            });
+        } else {
+            releaseNow(userId, productIds);
+        }
+    }
+    
+    public int size() {
+        return holds.size();
+    }
+    
+    @Scheduled(fixedDelayString = "${stock.holds.tick:1000}")
+    public void expireHolds() {
+        wheel.advance(clock.getAsLong(), hold -> {
+            if (remove(hold)) {
+                expired.increment();
+            }
+        });
+    }
+    
+    private void releaseNow(Long userId, Collection<Long> productIds) {
+        for (Long productId : productIds) {
+            Hold hold = holds.get(new Key(userId, productId));
+            if (hold != null && remove(hold)) {
+                cancel(hold);
+            }
+        }
+    }
+    
+    private boolean remove(Hold hold) {
+        if (!holds.remove(hold.key, hold)) {
+            return false;
+        }
+        heldByProduct.get(hold.key.productId()).addAndGet(-hold.quantity);
+        return true;
+    }
+    
+    // A timeout that was not attached yet still fires, but finds its hold already gone
+    private static void cancel(Hold hold) {
+        TimingWheel.Timeout<Hold> timeout = hold.timeout;
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+    
+    private record Key(Long userId, Long productId) {
+    }
+    
+    private static final class Hold {
+        
+        private final Key key;
+        private final int quantity;
+        private volatile TimingWheel.Timeout<Hold> timeout;
+        
+        private Hold(Key key, int quantity) {
+            this.key = key;
+            this.quantity = quantity;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.techstore.stock;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel: four levels of 64 slots, where each slot of a
+ * level spans a full turn of the level below. Scheduling and cancelling are
+ * O(1); a timeout is moved down at most three times before it fires.
+ * <p>
+ * {@link #schedule} and {@link Timeout#cancel} may be called from any thread:
+ * new timeouts go through a lock-free queue and cancellation only sets a flag.
+ * {@link #advance} must always be called from the same single thread, which
+ * owns the slots and drops cancelled timeouts as it reaches them.
+ */
+public class TimingWheel<T> {
+    
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int LEVELS = 4;
+    private static final long MAX_TICKS = (1L << (SLOT_BITS * LEVELS)) - 1;
+    
+    private final long tickMillis;
+    private final Queue<Timeout<T>>[][] slots;
+    private final Queue<Timeout<T>> pending = new ConcurrentLinkedQueue<>();
+    private long currentTick;
+    
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+        this.slots = new Queue[LEVELS][SLOTS];
+        for (Queue<Timeout<T>>[] level : slots) {
+            for (int i = 0; i < SLOTS; i++) {
+                level[i] = new ArrayDeque<>();
+            }
+        }
+    }
+    
+    public Timeout<T> schedule(T value, long deadlineMillis) {
+        // Rounded up, so a timeout never fires before its deadline
+        Timeout<T> timeout = new Timeout<>(value, (deadlineMillis + tickMillis - 1) / tickMillis);
+        pending.offer(timeout);
+        return timeout;
+    }
+    
+    /**
+     * Moves the wheel to {@code nowMillis}, handing every timeout whose
+     * deadline has passed and that was not cancelled to {@code expired}.
+     */
+    public void advance(long nowMillis, Consumer<T> expired) {
+        for (Timeout<T> timeout; (timeout = pending.poll()) != null; ) {
+            if (!timeout.cancelled) {
+                // Anything already due fires on the next tick
+                timeout.deadlineTick = Math.max(timeout.deadlineTick, currentTick + 1);
+                place(timeout);
+            }
+        }
+        
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            for (int level = 1; level < LEVELS && (currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0; level++) {
+                cascade(level);
+            }
+            
+            Queue<Timeout<T>> due = slots[0][(int) (currentTick & (SLOTS - 1))];
+            for (int n = due.size(); n > 0; n--) {
+                Timeout<T> timeout = due.poll();
+                if (timeout.cancelled) {
+                    continue;
+                }
+                if (timeout.deadlineTick <= currentTick) {
+                    expired.accept(timeout.value);
+                } else {
+                    place(timeout);
+                }
+            }
+        }
+    }
+    
+    // Redistributes the slot of a higher level that the wheel just entered
+    private void cascade(int level) {
+        Queue<Timeout<T>> slot = slots[level][(int) ((currentTick >>> (SLOT_BITS * level)) & (SLOTS - 1))];
+        for (int n = slot.size(); n > 0; n--) {
+            Timeout<T> timeout = slot.poll();
+            if (!timeout.cancelled) {
+                place(timeout);
+            }
+        }
+    }
+    
+    private void place(Timeout<T> timeout) {
+        // Deadlines past the top level wait in its farthest slot and are re-placed from there
+        long deadlineTick = Math.min(timeout.deadlineTick, currentTick + MAX_TICKS);
+        long ticks = deadlineTick - currentTick;
+        
+        int level = 0;
+        while (level < LEVELS - 1 && ticks >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        slots[level][(int) ((deadlineTick >>> (SLOT_BITS * level)) & (SLOTS - 1))].add(timeout);
+    }
+    
+    public static final class Timeout<T> {
+        
+        private final T value;
+        private long deadlineTick;
+        private volatile boolean cancelled;
+        
+        private Timeout(T value, long deadlineTick) {
+            this.value = value;
+            this.deadlineTick = deadlineTick;
+        }
+        
+        public void cancel() {
+            cancelled = true;
+        }
+        
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.techstore.tracing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Opens a span named like "OrderService.createOrder" around every public service call
+@Aspect
+@Component
+public class ServiceTracingAspect {
+    
+    private final Map<Method, String> spanNames = new ConcurrentHashMap<>();
+    
+    @Around("within(com.techstore.service..*) && execution(public * *(..))")
+    public Object trace(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!Tracer.isActive()) {
+            return joinPoint.proceed();
+        }
+        
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        int span = Tracer.start(spanNames.computeIfAbsent(method,
+                m -> m.getDeclaringClass().getSimpleName() + "." + m.getName()));
+        try {
+            return joinPoint.proceed();
+        } finally {
+            Tracer.end(span);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.techstore.tracing;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Flight recorder for slow requests: keeps the most recent slow traces in a
+ * fixed-size ring buffer and logs each one with its span tree.
+ */
+@Component
+@Slf4j
+public class SlowRequestRecorder {
+    
+    private final AtomicReferenceArray<SlowTrace> buffer;
+    private final AtomicLong cursor = new AtomicLong();
+    
+    public SlowRequestRecorder(@Value("${tracing.slow-request-buffer:64}") int capacity) {
+        this.buffer = new AtomicReferenceArray<>(capacity);
+    }
+    
+    public void record(SlowTrace trace) {
+        long slot = cursor.getAndIncrement();
+        buffer.set((int) (slot % buffer.length()), trace);
+        
+        if (log.isWarnEnabled()) {
+            log.warn("Slow request recorded:{}", trace.toTreeString());
+        }
+    }
+    
+    // Newest first
+    public List<SlowTrace> recent() {
+        long end = cursor.get();
+        long start = Math.max(0, end - buffer.length());
+        List<SlowTrace> traces = new ArrayList<>((int) (end - start));
+        
+        for (long slot = end - 1; slot >= start; slot--) {
+            SlowTrace trace = buffer.get((int) (slot % buffer.length()));
+            if (trace != null) {
+                traces.add(trace);
+            }
+        }
+        return traces;
+    }
+}
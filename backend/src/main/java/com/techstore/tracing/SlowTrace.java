@@ -0,0 +1,63 @@
+package com.techstore.tracing;
+
+import java.util.List;
+
+/**
+ * Immutable copy of a finished trace, taken only for requests over the
+ * slow-request threshold. Offsets and durations are in microseconds.
+ */
+public class SlowTrace {
+    
+    private final long recordedAt;
+    private final List<Span> spans;
+    private final int droppedSpans;
+    
+    public SlowTrace(long recordedAt, List<Span> spans, int droppedSpans) {
+        this.recordedAt = recordedAt;
+        this.spans = spans;
+        this.droppedSpans = droppedSpans;
+    }
+    
+    public long getRecordedAt() { return recordedAt; }
+    public List<Span> getSpans() { return spans; }
+    public int getDroppedSpans() { return droppedSpans; }
+    
+    public String toTreeString() {
+        StringBuilder tree = new StringBuilder();
+        for (Span span : spans) {
+            tree.append('\n')
+                    .append("  ".repeat(span.getDepth() + 1))
+                    .append(String.format("%9.3f ms  ", span.getDurationMicros() / 1000.0))
+                    .append(span.getName());
+            if (span.getDetail() != null) {
+                tree.append("  ").append(span.getDetail());
+            }
+        }
+        if (droppedSpans > 0) {
+            tree.append("\n  (").append(droppedSpans).append(" spans dropped)");
+        }
+        return tree.toString();
+    }
+    
+    public static class Span {
+        private final String name;
+        private final String detail;
+        private final int depth;
+        private final long startMicros;
+        private final long durationMicros;
+        
+        public Span(String name, String detail, int depth, long startMicros, long durationMicros) {
+            this.name = name;
+            this.detail = detail;
+            this.depth = depth;
+            this.startMicros = startMicros;
+            this.durationMicros = durationMicros;
+        }
+        
+        public String getName() { return name; }
+        public String getDetail() { return detail; }
+        public int getDepth() { return depth; }
+        public long getStartMicros() { return startMicros; }
+        public long getDurationMicros() { return durationMicros; }
+    }
+}
@@ -0,0 +1,25 @@
+package com.techstore.tracing;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.techstore.Span")
+@Label("Span")
+@Category({"TechStore", "Tracing"})
+@Description("A traced section of request handling: filter, service method or JDBC statement")
+@StackTrace(false)
+class SpanEvent extends Event {
+    
+    @Label("Name")
+    String name;
+    
+    @Label("Detail")
+    String detail;
+    
+    @Label("Depth")
+    int depth;
+}
@@ -0,0 +1,20 @@
+package com.techstore.tracing;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+public class SqlTracingListener implements QueryExecutionListener {
+    
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Tracer.startStatement(queryInfoList.isEmpty() ? null : queryInfoList.get(0).getQuery());
+    }
+    
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Tracer.endStatement();
+    }
+}
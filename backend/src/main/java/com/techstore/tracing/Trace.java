@@ -0,0 +1,36 @@
+package com.techstore.tracing;
+
+/**
+ * Preallocated span storage for one thread. A trace is reset and reused for
+ * every request served by the thread, so recording spans does not allocate.
+ */
+final class Trace {
+    
+    static final int MAX_SPANS = 512;
+    
+    final String[] names = new String[MAX_SPANS];
+    final String[] details = new String[MAX_SPANS];
+    final long[] starts = new long[MAX_SPANS];
+    final long[] ends = new long[MAX_SPANS];
+    final int[] depths = new int[MAX_SPANS];
+    final SpanEvent[] events = new SpanEvent[MAX_SPANS];
+    
+    boolean active;
+    int size;
+    int depth;
+    int dropped;
+    int statementSpan = -1;
+    
+    void reset() {
+        for (int i = 0; i < size; i++) {
+            names[i] = null;
+            details[i] = null;
+            events[i] = null;
+        }
+        active = false;
+        size = 0;
+        depth = 0;
+        dropped = 0;
+        statementSpan = -1;
+    }
+}
@@ -0,0 +1,132 @@
+package com.techstore.tracing;
+
+import jdk.jfr.EventType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entry point for recording spans on the current thread. Spans are only kept
+ * while a trace is active (between {@link #beginTrace} and {@link #endTrace}),
+ * so instrumented code running outside a request costs one thread-local read.
+ * When a JFR recording enables {@code com.techstore.Span}, every span is also
+ * emitted as a JFR event.
+ */
+public final class Tracer {
+    
+    private static final ThreadLocal<Trace> CURRENT = ThreadLocal.withInitial(Trace::new);
+    private static final EventType SPAN_EVENT = EventType.getEventType(SpanEvent.class);
+    
+    private Tracer() {
+    }
+    
+    public static boolean isActive() {
+        return CURRENT.get().active;
+    }
+    
+    public static void beginTrace(String name, String detail) {
+        Trace trace = CURRENT.get();
+        trace.reset();
+        trace.active = true;
+        start(trace, name, detail);
+    }
+    
+    /**
+     * Closes the root span and returns the trace duration in nanoseconds. The
+     * spans stay readable through {@link #snapshot()} until the next trace.
+     */
+    public static long endTrace() {
+        Trace trace = CURRENT.get();
+        if (!trace.active) {
+            return 0;
+        }
+        end(trace, 0);
+        trace.active = false;
+        return trace.ends[0] - trace.starts[0];
+    }
+    
+    public static int start(String name) {
+        return start(name, null);
+    }
+    
+    public static int start(String name, String detail) {
+        Trace trace = CURRENT.get();
+        return trace.active ? start(trace, name, detail) : -1;
+    }
+    
+    public static void end(int span) {
+        if (span >= 0) {
+            end(CURRENT.get(), span);
+        }
+    }
+    
+    // JDBC callbacks have no place to carry the span index between before and after
+    public static void startStatement(String sql) {
+        Trace trace = CURRENT.get();
+        if (trace.active) {
+            trace.statementSpan = start(trace, "jdbc", sql);
+        }
+    }
+    
+    public static void endStatement() {
+        Trace trace = CURRENT.get();
+        if (trace.statementSpan >= 0) {
+            end(trace, trace.statementSpan);
+            trace.statementSpan = -1;
+        }
+    }
+    
+    public static SlowTrace snapshot() {
+        Trace trace = CURRENT.get();
+        List<SlowTrace.Span> spans = new ArrayList<>(trace.size);
+        long origin = trace.starts[0];
+        
+        for (int i = 0; i < trace.size; i++) {
+            long end = trace.ends[i] != 0 ? trace.ends[i] : trace.ends[0];
+            spans.add(new SlowTrace.Span(
+                    trace.names[i],
+                    trace.details[i],
+                    trace.depths[i],
+                    (trace.starts[i] - origin) / 1_000,
+                    (end - trace.starts[i]) / 1_000
+            ));
+        }
+        return new SlowTrace(System.currentTimeMillis(), spans, trace.dropped);
+    }
+    
+    private static int start(Trace trace, String name, String detail) {
+        if (trace.size == Trace.MAX_SPANS) {
+            trace.dropped++;
+            return -1;
+        }
+        
+        int span = trace.size++;
+        trace.names[span] = name;
+        trace.details[span] = detail;
+        trace.depths[span] = trace.depth++;
+        trace.ends[span] = 0;
+        
+        if (SPAN_EVENT.isEnabled()) {
+            SpanEvent event = new SpanEvent();
+            event.name = name;
+            event.detail = detail;
+            event.depth = trace.depths[span];
+            event.begin();
+            trace.events[span] = event;
+        }
+        
+        trace.starts[span] = System.nanoTime();
+        return span;
+    }
+    
+    private static void end(Trace trace, int span) {
+        trace.ends[span] = System.nanoTime();
+        trace.depth = trace.depths[span];
+        
+        SpanEvent event = trace.events[span];
+        if (event != null) {
+            event.commit();
+            trace.events[span] = null;
+        }
+    }
+}
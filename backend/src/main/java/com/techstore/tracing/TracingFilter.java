@@ -0,0 +1,51 @@
+package com.techstore.tracing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class TracingFilter extends OncePerRequestFilter {
+    
+    private final SlowRequestRecorder recorder;
+    
+    @Value("${tracing.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${tracing.slow-request-threshold:500}")
+    private long slowRequestThresholdMillis;
+    
+    public TracingFilter(SlowRequestRecorder recorder) {
+        this.recorder = recorder;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest req, 
+                                    HttpServletResponse res, 
+                                    FilterChain chain) 
+            throws ServletException, IOException {
+        if (!enabled) {
+            chain.doFilter(req, res);
+            return;
+        }
+        
+        Tracer.beginTrace(req.getMethod(), req.getRequestURI());
+        try {
+            chain.doFilter(req, res);
+        } finally {
+            long nanos = Tracer.endTrace();
+            if (nanos >= slowRequestThresholdMillis * 1_000_000) {
+                recorder.record(Tracer.snapshot());
+            }
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package com.techstore.warmup;
+
+public record WarmupReport(int rounds, int requests, int failures, double p99Millis,
+                           long elapsedMillis, boolean stabilized) {
+}
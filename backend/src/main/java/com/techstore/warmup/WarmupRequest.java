@@ -0,0 +1,18 @@
+package com.techstore.warmup;
+
+/**
+ * One line of the recorded warmup traffic: {@code [auth] GET <path>}.
+ */
+public record WarmupRequest(String path, boolean authenticated) {
+    
+    public static WarmupRequest parse(String line) {
+        String[] parts = line.trim().split("\\s+");
+        boolean authenticated = parts[0].equalsIgnoreCase("auth");
+        int method = authenticated ? 1 : 0;
+        
+        if (parts.length != method + 2 || !parts[method].equals("GET")) {
+            throw new IllegalArgumentException("Warmup requests must be '[auth] GET <path>': " + line);
+        }
+        return new WarmupRequest(parts[method + 1], authenticated);
+    }
+}
@@ -0,0 +1,286 @@
+package com.techstore.warmup;
+
+import com.techstore.datasource.HikariPools;
+import com.techstore.datasource.ReadWriteRoutingDataSource;
+import com.techstore.event.DataSeededEvent;
+import com.techstore.model.Category;
+import com.techstore.model.Product;
+import com.techstore.repository.CategoryRepository;
+import com.techstore.repository.ProductRepository;
+import com.techstore.repository.UserRepository;
+import com.techstore.security.JwtTokenProvider;
+import com.techstore.security.UserDetailsImpl;
+import com.techstore.service.CatalogSnapshotService;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Opens the pool connections, builds the catalog snapshots, then replays the
+ * recorded requests over loopback HTTP in rounds until the p99 of a round
+ * stays within the tolerance of the previous one, so the security filters,
+ * Jackson and the controllers are JIT-compiled before real traffic arrives.
+ * <p>
+ * It runs once the application is ready and DataSeeder is done, so the
+ * per-product and authenticated requests have data to hit. With sync
+ * seeding, or a database seeded before, that is before the readiness probe
+ * flips: Spring Boot publishes ACCEPTING_TRAFFIC only after every
+ * ApplicationReadyEvent listener returns. Async seeding of a fresh database
+ * only finishes after it; by then real traffic is warming the JIT and
+ * admission control would shed the replay, so only the pools and snapshots
+ * are prepared.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WarmupRunner {
+    
+    private final DataSource dataSource;
+    private final ObjectProvider<ReadWriteRoutingDataSource> routingDataSource;
+    private final ObjectProvider<CatalogSnapshotService> catalogSnapshotService;
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final UserRepository userRepository;
+    private final JwtTokenProvider tokenProvider;
+    private final ApplicationAvailability availability;
+    
+    @Value("${warmup.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${warmup.requests:classpath:warmup-requests.txt}")
+    private Resource requests;
+    
+    @Value("${warmup.user:john@test.com}")
+    private String user;
+    
+    @Value("${warmup.round-size:200}")
+    private int roundSize;
+    
+    @Value("${warmup.concurrency:4}")
+    private int concurrency;
+    
+    @Value("${warmup.tolerance:0.15}")
+    private double tolerance;
+    
+    @Value("${warmup.stable-rounds:2}")
+    private int stableRounds;
+    
+    @Value("${warmup.max-duration:60s}")
+    private Duration maxDuration;
+    
+    private volatile WarmupReport lastReport;
+    
+    // Application ready and data seeded, in either order; whichever comes last runs the warmup
+    private final AtomicInteger awaiting = new AtomicInteger(2);
+    private volatile int port;
+    
+    // Last, after the indexes and snapshots have been built
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        if (!enabled || !(event.getApplicationContext() instanceof WebServerApplicationContext context)) {
+            return;
+        }
+        port = context.getWebServer().getPort();
+        if (awaiting.decrementAndGet() == 0) {
+            warmUp();
+        }
+    }
+    
+    // After the search indexes rebuilt on the same event
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @EventListener
+    public void onDataSeeded(DataSeededEvent event) {
+        if (awaiting.decrementAndGet() == 0) {
+            warmUp();
+        }
+    }
+    
+    public WarmupReport getLastReport() {
+        return lastReport;
+    }
+    
+    private void warmUp() {
+        try {
+            openPoolConnections();
+            catalogSnapshotService.ifAvailable(CatalogSnapshotService::refreshIfStale);
+            if (availability.getReadinessState() == ReadinessState.ACCEPTING_TRAFFIC) {
+                log.info("Instance already takes traffic; warmup replay skipped");
+                return;
+            }
+            lastReport = replay(port);
+            log.info("Warmup finished in {} ms: {} rounds, {} requests, {} failed, p99 {} ms, {}",
+                    lastReport.elapsedMillis(), lastReport.rounds(), lastReport.requests(),
+                    lastReport.failures(), String.format("%.2f", lastReport.p99Millis()),
+                    lastReport.stabilized() ? "stabilized" : "stopped at max-duration");
+        } catch (RuntimeException | SQLException ex) {
+            // A failed warmup only costs latency; it must not keep the instance out of rotation
+            log.warn("Warmup failed", ex);
+        }
+    }
+    
+    private void openPoolConnections() throws SQLException {
+        for (HikariDataSource pool : HikariPools.find(dataSource, routingDataSource.getIfAvailable())) {
+            List<Connection> connections = new ArrayList<>();
+            // Connections held for good, like the cache coherence listener's, cannot be opened again
+            int held = pool.getHikariPoolMXBean() != null ? pool.getHikariPoolMXBean().getActiveConnections() : 0;
+            try {
+                for (int i = 0; i < Math.min(pool.getMinimumIdle(), pool.getMaximumPoolSize() - held); i++) {
+                    connections.add(pool.getConnection());
+                }
+            } finally {
+                for (Connection connection : connections) {
+                    connection.close();
+                }
+            }
+        }
+    }
+    
+    private WarmupReport replay(int port) {
+        String token = warmupToken();
+        List<WarmupRequest> replayed = resolve(load()).stream()
+                .filter(request -> !request.authenticated() || token != null)
+                .toList();
+        if (replayed.isEmpty()) {
+            return new WarmupReport(0, 0, 0, 0, 0, false);
+        }
+        
+        RestClient client = RestClient.create("http://localhost:" + port);
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        long start = System.currentTimeMillis();
+        int rounds = 0;
+        int failures = 0;
+        int stable = 0;
+        double previousP99 = Double.NaN;
+        double p99 = 0;
+        
+        try {
+            while (stable < stableRounds && System.currentTimeMillis() - start < maxDuration.toMillis()) {
+                List<Future<Long>> results = new ArrayList<>(roundSize);
+                for (int i = 0; i < roundSize; i++) {
+                    WarmupRequest request = replayed.get(i % replayed.size());
+                    String bearer = request.authenticated() ? "Bearer " + token : null;
+                    results.add(executor.submit(() -> send(client, request.path(), bearer)));
+                }
+                
+                long[] nanos = new long[roundSize];
+                for (int i = 0; i < roundSize; i++) {
+                    nanos[i] = Math.abs(results.get(i).get());
+                    failures += results.get(i).get() < 0 ? 1 : 0;
+                }
+                Arrays.sort(nanos);
+                p99 = nanos[(int) Math.ceil(roundSize * 0.99) - 1] / 1_000_000.0;
+                rounds++;
+                log.debug("Warmup round {}: p99 {} ms", rounds, String.format("%.2f", p99));
+                
+                stable = Math.abs(p99 - previousP99) <= previousP99 * tolerance ? stable + 1 : 0;
+                previousP99 = p99;
+            }
+        } catch (Exception ex) {
+            throw new IllegalStateException("Warmup replay failed", ex);
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        return new WarmupReport(rounds, rounds * roundSize, failures, p99,
+                System.currentTimeMillis() - start, stable >= stableRounds);
+    }
+    
+    // Elapsed nanos, negated when the response was not 2xx
+    private static long send(RestClient client, String path, String bearer) {
+        long start = System.nanoTime();
+        boolean ok = client.get()
+                .uri(path)
+                .headers(headers -> {
+                    if (bearer != null) {
+                        headers.set(HttpHeaders.AUTHORIZATION, bearer);
+                    }
+                })
+                .exchange((request, response) -> {
+                    response.getBody().transferTo(OutputStream.nullOutputStream());
+                    return response.getStatusCode().is2xxSuccessful();
+                });
+        long elapsed = Math.max(System.nanoTime() - start, 1);
+        return ok ? elapsed : -elapsed;
+    }
+    
+    private String warmupToken() {
+        if (!userRepository.existsByEmail(user)) {
+            return null;
+        }
+        UserDetailsImpl principal = new UserDetailsImpl(null, user, "", null, null, List.of());
+        return tokenProvider.generateToken(new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+    
+    private List<WarmupRequest> resolve(List<WarmupRequest> recorded) {
+        List<Long> productIds = productRepository.findAll(PageRequest.of(0, 20, Sort.by("id")))
+                .map(Product::getId)
+                .getContent();
+        List<Long> categoryIds = categoryRepository.findByActiveTrue().stream()
+                .map(Category::getId)
+                .toList();
+        
+        List<WarmupRequest> resolved = new ArrayList<>();
+        int n = 0;
+        for (WarmupRequest request : recorded) {
+            String path = request.path();
+            if ((path.contains("{productId}") && productIds.isEmpty())
+                    || (path.contains("{categoryId}") && categoryIds.isEmpty())) {
+                continue;
+            }
+            if (!productIds.isEmpty()) {
+                path = path.replace("{productId}", String.valueOf(productIds.get(n % productIds.size())));
+            }
+            if (!categoryIds.isEmpty()) {
+                path = path.replace("{categoryId}", String.valueOf(categoryIds.get(n % categoryIds.size())));
+            }
+            resolved.add(new WarmupRequest(path, request.authenticated()));
+            n++;
+        }
+        return resolved;
+    }
+    
+    private List<WarmupRequest> load() {
+        try (InputStream in = requests.getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).lines()
+                    .filter(line -> !line.isBlank() && !line.startsWith("#"))
+                    .map(WarmupRequest::parse)
+                    .toList();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
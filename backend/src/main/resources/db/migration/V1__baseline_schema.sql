@@ -0,0 +1,120 @@
+-- Schema as previously generated by Hibernate (ddl-auto=create)
+
+CREATE TABLE roles (
+    id   BIGSERIAL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL UNIQUE CHECK (name IN ('ROLE_USER', 'ROLE_ADMIN'))
+);
+
+CREATE TABLE users (
+    id           BIGSERIAL PRIMARY KEY,
+    email        VARCHAR(255) NOT NULL UNIQUE,
+    password     VARCHAR(255) NOT NULL,
+    first_name   VARCHAR(255) NOT NULL,
+    last_name    VARCHAR(255) NOT NULL,
+    phone_number VARCHAR(255),
+    enabled      BOOLEAN NOT NULL,
+    created_at   TIMESTAMP(6),
+    updated_at   TIMESTAMP(6)
+);
+
+CREATE TABLE user_roles (
+    user_id BIGINT NOT NULL CONSTRAINT fk_user_roles_user REFERENCES users,
+    role_id BIGINT NOT NULL CONSTRAINT fk_user_roles_role REFERENCES roles,
+    PRIMARY KEY (role_id, user_id)
+);
+
+CREATE TABLE addresses (
+    id         BIGSERIAL PRIMARY KEY,
+    user_id    BIGINT CONSTRAINT fk_addresses_user REFERENCES users,
+    street     VARCHAR(255) NOT NULL,
+    city       VARCHAR(255) NOT NULL,
+    state      VARCHAR(255) NOT NULL,
+    zip_code   VARCHAR(255) NOT NULL,
+    country    VARCHAR(255) NOT NULL,
+    is_default BOOLEAN NOT NULL
+);
+
+CREATE TABLE categories (
+    id          BIGSERIAL PRIMARY KEY,
+    name        VARCHAR(255) NOT NULL UNIQUE,
+    description VARCHAR(255),
+    parent_id   BIGINT CONSTRAINT fk_categories_parent REFERENCES categories,
+    active      BOOLEAN NOT NULL
+);
+
+CREATE TABLE products (
+    id             BIGSERIAL PRIMARY KEY,
+    name           VARCHAR(255) NOT NULL,
+    description    VARCHAR(2000),
+    price          NUMERIC(38, 2) NOT NULL,
+    discount_price NUMERIC(38, 2),
+    stock_quantity INTEGER NOT NULL,
+    sku            VARCHAR(255),
+    brand          VARCHAR(255),
+    category_id    BIGINT CONSTRAINT fk_products_category REFERENCES categories,
+    average_rating FLOAT(53),
+    review_count   INTEGER,
+    active         BOOLEAN NOT NULL,
+    created_at     TIMESTAMP(6),
+    updated_at     TIMESTAMP(6)
+);
+
+CREATE TABLE product_images (
+    product_id BIGINT NOT NULL CONSTRAINT fk_product_images_product REFERENCES products,
+    image_url  VARCHAR(255)
+);
+
+CREATE TABLE reviews (
+    id         BIGSERIAL PRIMARY KEY,
+    product_id BIGINT NOT NULL CONSTRAINT fk_reviews_product REFERENCES products,
+    user_id    BIGINT NOT NULL CONSTRAINT fk_reviews_user REFERENCES users,
+    rating     INTEGER NOT NULL,
+    comment    VARCHAR(1000),
+    created_at TIMESTAMP(6)
+);
+
+CREATE TABLE carts (
+    id         BIGSERIAL PRIMARY KEY,
+    user_id    BIGINT UNIQUE CONSTRAINT fk_carts_user REFERENCES users,
+    updated_at TIMESTAMP(6)
+);
+
+CREATE TABLE cart_items (
+    id         BIGSERIAL PRIMARY KEY,
+    cart_id    BIGINT CONSTRAINT fk_cart_items_cart REFERENCES carts,
+    product_id BIGINT CONSTRAINT fk_cart_items_product REFERENCES products,
+    quantity   INTEGER NOT NULL,
+    price      NUMERIC(38, 2) NOT NULL
+);
+
+CREATE TABLE orders (
+    id                BIGSERIAL PRIMARY KEY,
+    user_id           BIGINT CONSTRAINT fk_orders_user REFERENCES users,
+    order_number      VARCHAR(255) NOT NULL UNIQUE,
+    subtotal          NUMERIC(38, 2) NOT NULL,
+    tax               NUMERIC(38, 2) NOT NULL,
+    shipping_cost     NUMERIC(38, 2) NOT NULL,
+    total             NUMERIC(38, 2) NOT NULL,
+    status            VARCHAR(255) CHECK (status IN ('PENDING', 'PROCESSING', 'SHIPPED', 'DELIVERED', 'CANCELLED')),
+    street            VARCHAR(255),
+    city              VARCHAR(255),
+    state             VARCHAR(255),
+    zip_code          VARCHAR(255),
+    country           VARCHAR(255),
+    phone_number      VARCHAR(255),
+    payment_intent_id VARCHAR(255),
+    payment_status    VARCHAR(255) CHECK (payment_status IN ('PENDING', 'PAID', 'FAILED', 'REFUNDED')),
+    tracking_number   VARCHAR(255),
+    created_at        TIMESTAMP(6),
+    updated_at        TIMESTAMP(6)
+);
+
+CREATE TABLE order_items (
+    id           BIGSERIAL PRIMARY KEY,
+    order_id     BIGINT CONSTRAINT fk_order_items_order REFERENCES orders,
+    product_id   BIGINT CONSTRAINT fk_order_items_product REFERENCES products,
+    product_name VARCHAR(255),
+    product_sku  VARCHAR(255),
+    quantity     INTEGER NOT NULL,
+    price        NUMERIC(38, 2) NOT NULL
+);
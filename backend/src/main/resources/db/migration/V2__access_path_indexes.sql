@@ -0,0 +1,33 @@
+-- Indexes for the repository access paths. Unique constraints already cover
+-- users.email, orders.order_number, categories.name, roles.name and carts.user_id.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Catalog listings only ever read active products
+CREATE INDEX idx_products_category_id_active ON products (category_id) WHERE active = true;
+CREATE INDEX idx_products_price_active ON products (price) WHERE active = true;
+CREATE INDEX idx_products_brand_active ON products (brand) WHERE active = true;
+CREATE INDEX idx_products_discounted ON products (id) WHERE active = true AND discount_price IS NOT NULL;
+CREATE INDEX idx_products_updated_at ON products (updated_at);
+
+-- searchProducts: LOWER(column) LIKE '%keyword%' on name, description and brand
+CREATE INDEX idx_products_name_trgm ON products USING gin (lower(name) gin_trgm_ops) WHERE active = true;
+CREATE INDEX idx_products_description_trgm ON products USING gin (lower(description) gin_trgm_ops) WHERE active = true;
+CREATE INDEX idx_products_brand_trgm ON products USING gin (lower(brand) gin_trgm_ops) WHERE active = true;
+
+CREATE INDEX idx_product_images_product_id ON product_images (product_id);
+CREATE INDEX idx_categories_parent_id_active ON categories (parent_id) WHERE active = true;
+
+CREATE INDEX idx_orders_user_id_created_at ON orders (user_id, created_at DESC);
+CREATE INDEX idx_orders_payment_intent_id ON orders (payment_intent_id) WHERE payment_intent_id IS NOT NULL;
+CREATE INDEX idx_order_items_order_id ON order_items (order_id);
+CREATE INDEX idx_order_items_product_id ON order_items (product_id, quantity);
+
+CREATE INDEX idx_cart_items_cart_id ON cart_items (cart_id);
+CREATE INDEX idx_cart_items_product_id ON cart_items (product_id);
+
+CREATE INDEX idx_reviews_product_id_user_id ON reviews (product_id, user_id);
+CREATE INDEX idx_reviews_user_id ON reviews (user_id);
+
+CREATE INDEX idx_user_roles_user_id ON user_roles (user_id);
+CREATE INDEX idx_addresses_user_id ON addresses (user_id);
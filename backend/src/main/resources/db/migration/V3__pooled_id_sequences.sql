@@ -0,0 +1,26 @@
+-- Order, OrderItem and CartItem ids come from sequences with a pooled optimizer
+-- (allocationSize = 50) so Hibernate can batch their inserts. With the pooled
+-- optimizer a nextval of N hands out N-49..N, so each sequence resumes 50 past
+-- the current maximum id.
+--
+-- Databases created by V1 have serial ids backed by <table>_id_seq; databases
+-- baselined from the old ddl-auto=create schema have identity columns instead.
+-- Dropping the identity (if any) and then the default (if any) handles both.
+
+CREATE SEQUENCE orders_seq INCREMENT BY 50;
+SELECT setval('orders_seq', (SELECT COALESCE(MAX(id), 0) FROM orders) + 50, false);
+ALTER TABLE orders ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE orders ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE IF EXISTS orders_id_seq;
+
+CREATE SEQUENCE order_items_seq INCREMENT BY 50;
+SELECT setval('order_items_seq', (SELECT COALESCE(MAX(id), 0) FROM order_items) + 50, false);
+ALTER TABLE order_items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE order_items ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE IF EXISTS order_items_id_seq;
+
+CREATE SEQUENCE cart_items_seq INCREMENT BY 50;
+SELECT setval('cart_items_seq', (SELECT COALESCE(MAX(id), 0) FROM cart_items) + 50, false);
+ALTER TABLE cart_items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE cart_items ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE IF EXISTS cart_items_id_seq;
@@ -0,0 +1,6 @@
+-- Optimistic locking for carts and cart items. Concurrent cart and checkout
+-- requests for the same user on different nodes bump the same version, and
+-- the losing transaction is retried on fresh state.
+
+ALTER TABLE carts ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE cart_items ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
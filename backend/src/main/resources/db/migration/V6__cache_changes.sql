@@ -0,0 +1,11 @@
+-- Entity changes broadcast to the node-local caches of every replica. Nodes in
+-- cache.coherence.mode=poll read new rows from this table; in notify mode only
+-- its id sequence is used, to version the changes sent over NOTIFY.
+
+CREATE TABLE cache_changes (
+    id BIGSERIAL PRIMARY KEY,
+    entity VARCHAR(32) NOT NULL,
+    entity_id BIGINT,
+    origin VARCHAR(64) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT clock_timestamp()
+);
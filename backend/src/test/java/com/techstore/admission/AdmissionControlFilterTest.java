@@ -0,0 +1,222 @@
+package com.techstore.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.availability.ApplicationAvailabilityBean;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.CorsConfigurationSource;
+import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdmissionControlFilterTest {
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ApplicationAvailabilityBean availability = new ApplicationAvailabilityBean();
+    private final MockEnvironment environment = new MockEnvironment()
+            .withProperty("admission.search.client-rate", "0.001")
+            .withProperty("admission.search.client-burst", "2")
+            .withProperty("admission.auth.rate", "0.001")
+            .withProperty("admission.auth.burst", "3")
+            .withProperty("admission.checkout.concurrency", "1");
+    
+    private AdmissionControlFilter filter;
+    
+    @BeforeEach
+    void createFilter() {
+        filter = new AdmissionControlFilter(availability, corsConfigurationSource(), environment, meterRegistry);
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "maxTrackedClients", 100);
+        ready(ReadinessState.ACCEPTING_TRAFFIC);
+    }
+    
+    @Test
+    void eachClientHasItsOwnBucket() throws Exception {
+        assertEquals(200, send("GET", "/api/products/search", "10.0.0.1").getStatus());
+        assertEquals(200, send("GET", "/api/products/search", "10.0.0.1").getStatus());
+        
+        MockHttpServletResponse shed = send("GET", "/api/products/search", "10.0.0.1");
+        assertEquals(429, shed.getStatus());
+        assertNotNull(shed.getHeader("Retry-After"));
+        
+        assertEquals(200, send("GET", "/api/products/search", "10.0.0.2").getStatus());
+        // Buckets are per class: the same client can still browse the catalog
+        assertEquals(200, send("GET", "/api/products", "10.0.0.1").getStatus());
+        assertEquals(1.0, count("search", "shed", "client-rate"));
+        assertEquals(3.0, count("search", "admitted", "none"));
+    }
+    
+    @Test
+    void classBucketIsSharedByAllClients() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, send("POST", "/api/auth/login", "10.0.1." + i).getStatus());
+        }
+        
+        assertEquals(429, send("POST", "/api/auth/login", "10.0.1.99").getStatus());
+        assertEquals(1.0, count("auth", "shed", "class-rate"));
+    }
+    
+    @Test
+    void shedCrossOriginRequestsCarryCorsHeaders() throws Exception {
+        send("POST", "/api/auth/login", "10.0.1.1");
+        send("POST", "/api/auth/login", "10.0.1.1");
+        send("POST", "/api/auth/login", "10.0.1.1");
+        
+        MockHttpServletRequest fromSpa = request("POST", "/api/auth/login", "10.0.1.2");
+        fromSpa.addHeader(HttpHeaders.ORIGIN, "http://localhost:3000");
+        MockHttpServletResponse shed = new MockHttpServletResponse();
+        filter.doFilter(fromSpa, shed, new MockFilterChain());
+        
+        assertEquals(429, shed.getStatus());
+        assertEquals("http://localhost:3000", shed.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN));
+        assertEquals("true", shed.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_CREDENTIALS));
+        assertEquals(HttpHeaders.RETRY_AFTER, shed.getHeader(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS));
+        assertNotNull(shed.getHeader(HttpHeaders.RETRY_AFTER));
+        
+        // Origins the CORS configuration refuses get no grant
+        MockHttpServletRequest elsewhere = request("POST", "/api/auth/login", "10.0.1.3");
+        elsewhere.addHeader(HttpHeaders.ORIGIN, "https://evil.example");
+        MockHttpServletResponse refused = new MockHttpServletResponse();
+        filter.doFilter(elsewhere, refused, new MockFilterChain());
+        
+        assertEquals(429, refused.getStatus());
+        assertNull(refused.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN));
+    }
+    
+    @Test
+    void bulkheadShedsWhileItsPermitsAreTaken() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain blocking = (request, response) -> {
+            entered.countDown();
+            await(release);
+        };
+        
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> inFlight = executor.submit(() -> {
+                filter.doFilter(request("POST", "/api/orders", "10.0.2.1"), new MockHttpServletResponse(), blocking);
+                return null;
+            });
+            await(entered);
+            
+            assertEquals(429, send("POST", "/api/orders", "10.0.2.2").getStatus());
+            // Other classes have their own bulkheads
+            assertEquals(200, send("GET", "/api/products", "10.0.2.2").getStatus());
+            
+            release.countDown();
+            inFlight.get(5, TimeUnit.SECONDS);
+            assertEquals(200, send("POST", "/api/orders", "10.0.2.2").getStatus());
+            assertEquals(1.0, count("checkout", "shed", "bulkhead"));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    void asyncRequestsHoldTheirPermitUntilTheyComplete() throws Exception {
+        MockHttpServletRequest reactive = request("POST", "/api/orders", "10.0.2.1");
+        reactive.setAsyncSupported(true);
+        filter.doFilter(reactive, new MockHttpServletResponse(), (request, response) -> request.startAsync());
+        
+        assertEquals(429, send("POST", "/api/orders", "10.0.2.2").getStatus());
+        reactive.getAsyncContext().complete();
+        assertEquals(200, send("POST", "/api/orders", "10.0.2.2").getStatus());
+    }
+    
+    @Test
+    void nothingIsShedBeforeTheInstanceIsReady() throws Exception {
+        ready(ReadinessState.REFUSING_TRAFFIC);
+        
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, send("GET", "/api/products/search", "127.0.0.1").getStatus());
+        }
+    }
+    
+    @Test
+    void unclassifiedRequestsAreNotLimited() {
+        assertNull(EndpointClass.of(request("POST", "/api/payments/webhook", "10.0.3.1")));
+        assertNull(EndpointClass.of(request("OPTIONS", "/api/orders", "10.0.3.1")));
+        assertEquals(EndpointClass.CHECKOUT, EndpointClass.of(request("POST", "/api/payments/create-intent", "10.0.3.1")));
+        assertEquals(EndpointClass.CATALOG, EndpointClass.of(request("GET", "/api/products/7", "10.0.3.1")));
+        assertEquals(EndpointClass.SEARCH, EndpointClass.of(request("GET", "/api/reactive/products/search", "10.0.3.1")));
+    }
+    
+    @Test
+    void tokenBucketRefillsAtItsRate() {
+        TokenBucket bucket = new TokenBucket(10, 2, 0);
+        long interval = TimeUnit.MILLISECONDS.toNanos(100);
+        
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(interval, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(interval));
+        assertTrue(bucket.tryAcquire(interval) > 0);
+        assertTrue(bucket.isFull(3 * interval));
+    }
+    
+    private MockHttpServletResponse send(String method, String path, String address) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(method, path, address), response, new MockFilterChain());
+        return response;
+    }
+    
+    private static MockHttpServletRequest request(String method, String path, String address) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setRemoteAddr(address);
+        return request;
+    }
+    
+    private static CorsConfigurationSource corsConfigurationSource() {
+        CorsConfiguration configuration = new CorsConfiguration();
+        configuration.setAllowedOrigins(List.of("http://localhost:3000"));
+        configuration.setAllowCredentials(true);
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", configuration);
+        return source;
+    }
+    
+    private double count(String endpointClass, String outcome, String reason) {
+        return meterRegistry.get("techstore.admission.requests")
+                .tag("class", endpointClass)
+                .tag("outcome", outcome)
+                .tag("reason", reason)
+                .counter()
+                .count();
+    }
+    
+    private void ready(ReadinessState state) {
+        availability.onApplicationEvent(new AvailabilityChangeEvent<>(this, state));
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.techstore.benchmark;
+
+import com.techstore.metrics.QueryStats;
+import com.techstore.model.Product;
+import com.techstore.model.ShippingAddress;
+import com.techstore.repository.ProductRepository;
+import com.techstore.repository.UserRepository;
+import com.techstore.service.CartService;
+import com.techstore.service.OrderService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares checkout round trips and latency with JDBC batching disabled
+ * (batch size 1) versus the configured batch size. Each order has ten lines,
+ * so the order item inserts and stock updates are what batching collapses.
+ * Needs a seeded database; run with {@code mvn test -Dbenchmark=true}.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CheckoutBatchingBenchmark {
+    
+    private static final int ITERATIONS = 100;
+    private static final int LINES = 10;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private CartService cartService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private EntityManager entityManager;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void checkout() {
+        Long userId = userRepository.findByEmail("john@test.com").orElseThrow().getId();
+        List<Long> productIds = productRepository.findAll(PageRequest.of(0, LINES, Sort.by("id")))
+                .map(Product::getId)
+                .getContent();
+        ShippingAddress address = new ShippingAddress("1 Main St", "Springfield", "IL", "62701", "USA", "555-0100");
+        
+        Runnable checkout = () -> orderService.createOrder(userId, address);
+        Runnable refill = () -> {
+            jdbcTemplate.update("UPDATE products SET stock_quantity = 1000 WHERE id IN (" +
+                    String.join(",", productIds.stream().map(String::valueOf).toList()) + ")");
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+            productIds.forEach(productId -> cartService.addItemToCart(userId, productId, 1));
+        };
+        
+        measure(checkout, refill, null);
+        
+        Run unbatched = measure(checkout, refill, 1);
+        Run batched = measure(checkout, refill, null);
+        
+        System.out.printf("checkout unbatched: %5.2f statements/op %8.3f ms/op | batched: %5.2f statements/op %8.3f ms/op%n",
+                unbatched.statementsPerOp(), unbatched.millisPerOp(),
+                batched.statementsPerOp(), batched.millisPerOp());
+        
+        assertTrue(batched.statements < unbatched.statements,
+                "checkout should need fewer round trips with JDBC batching");
+    }
+    
+    private Run measure(Runnable action, Runnable beforeEach, Integer batchSize) {
+        long statements = 0;
+        long nanos = 0;
+        
+        for (int i = 0; i < ITERATIONS; i++) {
+            beforeEach.run();
+            long start = System.nanoTime();
+            QueryStats.reset();
+            transactionTemplate.executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+                action.run();
+            });
+            statements += QueryStats.current().getStatements();
+            nanos += System.nanoTime() - start;
+        }
+        
+        return new Run(statements, nanos);
+    }
+    
+    private record Run(long statements, long nanos) {
+        double statementsPerOp() {
+            return (double) statements / ITERATIONS;
+        }
+        
+        double millisPerOp() {
+            return nanos / 1_000_000.0 / ITERATIONS;
+        }
+    }
+}
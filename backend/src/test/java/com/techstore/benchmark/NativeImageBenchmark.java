@@ -0,0 +1,71 @@
+package com.techstore.benchmark;
+
+import com.techstore.support.ApplicationProcess;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.net.http.HttpRequest;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the native executable with the JVM build of the same sources:
+ * time until the first API response, and resident memory right after it and
+ * after a short burst of catalog traffic. Build both with
+ * {@code mvn -Pnative -DskipTests package}, then run with a database configured:
+ * {@code mvn test -Dbenchmark=true -Dtest=NativeImageBenchmark -Dnative.binary=target/techstore-backend}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@EnabledIfSystemProperty(named = "native.binary", matches = ".+")
+class NativeImageBenchmark {
+    
+    private static final int ITERATIONS = 5;
+    private static final int REQUESTS = 500;
+    private static final Duration TIMEOUT = Duration.ofSeconds(120);
+    
+    @Test
+    void startupAndMemory() throws Exception {
+        String binary = Path.of(System.getProperty("native.binary")).toAbsolutePath().toString();
+        String jar = Path.of(System.getProperty("native.jar", "target/techstore-backend-1.0.0.jar"))
+                .toAbsolutePath().toString();
+        
+        Run jvm = measure(List.of(Path.of(System.getProperty("java.home"), "bin", "java").toString(), "-jar", jar));
+        Run nativeImage = measure(List.of(binary));
+        
+        System.out.printf("jvm:    %7.0f ms to first response, RSS %6d MB at start, %6d MB after %d requests%n",
+                jvm.meanMillis(), jvm.startRssKb() / 1024, jvm.loadedRssKb() / 1024, REQUESTS);
+        System.out.printf("native: %7.0f ms to first response, RSS %6d MB at start, %6d MB after %d requests%n",
+                nativeImage.meanMillis(), nativeImage.startRssKb() / 1024, nativeImage.loadedRssKb() / 1024, REQUESTS);
+        
+        assertTrue(nativeImage.totalMillis() < jvm.totalMillis(), "native image should start faster");
+    }
+    
+    private Run measure(List<String> launcher) throws Exception {
+        long total = 0;
+        long startRss = 0;
+        long loadedRss = 0;
+        
+        for (int i = 0; i < ITERATIONS; i++) {
+            try (ApplicationProcess app = ApplicationProcess.executable(launcher, "--data.seed.mode=sync")) {
+                total += app.awaitResponse("/api/products/brands", TIMEOUT);
+                startRss += app.residentSetKilobytes();
+                
+                for (int r = 0; r < REQUESTS; r++) {
+                    app.send(HttpRequest.newBuilder(app.uri("/api/products?page=" + r % 3 + "&size=12")));
+                }
+                loadedRss += app.residentSetKilobytes();
+            }
+        }
+        
+        return new Run(total, startRss / ITERATIONS, loadedRss / ITERATIONS);
+    }
+    
+    private record Run(long totalMillis, long startRssKb, long loadedRssKb) {
+        double meanMillis() {
+            return (double) totalMillis / ITERATIONS;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.techstore.benchmark;
+
+import com.techstore.TechStoreApplication;
+import com.techstore.support.ApplicationProcess;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The same catalog page served by the blocking and the reactive read path,
+ * each hit by {@code load.connections} clients (10,000 by default) that open
+ * their own connection and send one request at the same moment. The server
+ * closes every connection after its response, so each round starts from
+ * nothing. Snapshots and admission control are off, so both paths reach the
+ * database. Meanwhile a bystander keeps calling the in-memory suggest
+ * endpoint: blocked catalog reads starve it of Tomcat threads, reactive ones
+ * should not. Needs a database; run with
+ * {@code mvn test -Dbenchmark=true -Dtest=ReactiveCatalogLoadBenchmark}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ReactiveCatalogLoadBenchmark {
+    
+    private static final int CONNECTIONS = Integer.getInteger("load.connections", 10_000);
+    private static final int ROUNDS = 2;
+    private static final Duration TIMEOUT = Duration.ofMinutes(5);
+    private static final String BLOCKING = "/api/products?page=0&size=12";
+    private static final String REACTIVE = "/api/reactive/products?page=0&size=12";
+    private static final String BYSTANDER = "/api/products/suggest?q=ga";
+    
+    @Test
+    void blockingVersusReactiveAtTenThousandConnections() throws Exception {
+        try (ApplicationProcess app = ApplicationProcess.jvm(List.of("-Xmx1g"), TechStoreApplication.class.getName(),
+                "--data.seed.mode=sync",
+                "--catalog.snapshot.enabled=false",
+                "--admission.enabled=false",
+                "--server.tomcat.max-keep-alive-requests=1",
+                "--spring.datasource.hikari.connection-timeout=" + TIMEOUT.toMillis(),
+                "--spring.mvc.async.request-timeout=" + TIMEOUT.toMillis(),
+                "--catalog.reactive.pool.max-acquire-time=" + TIMEOUT.toMillis() + "ms")) {
+            app.awaitReady(TIMEOUT);
+            
+            Load blocking = null;
+            Load reactive = null;
+            for (int round = 0; round < ROUNDS; round++) {
+                blocking = load(app, BLOCKING);
+                reactive = load(app, REACTIVE);
+            }
+            
+            System.out.printf("%d connections, server threads before load: %d%n", CONNECTIONS, app.threads());
+            print("blocking", blocking);
+            print("reactive", reactive);
+            
+            assertEquals(0, reactive.failed(), "reactive requests failed");
+            assertTrue(reactive.bystanderP99Millis() < blocking.bystanderP99Millis(),
+                    "other endpoints should stay responsive while reactive reads wait on the database");
+        }
+    }
+    
+    private static Load load(ApplicationProcess app, String path) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(TIMEOUT)
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(app.uri(path)).timeout(TIMEOUT).build();
+        
+        AtomicLong peakThreads = new AtomicLong(app.threads());
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> peakThreads.accumulateAndGet(app.threads(), Math::max),
+                0, 20, TimeUnit.MILLISECONDS);
+        
+        List<Long> bystander = new CopyOnWriteArrayList<>();
+        AtomicBoolean flooding = new AtomicBoolean(true);
+        Thread probe = new Thread(() -> {
+            while (flooding.get()) {
+                long sent = System.nanoTime();
+                try {
+                    app.send(HttpRequest.newBuilder(app.uri(BYSTANDER)));
+                    bystander.add((System.nanoTime() - sent) / 1_000_000);
+                    Thread.sleep(50);
+                } catch (InterruptedException ex) {
+                    return;
+                } catch (IOException ex) {
+                    bystander.add(TIMEOUT.toMillis());
+                }
+            }
+        });
+        probe.start();
+        
+        long[] latencies = new long[CONNECTIONS];
+        AtomicInteger failed = new AtomicInteger();
+        CompletableFuture<?>[] responses = new CompletableFuture<?>[CONNECTIONS];
+        long start = System.nanoTime();
+        for (int i = 0; i < CONNECTIONS; i++) {
+            int index = i;
+            long sent = System.nanoTime();
+            responses[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .handle((response, error) -> {
+                        latencies[index] = System.nanoTime() - sent;
+                        if (error != null || response.statusCode() != 200) {
+                            failed.incrementAndGet();
+                        }
+                        return null;
+                    });
+        }
+        CompletableFuture.allOf(responses).join();
+        long elapsed = System.nanoTime() - start;
+        
+        sampler.shutdownNow();
+        flooding.set(false);
+        probe.join();
+        
+        long[] bystanderLatencies = bystander.stream().mapToLong(Long::longValue).sorted().toArray();
+        Arrays.sort(latencies);
+        return new Load(CONNECTIONS / (elapsed / 1e9),
+                latencies[CONNECTIONS / 2] / 1_000_000,
+                latencies[(int) (CONNECTIONS * 0.99)] / 1_000_000,
+                latencies[CONNECTIONS - 1] / 1_000_000,
+                failed.get(),
+                peakThreads.get(),
+                app.residentSetKilobytes() / 1024,
+                bystanderLatencies[(int) (bystanderLatencies.length * 0.99)]);
+    }
+    
+    private static void print(String name, Load load) {
+        System.out.printf("%-8s %7.0f req/s | p50 %6d ms | p99 %6d ms | max %6d ms | failed %5d | "
+                        + "peak threads %4d | RSS %5d MB | bystander p99 %6d ms%n",
+                name, load.throughput(), load.p50Millis(), load.p99Millis(), load.maxMillis(), load.failed(),
+                load.peakThreads(), load.rssMb(), load.bystanderP99Millis());
+    }
+    
+    private record Load(double throughput, long p50Millis, long p99Millis, long maxMillis, int failed,
+                        long peakThreads, long rssMb, long bystanderP99Millis) {
+    }
+}
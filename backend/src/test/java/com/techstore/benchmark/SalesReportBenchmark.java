@@ -0,0 +1,104 @@
+package com.techstore.benchmark;
+
+import com.techstore.service.SalesReportService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Loads three years of synthetic orders, rebuilds the sales rollups on one
+ * connection and on the configured parallelism, then compares three-year
+ * admin reports served from the rollups with the same aggregate computed
+ * from the order tables. The synthetic orders use negative ids and are
+ * removed again afterwards.
+ * Needs a seeded database; run with {@code mvn test -Dbenchmark=true -Dtest=SalesReportBenchmark}.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class SalesReportBenchmark {
+    
+    private static final int ORDERS = 300_000;
+    private static final int DAYS = 3 * 365;
+    private static final int REPEATS = 20;
+    
+    @Autowired
+    private SalesReportService salesReportService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void rebuildAndReport() {
+        try {
+            loadHistory();
+            
+            int parallelism = (int) ReflectionTestUtils.getField(salesReportService, "parallelism");
+            ReflectionTestUtils.setField(salesReportService, "parallelism", 1);
+            long single = salesReportService.rebuild().getDurationMs();
+            ReflectionTestUtils.setField(salesReportService, "parallelism", parallelism);
+            long parallel = salesReportService.rebuild().getDurationMs();
+            
+            LocalDate to = LocalDate.now();
+            LocalDate from = to.minusDays(DAYS);
+            double byDay = medianMillis(() -> salesReportService.getSalesReport(from, to, "day"));
+            double byCategory = medianMillis(() -> salesReportService.getSalesReport(from, to, "category"));
+            double byBrand = medianMillis(() -> salesReportService.getSalesReport(from, to, "brand"));
+            double fromOrders = medianMillis(() -> jdbcTemplate.queryForList(
+                    "SELECT p.category_id, SUM(i.quantity), SUM(i.price * i.quantity) FROM orders o " +
+                    "JOIN order_items i ON i.order_id = o.id LEFT JOIN products p ON p.id = i.product_id " +
+                    "WHERE o.created_at >= ? AND o.status <> 'CANCELLED' GROUP BY p.category_id",
+                    from.atStartOfDay()));
+            
+            System.out.printf("rebuild %d orders: 1 connection %d ms, %d connections %d ms%n",
+                    ORDERS, single, parallelism, parallel);
+            System.out.printf("three-year report p50: by day %.2f ms, by category %.2f ms, by brand %.2f ms, "
+                    + "by category from orders %.2f ms%n", byDay, byCategory, byBrand, fromOrders);
+            
+            assertTrue(byCategory < fromOrders);
+        } finally {
+            jdbcTemplate.update("DELETE FROM order_items WHERE id < 0");
+            jdbcTemplate.update("DELETE FROM orders WHERE id < 0");
+            salesReportService.rebuild();
+        }
+    }
+    
+    // Three lines per order over the seeded products, spread evenly over the last three years
+    private void loadHistory() {
+        jdbcTemplate.update("""
+                INSERT INTO orders (id, order_number, subtotal, tax, shipping_cost, total,
+                                    status, payment_status, created_at)
+                SELECT -g, 'BENCH-' || g, 600, 60, 10, 670,
+                       CASE WHEN g % 20 = 0 THEN 'CANCELLED' ELSE 'DELIVERED' END,
+                       CASE WHEN g % 10 < 8 THEN 'PAID' ELSE 'PENDING' END,
+                       now() - (g % ?) * INTERVAL '1 day' - (g % 86400) * INTERVAL '1 second'
+                FROM generate_series(1, ?) g
+                """, DAYS, ORDERS);
+        jdbcTemplate.update("""
+                WITH p AS (SELECT ARRAY_AGG(id ORDER BY id) AS ids FROM products)
+                INSERT INTO order_items (id, order_id, product_id, quantity, price)
+                SELECT -(g * 3 + l), -g, p.ids[1 + (g * 7 + l * 13) % array_length(p.ids, 1)], 1 + l, 100
+                FROM p, generate_series(1, ?) g, generate_series(0, 2) l
+                """, ORDERS);
+        jdbcTemplate.execute("ANALYZE orders");
+        jdbcTemplate.execute("ANALYZE order_items");
+    }
+    
+    private static double medianMillis(Runnable report) {
+        long[] nanos = new long[REPEATS];
+        for (int i = 0; i < REPEATS; i++) {
+            long start = System.nanoTime();
+            report.run();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos[REPEATS / 2] / 1_000_000.0;
+    }
+}
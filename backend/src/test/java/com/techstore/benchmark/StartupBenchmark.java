@@ -0,0 +1,66 @@
+package com.techstore.benchmark;
+
+import com.techstore.TechStoreApplication;
+import com.techstore.support.ApplicationProcess;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures time-to-first-request: from launching a fresh JVM until the API
+ * answers. The fast-start variant seeds asynchronously and adds the JVM
+ * arguments in {@code startup.jvm-args}, e.g. {@code -Dspring.aot.enabled=true}
+ * after {@code mvn -Pfast-start} or {@code -XX:SharedArchiveFile=app.jsa}.
+ * Needs a database; run with
+ * {@code mvn test -Dbenchmark=true -Dtest=StartupBenchmark}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class StartupBenchmark {
+    
+    private static final int ITERATIONS = 5;
+    private static final Duration TIMEOUT = Duration.ofSeconds(120);
+    
+    @Test
+    void timeToFirstRequest() throws Exception {
+        List<String> fastStartArgs = new ArrayList<>(
+                Arrays.asList(System.getProperty("startup.jvm-args", "").split("\\s+")));
+        fastStartArgs.removeIf(String::isBlank);
+        
+        Run standard = measure(List.of(), "sync");
+        Run fastStart = measure(fastStartArgs, "async");
+        
+        System.out.printf("startup standard: %7.0f ms mean %7d ms best | fast-start %s: %7.0f ms mean %7d ms best%n",
+                standard.meanMillis(), standard.bestMillis(), fastStartArgs,
+                fastStart.meanMillis(), fastStart.bestMillis());
+        
+        assertTrue(fastStart.bestMillis() > 0 && standard.bestMillis() > 0);
+    }
+    
+    private Run measure(List<String> jvmArgs, String seedMode) throws Exception {
+        long total = 0;
+        long best = Long.MAX_VALUE;
+        
+        for (int i = 0; i < ITERATIONS; i++) {
+            try (ApplicationProcess app = ApplicationProcess.jvm(jvmArgs, TechStoreApplication.class.getName(),
+                    "--data.seed.mode=" + seedMode)) {
+                long elapsed = app.awaitResponse("/api/products/brands", TIMEOUT);
+                total += elapsed;
+                best = Math.min(best, elapsed);
+            }
+        }
+        
+        return new Run(total, best);
+    }
+    
+    private record Run(long totalMillis, long bestMillis) {
+        double meanMillis() {
+            return (double) totalMillis / ITERATIONS;
+        }
+    }
+}
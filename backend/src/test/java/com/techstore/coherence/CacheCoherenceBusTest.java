@@ -0,0 +1,132 @@
+package com.techstore.coherence;
+
+import com.techstore.TechStoreApplication;
+import com.techstore.event.CatalogChangedEvent;
+import com.techstore.event.UserChangedEvent;
+import com.techstore.repository.ProductRepository;
+import com.techstore.security.UserDetailsImpl;
+import com.techstore.security.UserDetailsServiceImpl;
+import com.techstore.security.UserProfileCache;
+import com.techstore.service.ProductService;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two application instances share one Postgres, the way replicas behind a
+ * load balancer do; a change committed on one must evict the other's copy.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class CacheCoherenceBusTest {
+    
+    private static final Duration DELIVERY = Duration.ofSeconds(2);
+    
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+    
+    @ParameterizedTest
+    @ValueSource(strings = {"notify", "poll"})
+    void committedChangesReachTheOtherNode(String mode) {
+        try (ConfigurableApplicationContext a = start(mode);
+             ConfigurableApplicationContext b = start(mode)) {
+            List<CatalogChangedEvent> changesOnA = recordCatalogChanges(a);
+            List<CatalogChangedEvent> changesOnB = recordCatalogChanges(b);
+            
+            // A product change on A marks B's catalog views stale, and A ignores its own echo.
+            // The stock change before it stays on A, so B hears about the product once
+            Long productId = a.getBean(ProductRepository.class).findAll().get(0).getId();
+            ProductService productsOnA = a.getBean(ProductService.class);
+            productsOnA.updateProductStock(productId, 0);
+            transaction(a).executeWithoutResult(status ->
+                    productsOnA.updateProduct(productId, productsOnA.getProductById(productId)));
+            CatalogChangedEvent productChange = new CatalogChangedEvent(productId, true);
+            awaitTrue(() -> changesOnB.contains(productChange));
+            assertEquals(1, changesOnB.stream().filter(productChange::equals).count());
+            assertFalse(changesOnA.stream().anyMatch(CatalogChangedEvent::isRemote));
+            
+            // A user signed in on B is loaded again once A changes them
+            UserProfileCache profilesOnB = b.getBean(UserProfileCache.class);
+            UserDetailsImpl john = (UserDetailsImpl) b.getBean(UserDetailsServiceImpl.class)
+                    .loadUserByUsername("john@test.com");
+            profilesOnB.putUserInCache(john);
+            transaction(a).executeWithoutResult(status -> a.publishEvent(new UserChangedEvent(john.getId())));
+            awaitTrue(() -> profilesOnB.getUserFromCache("john@test.com") == null);
+        }
+    }
+    
+    @ParameterizedTest
+    @ValueSource(strings = {"notify", "poll"})
+    void rolledBackChangesAreNeverSent(String mode) {
+        try (ConfigurableApplicationContext a = start(mode);
+             ConfigurableApplicationContext b = start(mode)) {
+            List<CatalogChangedEvent> changesOnB = recordCatalogChanges(b);
+            CacheCoherenceBus bus = a.getBean(CacheCoherenceBus.class);
+            
+            transaction(a).executeWithoutResult(status -> {
+                bus.publish(CacheEntity.PRODUCT, -1L);
+                status.setRollbackOnly();
+            });
+            transaction(a).executeWithoutResult(status -> bus.publish(CacheEntity.PRODUCT, -2L));
+            
+            // Changes arrive in commit order, so once the second is in the first would be too
+            awaitTrue(() -> changesOnB.contains(new CatalogChangedEvent(-2L, true)));
+            assertFalse(changesOnB.contains(new CatalogChangedEvent(-1L, true)));
+        }
+    }
+    
+    private static ConfigurableApplicationContext start(String mode) {
+        return new SpringApplicationBuilder(TechStoreApplication.class)
+                .profiles("test")
+                .properties(
+                        "spring.datasource.url=" + POSTGRES.getJdbcUrl(),
+                        "spring.datasource.username=" + POSTGRES.getUsername(),
+                        "spring.datasource.password=" + POSTGRES.getPassword(),
+                        "server.port=0",
+                        "cache.coherence.mode=" + mode,
+                        "cache.coherence.poll-interval=100")
+                .run();
+    }
+    
+    private static List<CatalogChangedEvent> recordCatalogChanges(ConfigurableApplicationContext context) {
+        List<CatalogChangedEvent> events = new CopyOnWriteArrayList<>();
+        context.addApplicationListener((PayloadApplicationEvent<?> event) -> {
+            if (event.getPayload() instanceof CatalogChangedEvent change) {
+                events.add(change);
+            }
+        });
+        return events;
+    }
+    
+    private static TransactionTemplate transaction(ConfigurableApplicationContext context) {
+        return new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+    
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + DELIVERY.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "not delivered within " + DELIVERY);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(ex);
+            }
+        }
+    }
+}
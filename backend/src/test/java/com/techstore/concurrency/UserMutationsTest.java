@@ -0,0 +1,201 @@
+package com.techstore.concurrency;
+
+import com.techstore.model.Cart;
+import com.techstore.model.Product;
+import com.techstore.model.ShippingAddress;
+import com.techstore.repository.ProductRepository;
+import com.techstore.repository.UserRepository;
+import com.techstore.service.CartService;
+import com.techstore.service.OrderService;
+import com.techstore.support.TestcontainersConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTimeout;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Hammers one user's cart from many threads at once, the way a double-clicked
+ * checkout or several open tabs would, and checks that no update is lost.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestcontainersConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+class UserMutationsTest {
+    
+    private static final int THREADS = 8;
+    
+    @Autowired
+    private UserMutations userMutations;
+    
+    @Autowired
+    private CartService cartService;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private Long userId;
+    private List<Long> productIds;
+    
+    @BeforeEach
+    void emptyCart() {
+        userId = userRepository.findByEmail("sarah@test.com").orElseThrow().getId();
+        productIds = productRepository.findAll(PageRequest.of(0, 3, Sort.by("stockQuantity").descending()))
+                .map(Product::getId)
+                .getContent();
+        cartService.clearCart(userId);
+    }
+    
+    @Test
+    void concurrentCartUpdatesAreNotLost() throws Exception {
+        int perThread = 5;
+        
+        concurrently(thread -> {
+            for (int i = 0; i < perThread; i++) {
+                cartService.addItemToCart(userId, productIds.get((thread + i) % productIds.size()), 1);
+            }
+        });
+        
+        Cart cart = cartService.getCartByUserId(userId);
+        assertEquals(productIds.size(), cart.getItems().size(), "one line per product");
+        assertEquals(THREADS * perThread, cart.getItems().stream().mapToInt(item -> item.getQuantity()).sum());
+    }
+    
+    @Test
+    void doubleSubmittedCheckoutCreatesOneOrder() throws Exception {
+        cartService.addItemToCart(userId, productIds.get(0), 1);
+        cartService.addItemToCart(userId, productIds.get(1), 2);
+        int ordersBefore = countOrders();
+        AtomicInteger rejected = new AtomicInteger();
+        
+        concurrently(thread -> {
+            try {
+                orderService.createOrder(userId, new ShippingAddress(
+                        "1 Main St", "Springfield", "IL", "62701", "US", "+1-555-0103"));
+            } catch (RuntimeException ex) {
+                assertEquals("Cart is empty", ex.getMessage());
+                rejected.incrementAndGet();
+            }
+        });
+        
+        assertEquals(ordersBefore + 1, countOrders());
+        assertEquals(THREADS - 1, rejected.get());
+        assertTrue(cartService.getCartByUserId(userId).getItems().isEmpty());
+    }
+    
+    @Test
+    void writeFromAnotherNodeIsRetriedOnFreshState() {
+        cartService.addItemToCart(userId, productIds.get(0), 1);
+        AtomicInteger attempts = new AtomicInteger();
+        
+        Cart cart = userMutations.run(userId, () -> {
+            Cart current = cartService.getCartByUserId(userId);
+            if (attempts.incrementAndGet() == 1) {
+                // Another instance commits a change to the same line while this transaction is open
+                CompletableFuture.runAsync(() -> jdbcTemplate.update(
+                        "UPDATE cart_items SET quantity = quantity + 1, version = version + 1 WHERE cart_id = ?",
+                        current.getId())).join();
+            }
+            current.getItems().get(0).setQuantity(current.getItems().get(0).getQuantity() + 1);
+            return current;
+        });
+        
+        assertEquals(2, attempts.get());
+        assertEquals(3, cartService.getCartByUserId(userId).getItems().get(0).getQuantity());
+        assertEquals(cart.getId(), cartService.getCartByUserId(userId).getId());
+    }
+    
+    @Test
+    void otherUsersAreNotBlocked() throws Exception {
+        Long otherUserId = userRepository.findByEmail("david@test.com").orElseThrow().getId();
+        assertNotSame(userMutations.stripeFor(userId), userMutations.stripeFor(otherUserId));
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> holder = executor.submit(() -> userMutations.run(userId, () -> {
+                held.countDown();
+                await(release);
+            }));
+            await(held);
+            
+            assertTimeout(Duration.ofSeconds(2), () -> cartService.clearCart(otherUserId));
+            
+            release.countDown();
+            holder.get(10, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+    
+    private int countOrders() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM orders WHERE user_id = ?", Integer.class, userId);
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+    
+    private void concurrently(ThreadBody body) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                int index = thread;
+                results.add(executor.submit(() -> {
+                    await(start);
+                    body.run(index);
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    private interface ThreadBody {
+        void run(int thread);
+    }
+}
@@ -0,0 +1,53 @@
+package com.techstore.config;
+
+import com.techstore.service.FuzzySearchService;
+import com.techstore.service.SuggestionService;
+import com.techstore.support.TestcontainersConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// A context of its own, so its container starts from an empty database
+@SpringBootTest(properties = {
+        "data.seed.mode=async",
+        "search.suggest.min-rebuild-interval=3600000",
+        "search.fuzzy.min-rebuild-interval=3600000"})
+@ActiveProfiles("test")
+@Import(TestcontainersConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+class DataSeederTest {
+    
+    @Autowired
+    private SuggestionService suggestionService;
+    
+    @Autowired
+    private FuzzySearchService fuzzySearchService;
+    
+    @Test
+    void asyncSeedingOfAFreshDatabaseIsIndexedOnceItFinishes() throws InterruptedException {
+        // Only the rebuild on DataSeededEvent can fill the indexes: stale checks wait an hour
+        assertTrue(eventually(() -> !suggestionService.suggest("macb", 5).isEmpty()),
+                "seeded products should be suggested");
+        assertTrue(eventually(() -> fuzzySearchService.search("macbok", PageRequest.of(0, 5)).hasContent()),
+                "seeded products should be found despite the typo");
+    }
+    
+    private static boolean eventually(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 60_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            Thread.sleep(100);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,45 @@
+package com.techstore.config;
+
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NativeImageConfigTest {
+    
+    private final RuntimeHints hints = new RuntimeHints();
+    
+    @BeforeEach
+    void registerHints() {
+        new NativeImageConfig.NativeImageHints().registerHints(hints, getClass().getClassLoader());
+    }
+    
+    @Test
+    void jjwtImplementationIsReachable() {
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("io.jsonwebtoken.impl.DefaultJwtBuilder")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("io.jsonwebtoken.impl.DefaultJwtParserBuilder")).test(hints));
+    }
+    
+    @Test
+    void jdbcProxiesAreRegistered() {
+        assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(ProxyJdbcObject.class, Connection.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(ProxyJdbcObject.class, PreparedStatement.class).test(hints));
+    }
+    
+    @Test
+    void ehcacheConfigurationModelIsBindable() {
+        assertTrue(RuntimeHintsPredicates.resource().forResource("ehcache.xml").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("ehcache-core.xsd").test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("org.ehcache.xml.model.ConfigType")).test(hints));
+    }
+}
@@ -0,0 +1,82 @@
+package com.techstore.config;
+
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Option;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReactiveCatalogConfigTest {
+
+    @Test
+    void tlsSchemaAndSessionParametersCarryOver() {
+        ConnectionFactoryOptions options = ReactiveCatalogConfig.options(jdbc(
+                "jdbc:postgresql://db.internal:5432/techstore?sslmode=verify-full&sslrootcert=%2Fcerts%2Froot.crt"
+                        + "&currentSchema=store&ApplicationName=techstore%20api&connectTimeout=5"
+                        + "&options=-c%20statement_timeout%3D5000&prepareThreshold=3"), "");
+
+        assertEquals("db.internal", options.getValue(ConnectionFactoryOptions.HOST));
+        assertEquals(5432, options.getValue(ConnectionFactoryOptions.PORT));
+        assertEquals("techstore", options.getValue(ConnectionFactoryOptions.DATABASE));
+        assertEquals("verify-full", options.getValue(Option.valueOf("sslMode")));
+        assertEquals("/certs/root.crt", options.getValue(Option.valueOf("sslRootCert")));
+        assertEquals("techstore api", options.getValue(Option.valueOf("applicationName")));
+        assertEquals(Duration.ofSeconds(5), options.getValue(ConnectionFactoryOptions.CONNECT_TIMEOUT));
+        assertEquals(Map.of("search_path", "store", "statement_timeout", "5000"),
+                options.getValue(Option.valueOf("options")));
+        assertEquals("app", options.getValue(ConnectionFactoryOptions.USER));
+    }
+
+    @Test
+    void sslFlagAloneTurnsOnTls() {
+        ConnectionFactoryOptions options = ReactiveCatalogConfig.options(
+                jdbc("jdbc:postgresql://db.internal/techstore?ssl=true"), null);
+
+        assertEquals(Boolean.TRUE, options.getValue(ConnectionFactoryOptions.SSL));
+        assertFalse(options.hasOption(Option.valueOf("options")));
+    }
+
+    @Test
+    void parametersWithoutAnR2dbcEquivalentFailStartup() {
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () -> ReactiveCatalogConfig.options(
+                jdbc("jdbc:postgresql://db.internal/techstore?sslfactory=org.example.Factory"), ""));
+        assertTrue(ex.getMessage().contains("sslfactory"));
+    }
+
+    @Test
+    void explicitR2dbcUrlWins() {
+        ConnectionFactoryOptions options = ReactiveCatalogConfig.options(
+                jdbc("jdbc:postgresql://db.internal/techstore?sslfactory=org.example.Factory"),
+                "r2dbc:postgresql://replica.internal/techstore?sslMode=require");
+
+        assertEquals("replica.internal", options.getValue(ConnectionFactoryOptions.HOST));
+        assertEquals("require", options.getValue(Option.valueOf("sslMode")));
+        assertEquals("secret", options.getValue(ConnectionFactoryOptions.PASSWORD));
+    }
+
+    private static JdbcConnectionDetails jdbc(String url) {
+        return new JdbcConnectionDetails() {
+            @Override
+            public String getUsername() {
+                return "app";
+            }
+
+            @Override
+            public String getPassword() {
+                return "secret";
+            }
+
+            @Override
+            public String getJdbcUrl() {
+                return url;
+            }
+        };
+    }
+}
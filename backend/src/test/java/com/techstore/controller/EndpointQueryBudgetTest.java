@@ -0,0 +1,169 @@
+package com.techstore.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import com.techstore.model.Product;
+import com.techstore.repository.CategoryRepository;
+import com.techstore.repository.ProductRepository;
+import com.techstore.security.UserDetailsImpl;
+import com.techstore.security.UserDetailsServiceImpl;
+import com.techstore.security.UserProfileCache;
+import com.techstore.service.CartService;
+import com.techstore.support.QueryBudgets;
+import com.techstore.support.TestcontainersConfiguration;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Fails when an endpoint issues more SQL statements than its recorded budget.
+ * Every call runs with the second-level and user caches evicted, so budgets
+ * describe the cold path and an N+1 over products, items or users shows up
+ * directly.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(TestcontainersConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+class EndpointQueryBudgetTest {
+    
+    private static final QueryBudgets BUDGETS = QueryBudgets.load();
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+    
+    @Autowired
+    private UserProfileCache userProfileCache;
+    
+    @Autowired
+    private CartService cartService;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private CategoryRepository categoryRepository;
+    
+    private List<Long> productIds;
+    
+    @BeforeEach
+    void loadSeededProducts() {
+        productIds = productRepository.findAll(PageRequest.of(0, 6, Sort.by("id")))
+                .map(Product::getId)
+                .getContent();
+    }
+    
+    @Test
+    void productEndpoints() throws Exception {
+        measure("GET /api/products", get("/api/products"));
+        measure("GET /api/products/{id}", get("/api/products/" + productIds.get(0)));
+        measure("GET /api/products/search", get("/api/products/search").param("keyword", "pro"));
+        measure("GET /api/products/search (fuzzy)", get("/api/products/search")
+                .param("keyword", "samsnug galxy").param("fuzzy", "true"));
+        measure("GET /api/products/category/{categoryId}", get("/api/products/category/"
+                + categoryRepository.findByName("Laptops").orElseThrow().getId()));
+        measure("GET /api/products/deals", get("/api/products/deals"));
+        measure("GET /api/products/bestsellers", get("/api/products/bestsellers"));
+        measure("GET /api/products/price-range", get("/api/products/price-range")
+                .param("minPrice", "100").param("maxPrice", "2000"));
+        measure("GET /api/products/brands", get("/api/products/brands"));
+        measure("GET /api/products/{id}/related", get("/api/products/" + productIds.get(3) + "/related"));
+        measure("GET /api/products/suggest", get("/api/products/suggest").param("q", "pro"));
+    }
+    
+    @Test
+    void cartEndpoints() throws Exception {
+        UserDetailsImpl john = login("john@test.com");
+        
+        measure("POST /api/cart/items", post("/api/cart/items").with(user(john))
+                .param("productId", productIds.get(0).toString()).param("quantity", "1"));
+        cartService.addItemToCart(john.getId(), productIds.get(1), 1);
+        cartService.addItemToCart(john.getId(), productIds.get(2), 1);
+        
+        measure("GET /api/cart", get("/api/cart").with(user(john)));
+        measure("PUT /api/cart/items/{productId}", put("/api/cart/items/" + productIds.get(0))
+                .with(user(john)).param("quantity", "2"));
+        measure("DELETE /api/cart/items/{productId}", delete("/api/cart/items/" + productIds.get(1))
+                .with(user(john)));
+        measure("DELETE /api/cart", delete("/api/cart").with(user(john)));
+    }
+    
+    @Test
+    void orderEndpoints() throws Exception {
+        UserDetailsImpl jane = login("jane@test.com");
+        cartService.addItemToCart(jane.getId(), productIds.get(3), 1);
+        cartService.addItemToCart(jane.getId(), productIds.get(4), 1);
+        cartService.addItemToCart(jane.getId(), productIds.get(5), 1);
+        
+        MvcResult created = measure("POST /api/orders", post("/api/orders").with(user(jane))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"street": "1 Main St", "city": "Springfield", "state": "IL",
+                         "zipCode": "62701", "country": "US", "phoneNumber": "+1-555-0101"}
+                        """));
+        Integer orderId = JsonPath.read(created.getResponse().getContentAsString(), "$.id");
+        String orderNumber = JsonPath.read(created.getResponse().getContentAsString(), "$.orderNumber");
+        
+        measure("GET /api/orders", get("/api/orders").with(user(jane)));
+        measure("GET /api/orders/{orderId}", get("/api/orders/" + orderId).with(user(jane)));
+        measure("GET /api/orders/number/{orderNumber}",
+                get("/api/orders/number/" + orderNumber).with(user(jane)));
+    }
+    
+    @Test
+    void authEndpoints() throws Exception {
+        measure("POST /api/auth/register", post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"email": "budget@test.com", "password": "password123",
+                         "firstName": "Budget", "lastName": "Test"}
+                        """));
+        measure("POST /api/auth/login", post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"email": "mike@test.com", "password": "password123"}
+                        """));
+    }
+    
+    private MvcResult measure(String endpoint, MockHttpServletRequestBuilder request) throws Exception {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        userProfileCache.clear();
+        
+        QueryBudgets.startCounting();
+        MvcResult result = mockMvc.perform(request)
+                .andExpect(status().is2xxSuccessful())
+                .andReturn();
+        BUDGETS.assertWithinBudget(endpoint);
+        
+        return result;
+    }
+    
+    private UserDetailsImpl login(String email) {
+        return (UserDetailsImpl) userDetailsService.loadUserByUsername(email);
+    }
+}
@@ -0,0 +1,92 @@
+package com.techstore.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techstore.repository.ProductRepository;
+import com.techstore.support.TestcontainersConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The reactive read path must answer exactly like the JPA one; only the
+ * threads and connections behind it differ.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@Import(TestcontainersConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+class ReactiveProductControllerTest {
+    
+    @Autowired
+    private TestRestTemplate restTemplate;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Test
+    void pagesMatchTheBlockingEndpoints() throws Exception {
+        assertSameBody("?page=0&size=5");
+        assertSameBody("?page=1&size=5&sort=price,desc");
+        // Unsorted JPA pages come in table order; the reactive ones are always ordered by id
+        assertSameBody("/search?keyword=pro&page=0&size=5&sort=id");
+        assertSameBody("/search?keyword=no-such-product");
+        assertSameBody("/brands");
+    }
+    
+    @Test
+    void detailMatchesTheBlockingEndpoint() throws Exception {
+        Long id = productRepository.findAll().get(0).getId();
+        assertSameBody("/" + id);
+        
+        ResponseEntity<String> missing = restTemplate.getForEntity("/api/reactive/products/-1", String.class);
+        assertEquals(HttpStatus.NOT_FOUND, missing.getStatusCode());
+    }
+    
+    @Test
+    void streamWritesEveryActiveProductAsOneLine() throws Exception {
+        ResponseEntity<String> response = restTemplate.exchange(RequestEntity
+                .get(URI.create("/api/reactive/products/stream"))
+                .accept(MediaType.APPLICATION_NDJSON)
+                .build(), String.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        
+        List<Long> ids = new ArrayList<>();
+        for (String line : response.getBody().split("\n")) {
+            JsonNode product = objectMapper.readTree(line);
+            assertTrue(product.get("imageUrls").isArray());
+            ids.add(product.get("id").asLong());
+        }
+        
+        long active = productRepository.findAll().stream().filter(p -> p.isActive()).count();
+        assertEquals(active, ids.size());
+        assertEquals(ids.stream().sorted().toList(), ids);
+    }
+    
+    private void assertSameBody(String path) throws Exception {
+        ResponseEntity<String> blocking = restTemplate.getForEntity("/api/products" + path, String.class);
+        ResponseEntity<String> reactive = restTemplate.getForEntity("/api/reactive/products" + path, String.class);
+        
+        assertEquals(HttpStatus.OK, blocking.getStatusCode(), path);
+        assertEquals(HttpStatus.OK, reactive.getStatusCode(), path);
+        assertEquals(objectMapper.readTree(blocking.getBody()), objectMapper.readTree(reactive.getBody()), path);
+    }
+}
@@ -0,0 +1,129 @@
+package com.techstore.datasource;
+
+import com.techstore.security.UserDetailsImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Two independent Postgres instances stand in for a primary and a replica;
+ * {@code current_database()} tells which one served a transaction.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ReadWriteRoutingDataSourceTest {
+    
+    @Container
+    static final PostgreSQLContainer<?> PRIMARY = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("techstore_primary");
+    
+    @Container
+    static final PostgreSQLContainer<?> REPLICA = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("techstore_replica");
+    
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+    
+    @Test
+    void readOnlyTransactionsUseTheReplica() {
+        Routing routing = new Routing(List.of(new Replica("replica-1", dataSource(REPLICA))));
+        
+        assertEquals("techstore_replica", routing.databaseFor(true));
+        assertEquals("techstore_primary", routing.databaseFor(false));
+    }
+    
+    @Test
+    void readsAreBalancedAcrossReplicas() {
+        new JdbcTemplate(dataSource(REPLICA)).execute("CREATE DATABASE techstore_replica_two");
+        DriverManagerDataSource second = dataSource(REPLICA);
+        second.setUrl(REPLICA.getJdbcUrl().replace("/techstore_replica", "/techstore_replica_two"));
+        
+        Routing routing = new Routing(List.of(
+                new Replica("replica-1", dataSource(REPLICA)),
+                new Replica("replica-2", second)));
+        
+        Set<String> served = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            served.add(routing.databaseFor(true));
+        }
+        
+        assertEquals(Set.of("techstore_replica", "techstore_replica_two"), served);
+    }
+    
+    @Test
+    void unreachableReplicaFallsBackToPrimary() {
+        DriverManagerDataSource unreachable = dataSource(REPLICA);
+        unreachable.setUrl("jdbc:postgresql://localhost:1/techstore_replica");
+        Replica replica = new Replica("replica-1", unreachable);
+        
+        Routing routing = new Routing(List.of(replica));
+        
+        assertFalse(replica.isAvailable());
+        assertEquals("techstore_primary", routing.databaseFor(true));
+    }
+    
+    @Test
+    void usersReadTheirOwnWritesFromThePrimary() {
+        Routing routing = new Routing(List.of(new Replica("replica-1", dataSource(REPLICA))));
+        
+        authenticate(1L);
+        routing.databaseFor(false);
+        assertEquals("techstore_primary", routing.databaseFor(true));
+        
+        authenticate(2L);
+        assertEquals("techstore_replica", routing.databaseFor(true));
+    }
+    
+    private void authenticate(Long userId) {
+        UserDetailsImpl user = new UserDetailsImpl(userId, "user" + userId + "@test.com", "", null, null, List.of());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+    
+    private static DriverManagerDataSource dataSource(PostgreSQLContainer<?> container) {
+        return new DriverManagerDataSource(
+                container.getJdbcUrl(), container.getUsername(), container.getPassword());
+    }
+    
+    private static class Routing {
+        
+        private final JdbcTemplate jdbcTemplate;
+        private final TransactionTemplate transactionTemplate;
+        
+        Routing(List<Replica> replicas) {
+            ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(
+                    dataSource(PRIMARY), replicas, new ReadYourWritesTracker(Duration.ofSeconds(10)));
+            routingDataSource.afterPropertiesSet();
+            new ReplicaLagMonitor(routingDataSource, Duration.ofSeconds(5)).checkReplicas();
+            
+            DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+            this.jdbcTemplate = new JdbcTemplate(dataSource);
+            this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        }
+        
+        String databaseFor(boolean readOnly) {
+            transactionTemplate.setReadOnly(readOnly);
+            return transactionTemplate.execute(status ->
+                    jdbcTemplate.queryForObject("SELECT current_database()", String.class));
+        }
+    }
+}
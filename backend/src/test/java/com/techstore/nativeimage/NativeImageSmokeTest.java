@@ -0,0 +1,125 @@
+package com.techstore.nativeimage;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techstore.support.ApplicationProcess;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives the native executable over HTTP through the paths that depend on
+ * reachability metadata: JSON binding, Hibernate lazy loading and the second
+ * level cache, BCrypt, and JWT issue and validation. Build with
+ * {@code mvn -Pnative -DskipTests package}, then, with a database configured,
+ * {@code mvn test -Dtest=NativeImageSmokeTest -Dnative.binary=target/techstore-backend}.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "native.binary", matches = ".+")
+class NativeImageSmokeTest {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    private ApplicationProcess app;
+    
+    @BeforeAll
+    void startBinary() throws Exception {
+        String binary = Path.of(System.getProperty("native.binary")).toAbsolutePath().toString();
+        app = ApplicationProcess.executable(List.of(binary), "--data.seed.mode=sync");
+        app.awaitReady(Duration.ofSeconds(60));
+    }
+    
+    @AfterAll
+    void stopBinary() throws Exception {
+        app.close();
+    }
+    
+    @Test
+    void catalog() throws Exception {
+        JsonNode page = getJson("/api/products?size=12", null);
+        assertFalse(page.get("content").isEmpty());
+        
+        JsonNode first = page.get("content").get(0);
+        JsonNode product = getJson("/api/products/" + first.get("id").asLong(), null);
+        assertEquals(first.get("name").asText(), product.get("name").asText());
+        assertTrue(product.get("category").hasNonNull("name"));
+        
+        assertFalse(getJson("/api/products/search?keyword=pro", null).get("content").isEmpty());
+    }
+    
+    @Test
+    void registerAndLogin() throws Exception {
+        String email = "native-" + UUID.randomUUID() + "@test.com";
+        register(email);
+        
+        JsonNode login = postJson("/api/auth/login", """
+                {"email": "%s", "password": "password123"}
+                """.formatted(email), null);
+        assertEquals(email, login.get("email").asText());
+        assertEquals("ROLE_USER", login.get("roles").get(0).asText());
+    }
+    
+    @Test
+    void cartAndCheckout() throws Exception {
+        String token = register("native-" + UUID.randomUUID() + "@test.com");
+        long productId = getJson("/api/products?size=1", null).get("content").get(0).get("id").asLong();
+        
+        postJson("/api/cart/items?productId=" + productId + "&quantity=1", "", token);
+        JsonNode cart = getJson("/api/cart", token);
+        assertEquals(productId, cart.get("items").get(0).get("product").get("id").asLong());
+        
+        JsonNode order = postJson("/api/orders", """
+                {"street": "1 Main St", "city": "Springfield", "state": "IL", "zipCode": "62701", "country": "USA"}
+                """, token);
+        assertEquals(1, order.get("items").size());
+        
+        JsonNode intent = postJson("/api/payments/create-intent?orderId=" + order.get("id").asLong(), "", token);
+        assertTrue(intent.get("clientSecret").asText().startsWith("pi_mock_"));
+        
+        HttpResponse<String> anonymous = app.send(HttpRequest.newBuilder(app.uri("/api/cart")));
+        assertTrue(anonymous.statusCode() == 401 || anonymous.statusCode() == 403);
+    }
+    
+    private String register(String email) throws Exception {
+        return postJson("/api/auth/register", """
+                {"email": "%s", "password": "password123", "firstName": "Native", "lastName": "Smoke"}
+                """.formatted(email), null).get("token").asText();
+    }
+    
+    private JsonNode getJson(String path, String token) throws Exception {
+        return read(request(path, token).GET());
+    }
+    
+    private JsonNode postJson(String path, String body, String token) throws Exception {
+        return read(request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)));
+    }
+    
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(app.uri(path));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return request;
+    }
+    
+    private JsonNode read(HttpRequest.Builder request) throws Exception {
+        HttpResponse<String> response = app.send(request);
+        assertEquals(200, response.statusCode(), response::body);
+        return objectMapper.readTree(response.body());
+    }
+}
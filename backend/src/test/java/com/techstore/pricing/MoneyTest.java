@@ -0,0 +1,59 @@
+package com.techstore.pricing;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MoneyTest {
+    
+    @Test
+    void divisionRoundsLikeBigDecimalInEveryMode() {
+        Random random = new Random(11);
+        for (int i = 0; i < 100_000; i++) {
+            long dividend = random.nextLong() >> random.nextInt(64);
+            long divisor = (random.nextBoolean() ? 1 : -1) * (1 + (random.nextLong() >>> 1 >> random.nextInt(63)));
+            // Exact halves are the cases that tell the HALF_ modes apart
+            if (i % 4 == 0) {
+                dividend = divisor * (random.nextInt(2001) - 1000) + divisor / 2;
+            }
+            
+            for (RoundingMode mode : RoundingMode.values()) {
+                if (mode == RoundingMode.UNNECESSARY) {
+                    continue;
+                }
+                long expected = BigDecimal.valueOf(dividend)
+                        .divide(BigDecimal.valueOf(divisor), 0, mode)
+                        .longValueExact();
+                assertEquals(expected, Money.divide(dividend, divisor, mode), dividend + " / " + divisor + " " + mode);
+            }
+        }
+    }
+    
+    @Test
+    void unnecessaryRoundingOnlyFailsWhenThereIsARemainder() {
+        assertEquals(-3, Money.divide(-12, 4, RoundingMode.UNNECESSARY));
+        assertThrows(ArithmeticException.class, () -> Money.divide(13, 4, RoundingMode.UNNECESSARY));
+    }
+    
+    @Test
+    void convertsToAndFromCents() {
+        assertEquals(1999, Money.toMinor(new BigDecimal("19.99")));
+        assertEquals(1000, Money.toMinor(BigDecimal.TEN));
+        assertEquals(2000, Money.toMinor(new BigDecimal("19.995")));
+        assertEquals(-1, Money.toMinor(new BigDecimal("-0.005")));
+        assertEquals(new BigDecimal("19.99"), Money.toBigDecimal(1999));
+        assertEquals(new BigDecimal("-0.05"), Money.toBigDecimal(-5));
+    }
+    
+    @Test
+    void overflowFailsInsteadOfWrapping() {
+        assertThrows(ArithmeticException.class, () -> Money.times(Long.MAX_VALUE / 2, 3));
+        assertThrows(ArithmeticException.class, () -> Money.percentOf(Long.MAX_VALUE / 100, 1_000, RoundingMode.HALF_UP));
+        assertThrows(ArithmeticException.class, () -> Money.toMinor(new BigDecimal("1e30")));
+    }
+}
@@ -0,0 +1,72 @@
+package com.techstore.pricing;
+
+import com.techstore.model.CartItem;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PricingEngineTest {
+    
+    private final PricingEngine engine = new PricingEngine(
+            new PercentageTax(new BigDecimal("0.0825"), RoundingMode.HALF_UP),
+            new FlatRateShipping(1000, 10_000));
+    
+    @Test
+    void totalIsTheSumOfTheRoundedParts() {
+        PricingEngine.Totals totals = engine.totals(List.of(line("19.99", 3), line("0.05", 1)));
+        
+        assertEquals(6002, totals.subtotal());
+        // 8.25% of 60.02 is 4.95165
+        assertEquals(495, totals.tax());
+        assertEquals(1000, totals.shipping());
+        assertEquals(6002 + 495 + 1000, totals.total());
+    }
+    
+    @Test
+    void shippingIsWaivedFromTheThreshold() {
+        assertEquals(1000, engine.totals(9_999).shipping());
+        assertEquals(0, engine.totals(10_000).shipping());
+        assertEquals(1000, new FlatRateShipping(1000, 0).shipping(1_000_000));
+    }
+    
+    @Test
+    void taxRoundsWithTheConfiguredMode() {
+        // 10% of 0.15 is exactly 1.5 cents
+        assertEquals(2, new PercentageTax(new BigDecimal("0.10"), RoundingMode.HALF_UP).tax(15));
+        assertEquals(2, new PercentageTax(new BigDecimal("0.10"), RoundingMode.HALF_EVEN).tax(15));
+        assertEquals(2, new PercentageTax(new BigDecimal("0.10"), RoundingMode.HALF_EVEN).tax(25));
+        assertEquals(1, new PercentageTax(new BigDecimal("0.10"), RoundingMode.DOWN).tax(19));
+    }
+    
+    @Test
+    void matchesTheStoredAmountsOfTheBigDecimalCalculation() {
+        PricingEngine tenPercentFlatTen = new PricingEngine(
+                new PercentageTax(new BigDecimal("0.10"), RoundingMode.HALF_UP),
+                new FlatRateShipping(1000, 0));
+        List<CartItem> items = List.of(line("1299.99", 1), line("24.95", 2), line("3.33", 7));
+        
+        BigDecimal subtotal = BigDecimal.ZERO;
+        for (CartItem item : items) {
+            subtotal = subtotal.add(item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())));
+        }
+        BigDecimal tax = subtotal.multiply(BigDecimal.valueOf(0.1));
+        BigDecimal total = subtotal.add(tax).add(BigDecimal.valueOf(10));
+        
+        // Columns are NUMERIC(38, 2), which is where the old amounts were rounded
+        PricingEngine.Totals totals = tenPercentFlatTen.totals(items);
+        assertEquals(Money.toMinor(subtotal), totals.subtotal());
+        assertEquals(Money.toMinor(tax), totals.tax());
+        assertEquals(Money.toMinor(total), totals.total());
+    }
+    
+    private static CartItem line(String price, int quantity) {
+        CartItem item = new CartItem();
+        item.setPrice(new BigDecimal(price));
+        item.setQuantity(quantity);
+        return item;
+    }
+}
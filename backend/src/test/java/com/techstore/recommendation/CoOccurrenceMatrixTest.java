@@ -0,0 +1,85 @@
+package com.techstore.recommendation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CoOccurrenceMatrixTest {
+    
+    @Test
+    void countsEveryPairInBothDirections() {
+        CoOccurrenceMatrix matrix = new CoOccurrenceMatrix();
+        matrix.addOrder(new long[] {1, 2, 3});
+        matrix.addOrder(new long[] {1, 2});
+        
+        assertEquals(2, matrix.count(1, 2));
+        assertEquals(2, matrix.count(2, 1));
+        assertEquals(1, matrix.count(3, 1));
+        assertEquals(0, matrix.count(3, 4));
+    }
+    
+    @Test
+    void topKRanksByCountThenLowerId() {
+        CoOccurrenceMatrix matrix = new CoOccurrenceMatrix();
+        matrix.addOrder(new long[] {1, 5});
+        matrix.addOrder(new long[] {1, 5});
+        matrix.addOrder(new long[] {1, 4});
+        matrix.addOrder(new long[] {1, 3});
+        matrix.addOrder(new long[] {1, 2});
+        
+        assertArrayEquals(new long[] {5, 2, 3}, matrix.topK(1, 3, 1));
+        assertArrayEquals(new long[] {5}, matrix.topK(1, 3, 2));
+        assertArrayEquals(new long[0], matrix.topK(99, 3, 1));
+    }
+    
+    @Test
+    void parallelBuildMatchesSequentialCounting() {
+        Random random = new Random(42);
+        int orders = 60_000;
+        long[] orderIds = new long[orders * 4];
+        long[] productIds = new long[orders * 4];
+        int size = 0;
+        CoOccurrenceMatrix expected = new CoOccurrenceMatrix();
+        
+        for (long orderId = 1; orderId <= orders; orderId++) {
+            int lines = 1 + random.nextInt(4);
+            long[] products = new long[lines];
+            for (int i = 0; i < lines; i++) {
+                products[i] = 1 + random.nextInt(500);
+                orderIds[size] = orderId;
+                productIds[size++] = products[i];
+            }
+            expected.addOrder(CoOccurrenceBuilder.distinct(products));
+        }
+        
+        CoOccurrenceMatrix built = CoOccurrenceBuilder.build(orderIds, productIds, size, ForkJoinPool.commonPool());
+        
+        long[] products = built.products();
+        Arrays.sort(products);
+        long[] expectedProducts = expected.products();
+        Arrays.sort(expectedProducts);
+        assertArrayEquals(expectedProducts, products);
+        for (long productId : products) {
+            assertArrayEquals(expected.topK(productId, 500, 1), built.topK(productId, 500, 1));
+        }
+    }
+    
+    @Test
+    void mapsGrowPastTheirInitialCapacity() {
+        LongIntHashMap map = new LongIntHashMap();
+        for (long key = 1; key <= 10_000; key++) {
+            map.addTo(key * 31, (int) key);
+        }
+        map.addTo(31, 5);
+        
+        assertEquals(10_000, map.size());
+        assertEquals(6, map.get(31));
+        assertEquals(10_000, map.get(310_000));
+        assertEquals(0, map.get(32));
+    }
+}
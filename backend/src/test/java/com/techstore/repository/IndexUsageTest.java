@@ -0,0 +1,123 @@
+package com.techstore.repository;
+
+import com.techstore.support.TestcontainersConfiguration;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs EXPLAIN on the SQL behind the repository finders against analyzed
+ * sample data and checks that the planner picks the migration indexes.
+ * Sequential scans are disabled because a LIMIT over a few thousand rows is
+ * cheap either way; the assertion is about which index serves the predicate.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(TestcontainersConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+@Sql("/index-usage-data.sql")
+class IndexUsageTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void disableSequentialScans() {
+        entityManager.createNativeQuery("SET LOCAL enable_seqscan = off").executeUpdate();
+    }
+
+    @Test
+    void productsByCategory() {
+        assertUsesIndex("idx_products_category_id_active",
+                "SELECT * FROM products WHERE category_id = 1 AND active = true LIMIT 12");
+    }
+
+    @Test
+    void productsByPriceRange() {
+        assertUsesIndex("idx_products_price_active",
+                "SELECT * FROM products WHERE active = true AND price BETWEEN 100 AND 500 LIMIT 12");
+    }
+
+    @Test
+    void discountedProducts() {
+        assertUsesIndex("idx_products_discounted",
+                "SELECT * FROM products WHERE active = true AND discount_price IS NOT NULL LIMIT 12");
+    }
+
+    @Test
+    void productsByBrand() {
+        assertUsesIndex("idx_products_brand_active",
+                "SELECT * FROM products WHERE brand = 'Apple' AND active = true");
+    }
+
+    @Test
+    void productSearch() {
+        String plan = explain("SELECT * FROM products WHERE active = true AND ("
+                + "lower(name) LIKE lower('%' || 'headphones' || '%') OR "
+                + "lower(description) LIKE lower('%' || 'headphones' || '%') OR "
+                + "lower(brand) LIKE lower('%' || 'headphones' || '%'))");
+
+        assertTrue(plan.contains("idx_products_name_trgm")
+                && plan.contains("idx_products_description_trgm")
+                && plan.contains("idx_products_brand_trgm"), plan);
+    }
+
+    @Test
+    void ordersByUser() {
+        assertUsesIndex("idx_orders_user_id_created_at",
+                "SELECT * FROM orders WHERE user_id = 1 ORDER BY created_at DESC LIMIT 10");
+    }
+
+    @Test
+    void orderByPaymentIntent() {
+        assertUsesIndex("idx_orders_payment_intent_id",
+                "SELECT * FROM orders WHERE payment_intent_id = 'pi_mock_1'");
+    }
+
+    @Test
+    void orderItemsByOrder() {
+        assertUsesIndex("idx_order_items_order_id",
+                "SELECT * FROM order_items WHERE order_id IN (1, 2, 3)");
+    }
+
+    @Test
+    void cartItemsByCart() {
+        assertUsesIndex("idx_cart_items_cart_id",
+                "SELECT * FROM cart_items WHERE cart_id = 1");
+    }
+
+    @Test
+    void reviewByProductAndUser() {
+        assertUsesIndex("idx_reviews_product_id_user_id",
+                "SELECT * FROM reviews WHERE product_id = 1 AND user_id = 1");
+    }
+
+    @Test
+    void rolesByUser() {
+        assertUsesIndex("idx_user_roles_user_id",
+                "SELECT * FROM user_roles WHERE user_id = 1");
+    }
+
+    private void assertUsesIndex(String index, String sql) {
+        String plan = explain(sql);
+        assertTrue(plan.contains(index), () -> "Expected " + index + " in plan:\n" + plan);
+    }
+
+    @SuppressWarnings("unchecked")
+    private String explain(String sql) {
+        List<String> lines = entityManager.createNativeQuery("EXPLAIN " + sql).getResultList();
+        return String.join("\n", lines);
+    }
+}
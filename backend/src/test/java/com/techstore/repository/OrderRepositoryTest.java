@@ -0,0 +1,83 @@
+package com.techstore.repository;
+
+import com.techstore.model.Order;
+import com.techstore.support.TestcontainersConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/** The conditional update behind payment intents, against the real schema. */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(TestcontainersConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+class OrderRepositoryTest {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private Long orderId;
+
+    @BeforeEach
+    void placeOrder() {
+        Order order = new Order();
+        order.setOrderNumber("ORD-TEST-" + System.nanoTime());
+        order.setSubtotal(new BigDecimal("100.00"));
+        order.setTax(new BigDecimal("10.00"));
+        order.setShippingCost(new BigDecimal("10.00"));
+        order.setTotal(new BigDecimal("120.00"));
+        order.setStatus(Order.OrderStatus.PENDING);
+        order.setPaymentStatus(Order.PaymentStatus.PENDING);
+        orderId = orderRepository.saveAndFlush(order).getId();
+    }
+
+    @Test
+    void intentIsAssignedOnlyOnce() {
+        assertEquals(1, orderRepository.assignPaymentIntent(orderId, "pi_first"));
+        assertEquals(0, orderRepository.assignPaymentIntent(orderId, "pi_second"));
+
+        OrderRepository.PaymentView view = orderRepository.findPaymentViewById(orderId).orElseThrow();
+        assertEquals("pi_first", view.getPaymentIntentId());
+        assertEquals(Order.PaymentStatus.PENDING, view.getPaymentStatus());
+        assertEquals(0, new BigDecimal("120.00").compareTo(view.getTotal()));
+    }
+
+    @Test
+    void failedPaymentTakesANewIntent() {
+        orderRepository.assignPaymentIntent(orderId, "pi_failed");
+        Order order = orderRepository.findById(orderId).orElseThrow();
+        order.setPaymentStatus(Order.PaymentStatus.FAILED);
+        orderRepository.saveAndFlush(order);
+
+        assertEquals(1, orderRepository.assignPaymentIntent(orderId, "pi_retry"));
+        assertEquals(0, orderRepository.assignPaymentIntent(orderId, "pi_late"));
+
+        OrderRepository.PaymentView view = orderRepository.findPaymentViewById(orderId).orElseThrow();
+        assertEquals("pi_retry", view.getPaymentIntentId());
+        assertEquals(Order.PaymentStatus.PENDING, view.getPaymentStatus());
+    }
+
+    @Test
+    void cancelledOrderTakesNoIntent() {
+        Order order = orderRepository.findById(orderId).orElseThrow();
+        order.setStatus(Order.OrderStatus.CANCELLED);
+        orderRepository.saveAndFlush(order);
+
+        assertEquals(0, orderRepository.assignPaymentIntent(orderId, "pi_cancelled"));
+
+        OrderRepository.PaymentView view = orderRepository.findPaymentViewById(orderId).orElseThrow();
+        assertNull(view.getPaymentIntentId());
+        assertEquals(Order.OrderStatus.CANCELLED, view.getStatus());
+    }
+}
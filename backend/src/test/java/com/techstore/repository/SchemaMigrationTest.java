@@ -0,0 +1,90 @@
+package com.techstore.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Runs the migrations the two ways a database reaches them: empty, from V1,
+ * and baselined at V1 from the schema Hibernate's ddl-auto=create left behind.
+ * Each case gets its own database in one Postgres container.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class SchemaMigrationTest {
+
+    private static final List<String> POOLED = List.of("orders", "order_items", "cart_items");
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Test
+    void emptyDatabaseMigratesFromV1() {
+        DriverManagerDataSource dataSource = database("from_v1");
+
+        migrate(dataSource);
+
+        assertPooledIds(new JdbcTemplate(dataSource), 0);
+    }
+
+    @Test
+    void hibernateCreatedDatabaseMigratesFromTheBaseline() {
+        DriverManagerDataSource dataSource = database("from_hibernate");
+        new ResourceDatabasePopulator(new ClassPathResource("db/hibernate-create-schema.sql"))
+                .execute(dataSource);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("INSERT INTO carts (updated_at) VALUES (now())");
+        for (int i = 1; i <= 3; i++) {
+            jdbc.update("INSERT INTO orders (order_number, subtotal, tax, shipping_cost, total) "
+                    + "VALUES (?, 10, 1, 0, 11)", "ORD-" + i);
+            jdbc.update("INSERT INTO order_items (order_id, quantity, price) VALUES (?, 1, 10)", i);
+            jdbc.update("INSERT INTO cart_items (cart_id, quantity, price) VALUES (1, 1, 10)");
+        }
+
+        migrate(dataSource);
+
+        assertPooledIds(jdbc, 3);
+    }
+
+    // Ids come only from the pooled sequences, which resume past the existing rows
+    private static void assertPooledIds(JdbcTemplate jdbc, long maxId) {
+        for (String table : POOLED) {
+            assertEquals("NO", jdbc.queryForObject(
+                    "SELECT is_identity FROM information_schema.columns "
+                            + "WHERE table_name = ? AND column_name = 'id'", String.class, table), table);
+            assertNull(jdbc.queryForObject(
+                    "SELECT column_default FROM information_schema.columns "
+                            + "WHERE table_name = ? AND column_name = 'id'", String.class, table), table);
+            assertNull(jdbc.queryForObject("SELECT to_regclass(?)::text", String.class, table + "_id_seq"), table);
+            assertEquals(maxId + 50, jdbc.queryForObject("SELECT nextval(?)", Long.class, table + "_seq"), table);
+        }
+    }
+
+    private static void migrate(DriverManagerDataSource dataSource) {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+    }
+
+    private static DriverManagerDataSource database(String name) {
+        new JdbcTemplate(dataSource(POSTGRES.getJdbcUrl())).execute("CREATE DATABASE " + name);
+        return dataSource(POSTGRES.getJdbcUrl().replace("/" + POSTGRES.getDatabaseName(), "/" + name));
+    }
+
+    private static DriverManagerDataSource dataSource(String url) {
+        return new DriverManagerDataSource(url, POSTGRES.getUsername(), POSTGRES.getPassword());
+    }
+}
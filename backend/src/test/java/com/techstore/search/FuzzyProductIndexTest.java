@@ -0,0 +1,78 @@
+package com.techstore.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FuzzyProductIndexTest {
+    
+    private final FuzzyProductIndex index = FuzzyProductIndex.builder()
+            .add(1, "Samsung Galaxy S24 Smartphone", "Samsung", 10)
+            .add(2, "Samsung Galaxy Tab S9", "Samsung", 30)
+            .add(3, "Apple AirPods Pro", "Apple", 20)
+            .add(4, "Apple AirPods Max", "Apple", 5)
+            .add(5, "Galaxy Projector", "Nebula", 1)
+            .add(6, "Logitech MX Keys", null, 1)
+            .build();
+    
+    @Test
+    void countsAnAdjacentSwapAsOneEdit() {
+        assertEquals(0, FuzzyProductIndex.distance("galaxy", "galaxy", 2));
+        assertEquals(1, FuzzyProductIndex.distance("samsnug", "samsung", 2));
+        assertEquals(1, FuzzyProductIndex.distance("galxy", "galaxy", 2));
+        assertEquals(2, FuzzyProductIndex.distance("alienwear", "alienware", 2));
+        // Past the bound the exact distance does not matter
+        assertEquals(2, FuzzyProductIndex.distance("keys", "galaxy", 1));
+    }
+    
+    @Test
+    void allowsMoreEditsForLongerWords() {
+        assertEquals(0, FuzzyProductIndex.maxEdits(3));
+        assertEquals(1, FuzzyProductIndex.maxEdits(4));
+        assertEquals(1, FuzzyProductIndex.maxEdits(8));
+        assertEquals(2, FuzzyProductIndex.maxEdits(9));
+    }
+    
+    @Test
+    void matchesMisspelledWordsOfNamesAndBrands() {
+        assertArrayEquals(new long[] {2, 1}, index.search("samsnug galxy", 10).productIds());
+        assertArrayEquals(new long[] {3, 4}, index.search("airpod", 10).productIds());
+        assertArrayEquals(new long[] {6}, index.search("logitec", 10).productIds());
+        assertArrayEquals(new long[] {5}, index.search("nebul projector", 10).productIds());
+    }
+    
+    @Test
+    void requiresEveryWordToMatch() {
+        assertArrayEquals(new long[] {3}, index.search("airpods pro", 10).productIds());
+        assertEquals(0, index.search("airpods galaxy", 10).total());
+        assertEquals(0, index.search("nokia", 10).total());
+        assertEquals(0, index.search(" - ", 10).total());
+    }
+    
+    @Test
+    void ranksFewerEditsFirstThenWeight() {
+        FuzzyProductIndex ranked = FuzzyProductIndex.builder()
+                .add(1, "Gaming Mouse", "Acme", 100)
+                .add(2, "Gaming House", "Acme", 500)
+                .add(3, "Gaming Mouse Pad", "Acme", 50)
+                .build();
+        
+        assertArrayEquals(new long[] {1, 3, 2}, ranked.search("gaming mouse", 10).productIds());
+    }
+    
+    @Test
+    void matchesShortWordsExactly() {
+        assertArrayEquals(new long[] {1}, index.search("s24", 10).productIds());
+        assertEquals(0, index.search("s25", 10).total());
+        assertEquals(0, index.search("mac", 10).total());
+    }
+    
+    @Test
+    void countsEveryMatchButReturnsOnlyTheLimit() {
+        FuzzyProductIndex.Result result = index.search("galaxy", 2);
+        
+        assertEquals(3, result.total());
+        assertArrayEquals(new long[] {2, 1}, result.productIds());
+    }
+}
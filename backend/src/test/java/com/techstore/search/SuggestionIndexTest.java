@@ -0,0 +1,98 @@
+package com.techstore.search;
+
+import com.techstore.dto.search.Suggestion;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SuggestionIndexTest {
+    
+    @Test
+    void matchesPrefixesOfAnyWordHeaviestFirst() {
+        SuggestionIndex index = SuggestionIndex.builder(4, 24)
+                .add(product("Samsung Galaxy S24", 1), 50)
+                .add(product("Samsung Galaxy Tab S9", 2), 20)
+                .add(product("Galaxy Buds", 3), 80)
+                .add(new Suggestion("Samsung", "brand", null), 70)
+                .build(100);
+        
+        assertEquals(List.of("Galaxy Buds", "Samsung Galaxy S24", "Samsung Galaxy Tab S9"),
+                texts(index.suggest("gal", 10)));
+        assertEquals(List.of("Samsung", "Samsung Galaxy S24", "Samsung Galaxy Tab S9"),
+                texts(index.suggest("Sam", 10)));
+        assertEquals(List.of("Samsung Galaxy Tab S9"), texts(index.suggest("tab", 10)));
+        assertEquals(List.of("Galaxy Buds"), texts(index.suggest("gal", 1)));
+        assertEquals(List.of(), index.suggest("pixel", 10));
+        assertEquals(List.of(), index.suggest("  ", 10));
+    }
+    
+    @Test
+    void ignoresCaseAccentsAndPunctuation() {
+        SuggestionIndex index = SuggestionIndex.builder(4, 24)
+                .add(product("Café-Racer Headphones", 1), 1)
+                .build(100);
+        
+        assertEquals(1, index.suggest("CAFE RAC", 10).size());
+        assertEquals(1, index.suggest("racer", 10).size());
+        assertEquals(1, index.suggest("cafe-racer head", 10).size());
+    }
+    
+    @Test
+    void returnsAnEntryOnceWhenSeveralWordsMatch() {
+        SuggestionIndex index = SuggestionIndex.builder(4, 24)
+                .add(product("Pro Stand for Pro Monitors", 1), 1)
+                .add(product("Projector", 2), 2)
+                .build(100);
+        
+        assertEquals(List.of("Projector", "Pro Stand for Pro Monitors"), texts(index.suggest("pro", 10)));
+    }
+    
+    @Test
+    void checksPrefixesLongerThanTheKeysAgainstTheFullText() {
+        SuggestionIndex index = SuggestionIndex.builder(4, 8)
+                .add(product("Wireless Keyboard", 1), 2)
+                .add(product("Wireless Mouse", 2), 1)
+                .build(100);
+        
+        assertEquals(List.of("Wireless Keyboard", "Wireless Mouse"), texts(index.suggest("wireless", 10)));
+        assertEquals(List.of("Wireless Mouse"), texts(index.suggest("wireless mo", 10)));
+        assertEquals(List.of(), index.suggest("wireless pad", 10));
+    }
+    
+    @Test
+    void keepsOnlyTheHeaviestEntriesAndFirstWords() {
+        SuggestionIndex index = SuggestionIndex.builder(2, 24)
+                .add(product("Alpha Beta Gamma", 1), 3)
+                .add(product("Alpha Two", 2), 2)
+                .add(product("Alpha Three", 3), 1)
+                .build(2);
+        
+        assertEquals(2, index.size());
+        assertEquals(List.of("Alpha Beta Gamma", "Alpha Two"), texts(index.suggest("alpha", 10)));
+        assertEquals(List.of("Alpha Beta Gamma"), texts(index.suggest("beta", 10)));
+        // Past maxTokens word starts, later words are not indexed
+        assertEquals(List.of(), index.suggest("gamma", 10));
+        assertTrue(index.memoryBytes() > 0);
+    }
+    
+    @Test
+    void breaksWeightTiesAlphabetically() {
+        SuggestionIndex index = SuggestionIndex.builder(4, 24)
+                .add(product("Mouse B", 1), 5)
+                .add(product("Mouse A", 2), 5)
+                .build(100);
+        
+        assertEquals(List.of("Mouse A", "Mouse B"), texts(index.suggest("mou", 10)));
+    }
+    
+    private static Suggestion product(String name, long id) {
+        return new Suggestion(name, "product", id);
+    }
+    
+    private static List<String> texts(List<Suggestion> suggestions) {
+        return suggestions.stream().map(Suggestion::getText).toList();
+    }
+}
@@ -0,0 +1,99 @@
+package com.techstore.security;
+
+import com.techstore.event.UserChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserProfileCacheTest {
+    
+    private final UserProfileCache cache = new UserProfileCache(100, Duration.ofMinutes(30), new SimpleMeterRegistry());
+    
+    @Test
+    void changesEvictOnlyTheChangedUser() {
+        cache.putUserInCache(user(1L, "john@test.com", ""));
+        cache.putUserInCache(user(2L, "jane@test.com", ""));
+        
+        cache.onUserChanged(new UserChangedEvent(1L));
+        assertNull(cache.getUserFromCache("john@test.com"));
+        assertNotNull(cache.getUserFromCache("jane@test.com"));
+        
+        cache.onUserChanged(new UserChangedEvent(null, true));
+        assertNull(cache.getUserFromCache("jane@test.com"));
+    }
+    
+    @Test
+    void entriesExpireAfterTimeToLiveEvenWhileInUse() throws InterruptedException {
+        UserProfileCache shortLived = new UserProfileCache(100, Duration.ofMillis(500), new SimpleMeterRegistry());
+        shortLived.putUserInCache(user(1L, "john@test.com", ""));
+        
+        for (int i = 0; i < 3; i++) {
+            Thread.sleep(50);
+            assertNotNull(shortLived.getUserFromCache("john@test.com"));
+        }
+        Thread.sleep(500);
+        assertNull(shortLived.getUserFromCache("john@test.com"));
+    }
+    
+    @Test
+    void holdsAtMostMaxEntriesUsers() {
+        UserProfileCache small = new UserProfileCache(10, Duration.ofMinutes(30), new SimpleMeterRegistry());
+        for (long id = 0; id < 100; id++) {
+            small.putUserInCache(user(id, "user" + id + "@test.com", ""));
+        }
+        
+        int cached = 0;
+        for (long id = 0; id < 100; id++) {
+            cached += small.getUserFromCache("user" + id + "@test.com") != null ? 1 : 0;
+        }
+        assertTrue(cached <= 10, cached + " users cached");
+    }
+    
+    @Test
+    void loginsAfterTheFirstSkipTheDatabaseUntilThePasswordNoLongerMatches() {
+        PasswordEncoder encoder = new BCryptPasswordEncoder(4);
+        AtomicReference<UserDetailsImpl> stored = new AtomicReference<>(
+                user(1L, "john@test.com", encoder.encode("old-password")));
+        AtomicInteger loads = new AtomicInteger();
+        
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setPasswordEncoder(encoder);
+        provider.setUserDetailsService(email -> {
+            loads.incrementAndGet();
+            return stored.get();
+        });
+        provider.setUserCache(cache);
+        
+        authenticate(provider, "old-password");
+        authenticate(provider, "old-password");
+        assertEquals(1, loads.get());
+        
+        // Changed without an event: the cached hash fails, so the user is loaded again
+        stored.set(user(1L, "john@test.com", encoder.encode("new-password")));
+        Authentication authentication = authenticate(provider, "new-password");
+        assertEquals(2, loads.get());
+        assertEquals("John", ((UserDetailsImpl) authentication.getPrincipal()).getFirstName());
+    }
+    
+    private static Authentication authenticate(DaoAuthenticationProvider provider, String password) {
+        return provider.authenticate(new UsernamePasswordAuthenticationToken("john@test.com", password));
+    }
+    
+    private static UserDetailsImpl user(Long id, String email, String password) {
+        return new UserDetailsImpl(id, email, password, "John", "Doe", List.of());
+    }
+}
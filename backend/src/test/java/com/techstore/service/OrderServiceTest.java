@@ -0,0 +1,128 @@
+package com.techstore.service;
+
+import com.techstore.model.Order;
+import com.techstore.model.Product;
+import com.techstore.model.ShippingAddress;
+import com.techstore.repository.ProductRepository;
+import com.techstore.repository.UserRepository;
+import com.techstore.support.TestcontainersConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Payment intents assigned by concurrent transactions, as when several nodes
+ * open an intent for the same order: only the conditional update in the
+ * database decides between them.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestcontainersConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+class OrderServiceTest {
+    
+    private static final ShippingAddress ADDRESS =
+            new ShippingAddress("1 Main St", "Springfield", "IL", "62701", "US", "+1-555-0104");
+    private static final int CALLERS = 16;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private CartService cartService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Test
+    void concurrentAssignmentsAgreeOnOneIntent() throws Exception {
+        Order order = placeOrder();
+        
+        List<Future<String>> results = race(i -> orderService.assignPaymentIntent(order.getId(), "pi_race_" + i));
+        
+        Set<String> assigned = new HashSet<>();
+        int winners = 0;
+        for (int i = 0; i < CALLERS; i++) {
+            String intent = results.get(i).get();
+            assigned.add(intent);
+            winners += intent.equals("pi_race_" + i) ? 1 : 0;
+        }
+        assertEquals(1, assigned.size());
+        assertEquals(1, winners);
+        assertEquals(assigned.iterator().next(), orderService.getPaymentView(order.getId()).getPaymentIntentId());
+    }
+    
+    @Test
+    void concurrentAssignmentsNeverPayACancelledOrder() throws Exception {
+        Order order = placeOrder();
+        orderService.updateOrderStatus(order.getId(), Order.OrderStatus.CANCELLED);
+        
+        List<Future<String>> results = race(i -> orderService.assignPaymentIntent(order.getId(), "pi_cancelled_" + i));
+        
+        for (Future<String> result : results) {
+            ExecutionException ex = assertThrows(ExecutionException.class, result::get);
+            assertInstanceOf(RuntimeException.class, ex.getCause());
+        }
+        assertNull(orderService.getPaymentView(order.getId()).getPaymentIntentId());
+        assertEquals(Order.OrderStatus.CANCELLED, orderService.getPaymentView(order.getId()).getStatus());
+    }
+    
+    // Each call is its own transaction, released together
+    private static List<Future<String>> race(Caller caller) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                int n = i;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return caller.call(n);
+                }));
+            }
+            start.countDown();
+            executor.shutdown();
+            executor.awaitTermination(60, TimeUnit.SECONDS);
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    private Order placeOrder() {
+        Product product = productRepository.findAll(PageRequest.of(0, 1, Sort.by("stockQuantity").descending()))
+                .getContent().get(0);
+        Long userId = userRepository.findByEmail("john@test.com").orElseThrow().getId();
+        cartService.clearCart(userId);
+        cartService.addItemToCart(userId, product.getId(), 1);
+        return orderService.createOrder(userId, ADDRESS);
+    }
+    
+    private interface Caller {
+        String call(int n);
+    }
+}
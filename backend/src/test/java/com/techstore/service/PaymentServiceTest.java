@@ -0,0 +1,118 @@
+package com.techstore.service;
+
+import com.techstore.model.Order;
+import com.techstore.repository.OrderRepository;
+import com.techstore.service.PaymentService.MockPaymentIntent;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PaymentServiceTest {
+
+    @Test
+    void parallelIntentRequestsForOneOrderCreateASingleIntent() throws Exception {
+        OrderService orderService = mock(OrderService.class);
+        OrderRepository.PaymentView view = mock(OrderRepository.PaymentView.class);
+        when(view.getTotal()).thenReturn(new BigDecimal("109.99"));
+        when(orderService.getPaymentView(1L)).thenReturn(view);
+        when(orderService.assignPaymentIntent(eq(1L), anyString()))
+                .thenAnswer(invocation -> invocation.getArgument(1));
+
+        PaymentService paymentService = paymentService(orderService);
+
+        int requests = 1000;
+        ExecutorService pool = Executors.newFixedThreadPool(64);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<MockPaymentIntent>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < requests; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return paymentService.createPaymentIntent(1L);
+                }));
+            }
+            start.countDown();
+
+            MockPaymentIntent first = results.get(0).get();
+            for (Future<MockPaymentIntent> result : results) {
+                assertSame(first, result.get());
+            }
+            assertEquals(10999L, first.getAmount());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        verify(orderService, times(1)).getPaymentView(1L);
+        verify(orderService, times(1)).assignPaymentIntent(eq(1L), anyString());
+    }
+
+    @Test
+    void existingIntentIdIsReusedWithoutWriting() {
+        OrderService orderService = mock(OrderService.class);
+        OrderRepository.PaymentView view = mock(OrderRepository.PaymentView.class);
+        when(view.getTotal()).thenReturn(BigDecimal.TEN);
+        when(view.getPaymentIntentId()).thenReturn("pi_mock_existing");
+        when(orderService.getPaymentView(2L)).thenReturn(view);
+
+        MockPaymentIntent intent = paymentService(orderService).createPaymentIntent(2L);
+
+        assertEquals("pi_mock_existing", intent.getId());
+        verify(orderService, never()).assignPaymentIntent(anyLong(), anyString());
+    }
+
+    @Test
+    void failedPaymentIsRetriedWithANewIntent() {
+        OrderService orderService = mock(OrderService.class);
+        OrderRepository.PaymentView view = mock(OrderRepository.PaymentView.class);
+        when(view.getTotal()).thenReturn(BigDecimal.TEN);
+        when(view.getPaymentIntentId()).thenReturn("pi_mock_failed");
+        when(orderService.getPaymentView(3L)).thenReturn(view);
+        when(orderService.assignPaymentIntent(eq(3L), anyString()))
+                .thenAnswer(invocation -> invocation.getArgument(1));
+        Order order = new Order();
+        order.setId(3L);
+        when(orderService.updatePaymentStatus("pi_mock_failed", Order.PaymentStatus.FAILED)).thenReturn(order);
+
+        PaymentService paymentService = paymentService(orderService);
+        when(view.getPaymentStatus()).thenReturn(Order.PaymentStatus.PENDING);
+        assertEquals("pi_mock_failed", paymentService.createPaymentIntent(3L).getId());
+
+        paymentService.handlePaymentFailure("pi_mock_failed");
+        when(view.getPaymentStatus()).thenReturn(Order.PaymentStatus.FAILED);
+        MockPaymentIntent retry = paymentService.createPaymentIntent(3L);
+
+        assertNotEquals("pi_mock_failed", retry.getId());
+        verify(orderService).assignPaymentIntent(3L, retry.getId());
+    }
+
+    @Test
+    void cancelledOrderIsNotPaid() {
+        OrderService orderService = mock(OrderService.class);
+        OrderRepository.PaymentView view = mock(OrderRepository.PaymentView.class);
+        when(view.getTotal()).thenReturn(BigDecimal.TEN);
+        when(view.getStatus()).thenReturn(Order.OrderStatus.CANCELLED);
+        when(orderService.getPaymentView(4L)).thenReturn(view);
+
+        assertThrows(RuntimeException.class, () -> paymentService(orderService).createPaymentIntent(4L));
+        verify(orderService, never()).assignPaymentIntent(anyLong(), anyString());
+    }
+
+    private static PaymentService paymentService(OrderService orderService) {
+        return new PaymentService(orderService, 100, Duration.ofMinutes(30));
+    }
+}
@@ -0,0 +1,41 @@
+package com.techstore.service;
+
+import com.techstore.event.OrderPlacedEvent;
+import com.techstore.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RecommendationServiceTest {
+
+    @Test
+    void ordersPlacedDuringAFailedRebuildAreStillCounted() throws Exception {
+        DataSource dataSource = mock(DataSource.class);
+        RecommendationService service = new RecommendationService(
+                dataSource, mock(PlatformTransactionManager.class), mock(ProductRepository.class));
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "k", 10);
+        ReflectionTestUtils.setField(service, "minCount", 1);
+
+        // An order commits while history is being read, then the read fails
+        when(dataSource.getConnection()).thenAnswer(invocation -> {
+            service.onOrderPlaced(new OrderPlacedEvent(1L, List.of(10L, 20L)));
+            throw new SQLException("connection refused");
+        });
+        assertThrows(RuntimeException.class, service::rebuild);
+        assertArrayEquals(new long[]{20L}, service.relatedProductIds(10L, 5));
+
+        // Later orders are counted as they commit rather than buffered forever
+        service.onOrderPlaced(new OrderPlacedEvent(2L, List.of(10L, 30L)));
+        assertArrayEquals(new long[]{20L, 30L}, service.relatedProductIds(10L, 5));
+    }
+}
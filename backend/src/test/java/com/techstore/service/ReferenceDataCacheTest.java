@@ -0,0 +1,114 @@
+package com.techstore.service;
+
+import com.techstore.dto.auth.LoginRequest;
+import com.techstore.security.JwtAuthenticationFilter;
+import com.techstore.security.UserProfileCache;
+import com.techstore.support.TestcontainersConfiguration;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Login, token authentication and catalog browsing issue fewer statements
+ * once the second-level and user caches are warm than with both evicted.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestcontainersConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+class ReferenceDataCacheTest {
+    
+    @Autowired
+    private AuthService authService;
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+    
+    @Autowired
+    private UserProfileCache userProfileCache;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+    
+    @Test
+    void login() {
+        assertWarmCacheSavesStatements(() -> authService.login(johnLogin()));
+    }
+    
+    // Authenticating a request with a token looks the user up on every request
+    @Test
+    void tokenAuthentication() {
+        String token = authService.login(johnLogin()).getToken();
+        assertWarmCacheSavesStatements(() -> {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/cart");
+            request.addHeader("Authorization", "Bearer " + token);
+            try {
+                jwtAuthenticationFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+            assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+            SecurityContextHolder.clearContext();
+        });
+    }
+    
+    @Test
+    void catalogBrowsing() {
+        assertWarmCacheSavesStatements(() -> transactionTemplate.executeWithoutResult(status ->
+                productService.getAllProducts(PageRequest.of(0, 20))
+                        .forEach(product -> product.getCategory().getName())));
+    }
+    
+    private void assertWarmCacheSavesStatements(Runnable action) {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        action.run();
+        
+        sessionFactory.getCache().evictAllRegions();
+        userProfileCache.clear();
+        long cold = statements(action);
+        long warm = statements(action);
+        
+        assertTrue(warm < cold, warm + " statements with a warm cache, " + cold + " cold");
+    }
+    
+    private long statements(Runnable action) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+    
+    private static LoginRequest johnLogin() {
+        LoginRequest login = new LoginRequest();
+        login.setEmail("john@test.com");
+        login.setPassword("password123");
+        return login;
+    }
+}
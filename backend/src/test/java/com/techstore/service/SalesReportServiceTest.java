@@ -0,0 +1,187 @@
+package com.techstore.service;
+
+import com.techstore.dto.report.SalesReportRow;
+import com.techstore.model.Order;
+import com.techstore.model.Product;
+import com.techstore.model.SalesRollup;
+import com.techstore.model.ShippingAddress;
+import com.techstore.repository.ProductRepository;
+import com.techstore.repository.SalesRollupRepository;
+import com.techstore.repository.UserRepository;
+import com.techstore.support.TestcontainersConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestcontainersConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+class SalesReportServiceTest {
+    
+    private static final ShippingAddress ADDRESS =
+            new ShippingAddress("1 Main St", "Springfield", "IL", "62701", "US", "+1-555-0104");
+    
+    @Autowired
+    private SalesReportService salesReportService;
+    
+    @Autowired
+    private SalesRollupRepository salesRollupRepository;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private CartService cartService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Test
+    void placingPayingAndCancellingMoveTheRollups() {
+        Product product = productRepository.findAll(PageRequest.of(0, 1, Sort.by("stockQuantity").descending()))
+                .getContent().get(0);
+        SalesReportRow before = brandRow(product.getBrand());
+        
+        Order paid = placeOrder("mike@test.com", product.getId(), 2);
+        orderService.assignPaymentIntent(paid.getId(), "pi_report_" + paid.getId());
+        orderService.updatePaymentStatus("pi_report_" + paid.getId(), Order.PaymentStatus.PAID);
+        Order cancelled = placeOrder("mike@test.com", product.getId(), 1);
+        orderService.updateOrderStatus(cancelled.getId(), Order.OrderStatus.CANCELLED);
+        // Starting a payment does not bring a cancelled order back
+        assertThrows(RuntimeException.class,
+                () -> orderService.assignPaymentIntent(cancelled.getId(), "pi_report_" + cancelled.getId()));
+        assertEquals(Order.OrderStatus.CANCELLED, orderService.getPaymentView(cancelled.getId()).getStatus());
+        
+        SalesReportRow after = brandRow(product.getBrand());
+        BigDecimal lineTotal = paid.getItems().get(0).getPrice().multiply(BigDecimal.valueOf(2));
+        assertEquals(before.getUnits() + 2, after.getUnits());
+        assertEquals(before.getRevenue().add(lineTotal), after.getRevenue());
+        assertEquals(before.getPaidUnits() + 2, after.getPaidUnits());
+        assertEquals(before.getPaidRevenue().add(lineTotal), after.getPaidRevenue());
+        // Report tax is rounded to cents on both sides
+        assertTrue(after.getTax().subtract(before.getTax()).subtract(paid.getTax()).abs()
+                .compareTo(new BigDecimal("0.01")) <= 0);
+    }
+    
+    @Test
+    void concurrentCancelsAndRepeatedWebhooksMoveTheRollupsOnce() throws Exception {
+        Product product = productRepository.findAll(PageRequest.of(0, 1, Sort.by("stockQuantity").descending()))
+                .getContent().get(0);
+        SalesReportRow before = brandRow(product.getBrand());
+        
+        Order paid = placeOrder("jane@test.com", product.getId(), 1);
+        String intent = "pi_race_" + paid.getId();
+        orderService.assignPaymentIntent(paid.getId(), intent);
+        Order cancelled = placeOrder("jane@test.com", product.getId(), 1);
+        
+        race(() -> orderService.updatePaymentStatus(intent, Order.PaymentStatus.PAID));
+        race(() -> orderService.updateOrderStatus(cancelled.getId(), Order.OrderStatus.CANCELLED));
+        
+        SalesReportRow after = brandRow(product.getBrand());
+        assertEquals(before.getUnits() + 1, after.getUnits());
+        assertEquals(before.getPaidUnits() + 1, after.getPaidUnits());
+        List<SalesRollup> incremental = allRollups();
+        salesReportService.rebuild();
+        assertEquals(allRollups(), incremental);
+    }
+    
+    @Test
+    void rebuildRacingCheckoutsCountsEveryOrderOnce() throws Exception {
+        List<Long> productIds = productRepository.findAll(PageRequest.of(0, 3, Sort.by("stockQuantity").descending()))
+                .map(Product::getId)
+                .getContent();
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (String email : List.of("john@test.com", "jane@test.com")) {
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < 10; i++) {
+                        placeOrder(email, productIds.get(i % productIds.size()), 1);
+                    }
+                }));
+            }
+            results.add(executor.submit(() -> {
+                for (int i = 0; i < 5; i++) {
+                    salesReportService.rebuild();
+                }
+            }));
+            for (Future<?> result : results) {
+                result.get(120, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        List<SalesRollup> incremental = allRollups();
+        salesReportService.rebuild();
+        assertEquals(allRollups(), incremental);
+    }
+    
+    // Runs the same change on several threads released at once
+    private static void race(Runnable change) throws Exception {
+        int threads = 4;
+        CyclicBarrier start = new CyclicBarrier(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    change.run();
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    private Order placeOrder(String email, Long productId, int quantity) {
+        Long userId = userRepository.findByEmail(email).orElseThrow().getId();
+        cartService.clearCart(userId);
+        cartService.addItemToCart(userId, productId, quantity);
+        return orderService.createOrder(userId, ADDRESS);
+    }
+    
+    private SalesReportRow brandRow(String brand) {
+        LocalDate today = LocalDate.now();
+        return salesReportService.getSalesReport(today, today, "brand").stream()
+                .filter(row -> row.getKey().equals(brand))
+                .findFirst()
+                .orElse(new SalesReportRow(brand, brand, 0, BigDecimal.ZERO, BigDecimal.ZERO,
+                        0, BigDecimal.ZERO, BigDecimal.ZERO));
+    }
+    
+    // Placed measures go to zero rather than away when every order of a group is cancelled
+    private List<SalesRollup> allRollups() {
+        return salesRollupRepository.findAll(Sort.by("day", "categoryId", "brand")).stream()
+                .filter(rollup -> rollup.getUnits() != 0 || rollup.getPaidUnits() != 0)
+                .toList();
+    }
+}
@@ -0,0 +1,84 @@
+package com.techstore.stock;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StockHoldsTest {
+    
+    private static final Long PRODUCT = 7L;
+    
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private StockHolds stockHolds;
+    
+    @BeforeEach
+    void createTable() {
+        stockHolds = new StockHolds(Duration.ofMinutes(15), 1_000, new SimpleMeterRegistry(), now::get);
+        ReflectionTestUtils.setField(stockHolds, "enabled", true);
+    }
+    
+    @Test
+    void holdsOfOtherUsersReduceAvailableStock() {
+        assertTrue(stockHolds.hold(1L, PRODUCT, 3, 5));
+        assertFalse(stockHolds.hold(2L, PRODUCT, 3, 5));
+        assertTrue(stockHolds.hold(2L, PRODUCT, 2, 5));
+        assertEquals(5, stockHolds.heldQuantity(PRODUCT));
+    }
+    
+    @Test
+    void changingAHoldOnlyCountsTheDifference() {
+        assertTrue(stockHolds.hold(1L, PRODUCT, 3, 5));
+        assertTrue(stockHolds.hold(1L, PRODUCT, 5, 5));
+        assertFalse(stockHolds.hold(1L, PRODUCT, 6, 5));
+        assertEquals(5, stockHolds.heldQuantity(PRODUCT));
+        
+        assertTrue(stockHolds.hold(1L, PRODUCT, 1, 5));
+        assertEquals(1, stockHolds.heldQuantity(PRODUCT));
+        assertEquals(1, stockHolds.size());
+    }
+    
+    @Test
+    void releasedStockIsAvailableAgain() {
+        stockHolds.hold(1L, PRODUCT, 5, 5);
+        stockHolds.release(1L, List.of(PRODUCT));
+        
+        assertEquals(0, stockHolds.heldQuantity(PRODUCT));
+        assertTrue(stockHolds.hold(2L, PRODUCT, 5, 5));
+    }
+    
+    @Test
+    void holdsExpireAfterTheirTtl() {
+        stockHolds.hold(1L, PRODUCT, 2, 5);
+        now.addAndGet(Duration.ofMinutes(10).toMillis());
+        stockHolds.hold(2L, PRODUCT, 3, 5);
+        
+        now.addAndGet(Duration.ofMinutes(6).toMillis());
+        stockHolds.expireHolds();
+        assertEquals(3, stockHolds.heldQuantity(PRODUCT));
+        
+        now.addAndGet(Duration.ofMinutes(10).toMillis());
+        stockHolds.expireHolds();
+        assertEquals(0, stockHolds.heldQuantity(PRODUCT));
+        assertEquals(0, stockHolds.size());
+    }
+    
+    @Test
+    void refreshingAHoldRestartsItsTtl() {
+        stockHolds.hold(1L, PRODUCT, 2, 5);
+        now.addAndGet(Duration.ofMinutes(10).toMillis());
+        stockHolds.hold(1L, PRODUCT, 2, 5);
+        
+        now.addAndGet(Duration.ofMinutes(10).toMillis());
+        stockHolds.expireHolds();
+        assertEquals(2, stockHolds.heldQuantity(PRODUCT));
+    }
+}
@@ -0,0 +1,64 @@
+package com.techstore.stock;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+    
+    private static final long TICK = 10;
+    
+    @Test
+    void firesEachTimeoutOnTheTickOfItsDeadline() {
+        TimingWheel<Long> wheel = new TimingWheel<>(TICK, 0);
+        // One deadline per level: inside the first turn, and past 64, 64^2 and 64^3 ticks
+        long[] deadlines = {30, 640 + 70, 40_960 * TICK + 5, 262_144 * TICK + 3 * TICK};
+        for (long deadline : deadlines) {
+            wheel.schedule(deadline, deadline);
+        }
+        
+        List<long[]> fired = new ArrayList<>();
+        for (long now = 0; now <= deadlines[3] + TICK; now += TICK) {
+            long at = now;
+            wheel.advance(now, deadline -> fired.add(new long[] {deadline, at}));
+        }
+        
+        assertEquals(deadlines.length, fired.size());
+        for (long[] firing : fired) {
+            assertTrue(firing[1] >= firing[0], "fired before its deadline");
+            assertTrue(firing[1] < firing[0] + TICK, "fired more than a tick late");
+        }
+    }
+    
+    @Test
+    void cancelledTimeoutsDoNotFire() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 0);
+        TimingWheel.Timeout<String> kept = wheel.schedule("kept", 100);
+        TimingWheel.Timeout<String> cancelled = wheel.schedule("cancelled", 100);
+        cancelled.cancel();
+        
+        List<String> fired = new ArrayList<>();
+        wheel.advance(1_000, fired::add);
+        
+        assertEquals(List.of("kept"), fired);
+        assertFalse(kept.isCancelled());
+    }
+    
+    @Test
+    void overdueTimeoutsFireOnTheNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 1_000);
+        wheel.schedule("overdue", 500);
+        
+        List<String> fired = new ArrayList<>();
+        wheel.advance(1_000, fired::add);
+        assertTrue(fired.isEmpty());
+        
+        wheel.advance(1_000 + TICK, fired::add);
+        assertEquals(List.of("overdue"), fired);
+    }
+}
@@ -0,0 +1,133 @@
+package com.techstore.support;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The backend running in a separate process, either a JVM or the native
+ * executable, on a free port. The process inherits this JVM's environment,
+ * so the datasource comes from {@code SPRING_DATASOURCE_*} as in production.
+ */
+public final class ApplicationProcess implements AutoCloseable {
+    
+    private static final HttpClient HTTP = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+    
+    private final Process process;
+    private final int port;
+    private final int managementPort;
+    private final long startedAt;
+    
+    private ApplicationProcess(List<String> launcher, List<String> arguments) throws IOException {
+        this.port = freePort();
+        this.managementPort = freePort();
+        List<String> command = new ArrayList<>(launcher);
+        command.add("--server.port=" + port);
+        command.add("--management.server.port=" + managementPort);
+        command.addAll(arguments);
+        
+        this.startedAt = System.nanoTime();
+        this.process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(new File(System.getProperty("java.io.tmpdir"), "techstore-process.log"))
+                .start();
+    }
+    
+    /** Starts the application class on this JVM's classpath with extra JVM arguments. */
+    public static ApplicationProcess jvm(List<String> jvmArguments, String mainClass, String... arguments)
+            throws IOException {
+        List<String> launcher = new ArrayList<>();
+        launcher.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        launcher.addAll(jvmArguments);
+        launcher.addAll(List.of("-cp", System.getProperty("java.class.path"), mainClass));
+        return new ApplicationProcess(launcher, List.of(arguments));
+    }
+    
+    /** Starts an executable, such as the native image or {@code java -jar}. */
+    public static ApplicationProcess executable(List<String> launcher, String... arguments) throws IOException {
+        return new ApplicationProcess(launcher, List.of(arguments));
+    }
+    
+    /** Polls {@code path} until it answers 200 and returns the milliseconds since launch. */
+    public long awaitResponse(String path, Duration timeout) throws InterruptedException {
+        return await(uri(path), timeout);
+    }
+    
+    /** Waits for the readiness probe, which also covers synchronous seeding. */
+    public long awaitReady(Duration timeout) throws InterruptedException {
+        return await(URI.create("http://localhost:" + managementPort + "/actuator/health/readiness"), timeout);
+    }
+    
+    private long await(URI uri, Duration timeout) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(5)).build();
+        
+        while (System.nanoTime() - startedAt < timeout.toNanos()) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with " + process.exitValue());
+            }
+            try {
+                if (HTTP.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return (System.nanoTime() - startedAt) / 1_000_000;
+                }
+            } catch (IOException ex) {
+                // Not listening yet
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("No response from " + uri + " within " + timeout);
+    }
+    
+    public HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return HTTP.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+    
+    public URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+    
+    /** Resident set size from {@code /proc}, so Linux only. */
+    public long residentSetKilobytes() {
+        return status("VmRSS:");
+    }
+    
+    /** Live threads from {@code /proc}, so Linux only. */
+    public long threads() {
+        return status("Threads:");
+    }
+    
+    private long status(String field) {
+        try {
+            return Files.readAllLines(Path.of("/proc", String.valueOf(process.pid()), "status")).stream()
+                    .filter(line -> line.startsWith(field))
+                    .mapToLong(line -> Long.parseLong(line.replaceAll("\\D", "")))
+                    .findFirst()
+                    .orElseThrow();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+    
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        process.waitFor();
+    }
+    
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
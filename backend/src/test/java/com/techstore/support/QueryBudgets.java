@@ -0,0 +1,52 @@
+package com.techstore.support;
+
+import com.techstore.metrics.QueryStats;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Baseline SQL statement budgets per endpoint, read from
+ * {@code query-budgets.properties}. Counts come from the datasource proxy,
+ * so anything the request does on the calling thread is included.
+ */
+public final class QueryBudgets {
+    
+    private final Properties budgets = new Properties();
+    
+    private QueryBudgets(String resource) {
+        try (InputStream in = QueryBudgets.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing " + resource);
+            }
+            budgets.load(in);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+    
+    public static QueryBudgets load() {
+        return new QueryBudgets("query-budgets.properties");
+    }
+    
+    public static void startCounting() {
+        QueryStats.reset();
+    }
+    
+    public void assertWithinBudget(String endpoint) {
+        String budget = budgets.getProperty(endpoint);
+        if (budget == null) {
+            fail("No query budget recorded for " + endpoint);
+        }
+        
+        int statements = QueryStats.current().getStatements();
+        assertTrue(statements <= Integer.parseInt(budget),
+                endpoint + " issued " + statements + " SQL statements, budget is " + budget
+                        + ". Look for an N+1 before raising the budget.");
+    }
+}
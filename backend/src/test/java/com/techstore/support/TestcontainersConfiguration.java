@@ -0,0 +1,18 @@
+package com.techstore.support;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+// Same Postgres image as docker-compose, wired in as the application datasource
+@TestConfiguration(proxyBeanMethods = false)
+public class TestcontainersConfiguration {
+    
+    @Bean
+    @ServiceConnection
+    PostgreSQLContainer<?> postgresContainer() {
+        return new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"));
+    }
+}
@@ -0,0 +1,46 @@
+package com.techstore.warmup;
+
+import com.techstore.support.TestcontainersConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"warmup.round-size=50", "warmup.max-duration=10s"})
+@ActiveProfiles("test")
+@Import(TestcontainersConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+class WarmupRunnerTest {
+    
+    @Autowired
+    private WarmupRunner warmupRunner;
+    
+    @Autowired
+    private ApplicationAvailability availability;
+    
+    @Test
+    void replaysRecordedRequestsBeforeAcceptingTraffic() {
+        WarmupReport report = warmupRunner.getLastReport();
+        
+        assertNotNull(report);
+        assertTrue(report.rounds() > 0);
+        assertEquals(0, report.failures(), "every recorded request, including authenticated ones, should succeed");
+        assertEquals(ReadinessState.ACCEPTING_TRAFFIC, availability.getReadinessState());
+    }
+    
+    @Test
+    void onlyReadRequestsCanBeRecorded() {
+        assertEquals(new WarmupRequest("/api/cart", true), WarmupRequest.parse("auth GET /api/cart"));
+        assertThrows(IllegalArgumentException.class, () -> WarmupRequest.parse("POST /api/orders"));
+    }
+}
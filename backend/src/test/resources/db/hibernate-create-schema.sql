@@ -0,0 +1,30 @@
+-- Schema as Hibernate 6 creates it with ddl-auto=create for the entities before
+-- Flyway took over: IDENTITY ids are identity columns, not serials. Databases
+-- like this are baselined at V1 and only get V2 onwards.
+
+create table addresses (id bigint generated by default as identity, is_default boolean not null, user_id bigint, city varchar(255) not null, country varchar(255) not null, state varchar(255) not null, street varchar(255) not null, zip_code varchar(255) not null, primary key (id));
+create table cart_items (quantity integer not null, price numeric(38,2) not null, cart_id bigint, id bigint generated by default as identity, product_id bigint, primary key (id));
+create table carts (id bigint generated by default as identity, updated_at timestamp(6), user_id bigint unique, primary key (id));
+create table categories (active boolean not null, id bigint generated by default as identity, parent_id bigint, description varchar(255), name varchar(255) not null unique, primary key (id));
+create table order_items (price numeric(38,2) not null, quantity integer not null, id bigint generated by default as identity, order_id bigint, product_id bigint, product_name varchar(255), product_sku varchar(255), primary key (id));
+create table orders (shipping_cost numeric(38,2) not null, subtotal numeric(38,2) not null, tax numeric(38,2) not null, total numeric(38,2) not null, created_at timestamp(6), id bigint generated by default as identity, updated_at timestamp(6), user_id bigint, city varchar(255), country varchar(255), order_number varchar(255) not null unique, payment_intent_id varchar(255), payment_status varchar(255) check (payment_status in ('PENDING','PAID','FAILED','REFUNDED')), phone_number varchar(255), state varchar(255), status varchar(255) check (status in ('PENDING','PROCESSING','SHIPPED','DELIVERED','CANCELLED')), street varchar(255), tracking_number varchar(255), zip_code varchar(255), primary key (id));
+create table product_images (product_id bigint not null, image_url varchar(255));
+create table products (active boolean not null, average_rating float(53), discount_price numeric(38,2), price numeric(38,2) not null, review_count integer, stock_quantity integer not null, category_id bigint, created_at timestamp(6), id bigint generated by default as identity, updated_at timestamp(6), description varchar(2000), brand varchar(255), name varchar(255) not null, sku varchar(255), primary key (id));
+create table reviews (rating integer not null, created_at timestamp(6), id bigint generated by default as identity, product_id bigint not null, user_id bigint not null, comment varchar(1000), primary key (id));
+create table roles (id bigint generated by default as identity, name varchar(255) not null unique check (name in ('ROLE_USER','ROLE_ADMIN')), primary key (id));
+create table user_roles (role_id bigint not null, user_id bigint not null, primary key (role_id, user_id));
+create table users (enabled boolean not null, created_at timestamp(6), id bigint generated by default as identity, updated_at timestamp(6), email varchar(255) not null unique, first_name varchar(255) not null, last_name varchar(255) not null, password varchar(255) not null, phone_number varchar(255), primary key (id));
+alter table if exists addresses add constraint FK1fa36y2oqhao3wgg2rw1pi459 foreign key (user_id) references users;
+alter table if exists cart_items add constraint FKpcttvuq4mxppo8sxggjtn5i2c foreign key (cart_id) references carts;
+alter table if exists cart_items add constraint FK1re40cjegsfvw58xrkdp6bac6 foreign key (product_id) references products;
+alter table if exists carts add constraint FKb5o626f86h46m4s7ms6ginnop foreign key (user_id) references users;
+alter table if exists categories add constraint FKsaok720gsu4u2wrgbk10b5n8d foreign key (parent_id) references categories;
+alter table if exists order_items add constraint FKbioxgbv59vetrxe0ejfubep1w foreign key (order_id) references orders;
+alter table if exists order_items add constraint FKocimc7dtr037rh4ls4l95nlfi foreign key (product_id) references products;
+alter table if exists orders add constraint FK32ql8ubntj5uh44ph9659tiih foreign key (user_id) references users;
+alter table if exists product_images add constraint FKqnq71xsohugpqwf3c9gxmsuy foreign key (product_id) references products;
+alter table if exists products add constraint FKog2rp4qthbtt2lfyhfo32lsw9 foreign key (category_id) references categories;
+alter table if exists reviews add constraint FKpl51cejpw4gy5swfar8br9ngi foreign key (product_id) references products;
+alter table if exists reviews add constraint FKcgy7qjc1r99dp117y9en6lxye foreign key (user_id) references users;
+alter table if exists user_roles add constraint FKh8ciramu9cc9q3qcqiv4ue8a6 foreign key (role_id) references roles;
+alter table if exists user_roles add constraint FKhfh9dx7w3ubf1co1vdev94g3f foreign key (user_id) references users;
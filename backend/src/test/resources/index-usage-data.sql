@@ -0,0 +1,55 @@
+-- Representative row counts and value distributions for IndexUsageTest.
+-- Runs inside the test transaction and is rolled back afterwards.
+
+INSERT INTO roles (name) VALUES ('ROLE_USER') ON CONFLICT DO NOTHING;
+
+INSERT INTO categories (name, active)
+SELECT 'Index category ' || g, true FROM generate_series(0, 19) g;
+
+INSERT INTO products (name, description, price, discount_price, stock_quantity, brand, category_id, active)
+SELECT 'Product ' || md5(g::text),
+       repeat(md5((g * 7)::text), 4),
+       10 + g % 2000,
+       CASE WHEN g % 50 = 0 THEN 9 + g % 2000 END,
+       10,
+       'Brand ' || g % 200,
+       c.id,
+       g % 10 <> 0
+FROM generate_series(1, 10000) g
+JOIN categories c ON c.name = 'Index category ' || g % 20;
+
+INSERT INTO users (email, password, first_name, last_name, enabled)
+SELECT 'index' || g || '@test.com', 'x', 'Index', 'User', true FROM generate_series(1, 2000) g;
+
+INSERT INTO user_roles (user_id, role_id)
+SELECT u.id, r.id FROM users u, roles r WHERE u.email LIKE 'index%' AND r.name = 'ROLE_USER';
+
+INSERT INTO carts (user_id)
+SELECT id FROM users WHERE email LIKE 'index%';
+
+WITH first AS (SELECT min(id) AS product FROM products)
+INSERT INTO cart_items (id, cart_id, product_id, quantity, price)
+SELECT nextval('cart_items_seq'), c.id, first.product + (c.id * 3 + g) % 10000, 1, 10
+FROM carts c, first, generate_series(1, 3) g;
+
+INSERT INTO orders (id, user_id, order_number, subtotal, tax, shipping_cost, total, payment_intent_id, created_at)
+SELECT nextval('orders_seq'), u.id, 'IDX-' || g, 100, 10, 0, 110, 'pi_mock_' || g, now() - g * interval '1 minute'
+FROM generate_series(1, 10000) g
+JOIN users u ON u.email = 'index' || (g % 2000 + 1) || '@test.com';
+
+WITH first AS (SELECT min(id) AS product FROM products)
+INSERT INTO order_items (id, order_id, product_id, quantity, price)
+SELECT nextval('order_items_seq'), o.id, first.product + (o.id * 3 + g) % 10000, 1, 10
+FROM orders o, first, generate_series(1, 3) g;
+
+WITH first AS (SELECT (SELECT min(id) FROM products) AS product, (SELECT min(id) FROM users) AS usr)
+INSERT INTO reviews (product_id, user_id, rating)
+SELECT first.product + g % 10000, first.usr + g % 2000, 1 + g % 5
+FROM first, generate_series(1, 10000) g;
+
+-- Autovacuum would normally flush the GIN fast-update lists; VACUUM cannot run in a transaction
+SELECT gin_clean_pending_list('idx_products_name_trgm'::regclass);
+SELECT gin_clean_pending_list('idx_products_description_trgm'::regclass);
+SELECT gin_clean_pending_list('idx_products_brand_trgm'::regclass);
+
+ANALYZE;